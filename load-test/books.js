@@ -0,0 +1,66 @@
+// Нагрузочный тест чтения каталога для сравнения платформенных и виртуальных потоков.
+//
+// Запуск (нужен k6, приложение с заполненным каталогом на BASE_URL):
+//   k6 run -e BASE_URL=http://localhost:8080 -e VUS=5000 -e MODE=platform load-test/books.js
+//
+// Каждый виртуальный пользователь k6 держит своё keep-alive соединение, поэтому VUS
+// задаёт число одновременных соединений с приложением. MODE (platform, virtual-threads, reactive)
+// становится тегом всех метрик прогона, чтобы результаты разных режимов можно было сравнивать
+// в одном хранилище (например, k6 run --out json=...).
+import http from 'k6/http';
+import { check } from 'k6';
+import { Rate } from 'k6/metrics';
+
+const BASE_URL = __ENV.BASE_URL || 'http://localhost:8080';
+const VUS = parseInt(__ENV.VUS || '5000', 10);
+const MODE = __ENV.MODE || 'platform';
+const MAX_REJECTED_RATE = __ENV.MAX_REJECTED_RATE || '0.01';
+
+// Доля ответов 503: отказы bulkhead и пула соединений под перегрузкой
+const rejected = new Rate('rejected');
+
+export const options = {
+    scenarios: {
+        catalog: {
+            executor: 'ramping-vus',
+            startVUs: 0,
+            stages: [
+                { duration: '30s', target: VUS },
+                { duration: '2m', target: VUS },
+                { duration: '10s', target: 0 },
+            ],
+            gracefulRampDown: '10s',
+        },
+    },
+    tags: { mode: MODE },
+    summaryTrendStats: ['avg', 'p(50)', 'p(95)', 'p(99)', 'max'],
+    thresholds: {
+        // Успех — только 200: отказ 503 тоже считается неудачей
+        'checks{type:status}': ['rate>0.99'],
+        // Отдельный порог для 503 показывает, сколько неудач пришлось на отказы под перегрузкой
+        'rejected': [`rate<${MAX_REJECTED_RATE}`],
+    },
+};
+
+export function setup() {
+    const response = http.get(`${BASE_URL}/book?limit=100`);
+    const ids = response.json('items').map((book) => book.publicId);
+    if (ids.length === 0) {
+        throw new Error('Catalog is empty, seed it via POST /book/batch first');
+    }
+    return { ids };
+}
+
+export default function (data) {
+    const id = data.ids[Math.floor(Math.random() * data.ids.length)];
+    const requests = [
+        ['GET', `${BASE_URL}/book/${id}`, null, { tags: { name: 'getBookById' } }],
+        ['GET', `${BASE_URL}/book?limit=20`, null, { tags: { name: 'getAllBooks' } }],
+        ['GET', `${BASE_URL}/book/search?q=java`, null, { tags: { name: 'searchBooks' } }],
+    ];
+    const responses = http.batch(requests);
+    responses.forEach((response, i) => {
+        check(response, { 'status is 200': (r) => r.status === 200 }, { type: 'status' });
+        rejected.add(response.status === 503, requests[i][3].tags);
+    });
+}
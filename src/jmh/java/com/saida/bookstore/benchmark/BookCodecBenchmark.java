@@ -0,0 +1,80 @@
+package com.saida.bookstore.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.saida.bookstore.api.codec.BookProtobufCodec;
+import com.saida.bookstore.api.response.BookPageResponse;
+import com.saida.bookstore.api.response.BookResponse;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Кодирование и разбор страницы из 20 книг в форматах ответа GET /book: JSON, CBOR и протобуф.
+ * <p>
+ * Размеры закодированной страницы приведены в README, аллокации видны с {@code -prof gc}.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Thread)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class BookCodecBenchmark {
+
+    private static final int PAGE_SIZE = 20;
+
+    @Param({"json", "cbor", "protobuf"})
+    private String format;
+
+    private ObjectMapper objectMapper;
+    private BookPageResponse page;
+    private byte[] encoded;
+
+    @Setup
+    public void setup() throws IOException {
+        objectMapper = "cbor".equals(format) ? new ObjectMapper(new CBORFactory()) : new ObjectMapper();
+        objectMapper.findAndRegisterModules().disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+
+        List<BookResponse> items = new ArrayList<>(PAGE_SIZE);
+        LocalDateTime createdAt = LocalDateTime.of(2024, 1, 15, 10, 30, 0, 123_456_000);
+        for (int i = 0; i < PAGE_SIZE; i++) {
+            items.add(new BookResponse(UUID.randomUUID(), "Effective Java, edition " + i, "Joshua Bloch",
+                    "978013468599" + i % 10, new BigDecimal("45.90").add(BigDecimal.valueOf(i)), 2018,
+                    createdAt.plusMinutes(i), createdAt.plusDays(i)));
+        }
+        page = new BookPageResponse(items, "MjAyNC0wMS0xNVQxMDozMDowMC4xMjM0NTZ8NDI");
+        encoded = encode();
+    }
+
+    @Benchmark
+    public byte[] encode() throws IOException {
+        return "protobuf".equals(format)
+                ? BookProtobufCodec.encode(page)
+                : objectMapper.writeValueAsBytes(page);
+    }
+
+    @Benchmark
+    public BookPageResponse decode() throws IOException {
+        return "protobuf".equals(format)
+                ? BookProtobufCodec.decodePage(encoded)
+                : objectMapper.readValue(encoded, BookPageResponse.class);
+    }
+}
@@ -0,0 +1,166 @@
+package com.saida.bookstore.benchmark;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.saida.bookstore.BookStoreApplication;
+import com.saida.bookstore.api.request.BookRequest;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.servlet.context.ServletWebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.testcontainers.containers.PostgreSQLContainer;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Полный цикл обработки запроса {@code BookController}: HTTP, Spring MVC, сервис, JDBC и PostgreSQL
+ * в Testcontainers.
+ * <p>
+ * Приложение поднимается один раз на всю серию измерений, каталог заполняется через
+ * {@code POST /book/batch}. Измеряются только чтения, чтобы объём данных не менялся между итерациями.
+ */
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Benchmark)
+@Fork(1)
+@Threads(4)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+public class BookControllerBenchmark {
+
+    private static final int CATALOG_SIZE = 1_000;
+
+    private final ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+    private final HttpClient httpClient = HttpClient.newHttpClient();
+
+    private PostgreSQLContainer<?> postgres;
+    private ConfigurableApplicationContext context;
+    private String baseUrl;
+    private List<String> publicIds;
+
+    @Setup(Level.Trial)
+    public void startApplication() throws Exception {
+        postgres = new PostgreSQLContainer<>("postgres:15")
+                .withDatabaseName("bookstore")
+                .withUsername("bookstore")
+                .withPassword("password");
+        postgres.start();
+        createSchema();
+
+        context = new SpringApplicationBuilder(BookStoreApplication.class)
+                .properties(
+                        "server.port=0",
+                        "spring.datasource.url=" + postgres.getJdbcUrl() + "&currentSchema=bookstore",
+                        "spring.datasource.username=" + postgres.getUsername(),
+                        "spring.datasource.password=" + postgres.getPassword(),
+                        "logging.level.com.saida.bookstore=INFO"
+                )
+                .run();
+        int port = ((ServletWebServerApplicationContext) context).getWebServer().getPort();
+        baseUrl = "http://localhost:" + port + "/book";
+
+        publicIds = seedCatalog();
+    }
+
+    @TearDown(Level.Trial)
+    public void stopApplication() {
+        if (context != null) {
+            context.close();
+        }
+        if (postgres != null) {
+            postgres.stop();
+        }
+    }
+
+    @Benchmark
+    public String getBookById() throws IOException, InterruptedException {
+        String publicId = publicIds.get(ThreadLocalRandom.current().nextInt(publicIds.size()));
+        return get(baseUrl + "/" + publicId);
+    }
+
+    @Benchmark
+    public String getFirstPage() throws IOException, InterruptedException {
+        return get(baseUrl + "?limit=20");
+    }
+
+    private String get(String url) throws IOException, InterruptedException {
+        HttpRequest request = HttpRequest.newBuilder(URI.create(url)).GET().build();
+        HttpResponse<String> response = httpClient.send(request, HttpResponse.BodyHandlers.ofString());
+        if (response.statusCode() != 200) {
+            throw new IllegalStateException("Unexpected status " + response.statusCode() + " for " + url);
+        }
+        return response.body();
+    }
+
+    private void createSchema() throws SQLException {
+        try (Connection connection = DriverManager.getConnection(
+                postgres.getJdbcUrl(), postgres.getUsername(), postgres.getPassword());
+             Statement statement = connection.createStatement()) {
+            statement.execute("CREATE SCHEMA IF NOT EXISTS bookstore");
+        }
+    }
+
+    private List<String> seedCatalog() throws IOException, InterruptedException {
+        List<BookRequest> requests = new ArrayList<>(CATALOG_SIZE);
+        for (int i = 0; i < CATALOG_SIZE; i++) {
+            requests.add(new BookRequest("Benchmark Book " + i, "Author " + (i % 50), isbn13(i),
+                    BigDecimal.valueOf(10 + i % 90, 0).add(new BigDecimal("0.99")), 1950 + i % 75));
+        }
+
+        HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + "/batch"))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofByteArray(objectMapper.writeValueAsBytes(requests)))
+                .build();
+        HttpResponse<String> response = httpClient.send(request, HttpResponse.BodyHandlers.ofString());
+
+        List<String> ids = new ArrayList<>(CATALOG_SIZE);
+        for (JsonNode item : objectMapper.readTree(response.body())) {
+            JsonNode book = item.get("book");
+            if (book != null) {
+                ids.add(book.get("publicId").asText());
+            }
+        }
+        if (ids.isEmpty()) {
+            throw new IllegalStateException("Catalog seeding failed: " + response.body());
+        }
+        return ids;
+    }
+
+    /**
+     * Формирует корректный ISBN-13 с префиксом 978 и контрольной цифрой.
+     */
+    private static String isbn13(int sequence) {
+        String body = String.format("978%09d", sequence);
+        int sum = 0;
+        for (int i = 0; i < body.length(); i++) {
+            int digit = body.charAt(i) - '0';
+            sum += (i % 2 == 0) ? digit : digit * 3;
+        }
+        return body + (10 - sum % 10) % 10;
+    }
+}
@@ -0,0 +1,73 @@
+package com.saida.bookstore.benchmark;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.saida.bookstore.api.codec.BookJsonWriter;
+import com.saida.bookstore.mapper.BookMapper;
+import com.saida.bookstore.mapper.BookMapperImpl_;
+import com.saida.bookstore.repository.impl.BookRowMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Сериализация строки book в JSON: напрямую из ResultSet через {@link BookJsonWriter} против цепочки
+ * entity → dto → response и ObjectMapper, которой раньше шли GET /book и выгрузка.
+ * <p>
+ * Запуск с {@code -prof gc} показывает разницу в аллокациях на строку.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Thread)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class BookJsonWriterBenchmark {
+
+    private final ObjectMapper objectMapper = new ObjectMapper()
+            .findAndRegisterModules()
+            .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+    private final BookMapper bookMapper = new BookMapperImpl_();
+    private final ResultSet resultSet = new BookRowResultSet();
+
+    private JsonGenerator generator;
+
+    @Setup(Level.Iteration)
+    public void openGenerator() throws IOException {
+        generator = objectMapper.createGenerator(OutputStream.nullOutputStream());
+        generator.setRootValueSeparator(new SerializedString("\n"));
+    }
+
+    @TearDown(Level.Iteration)
+    public void closeGenerator() throws IOException {
+        generator.close();
+    }
+
+    @Benchmark
+    public void writeFromResultSet() throws SQLException, IOException {
+        BookJsonWriter.INSTANCE.write(resultSet, generator);
+    }
+
+    @Benchmark
+    public void mapAndSerialize() throws SQLException, IOException {
+        objectMapper.writeValue(generator,
+                bookMapper.toResponse(bookMapper.toDto(BookRowMapper.INSTANCE.mapRow(resultSet, 1))));
+    }
+}
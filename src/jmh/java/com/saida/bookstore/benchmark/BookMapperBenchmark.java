@@ -0,0 +1,63 @@
+package com.saida.bookstore.benchmark;
+
+import com.saida.bookstore.api.response.BookResponse;
+import com.saida.bookstore.dto.BookDto;
+import com.saida.bookstore.entity.BookEntity;
+import com.saida.bookstore.mapper.BookMapper;
+import com.saida.bookstore.mapper.BookMapperImpl_;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Цепочка преобразований {@link BookMapper}: entity → dto → response, как при чтении книги.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Thread)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class BookMapperBenchmark {
+
+    private final BookMapper bookMapper = new BookMapperImpl_();
+
+    private final BookEntity entity = BookEntity.builder()
+            .id(42L)
+            .publicId(UUID.fromString("0f8fad5b-d9cb-469f-a165-70867728950e"))
+            .title("Effective Java")
+            .author("Joshua Bloch")
+            .isbn("9780134685991")
+            .price(new BigDecimal("45.99"))
+            .publicationYear(2018)
+            .createdAt(LocalDateTime.of(2024, 1, 15, 10, 30))
+            .build();
+
+    private final BookDto dto = bookMapper.toDto(entity);
+
+    @Benchmark
+    public BookDto entityToDto() {
+        return bookMapper.toDto(entity);
+    }
+
+    @Benchmark
+    public BookResponse dtoToResponse() {
+        return bookMapper.toResponse(dto);
+    }
+
+    @Benchmark
+    public BookResponse entityToResponse() {
+        return bookMapper.toResponse(bookMapper.toDto(entity));
+    }
+}
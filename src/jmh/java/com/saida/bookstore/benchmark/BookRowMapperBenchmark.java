@@ -0,0 +1,36 @@
+package com.saida.bookstore.benchmark;
+
+import com.saida.bookstore.entity.BookEntity;
+import com.saida.bookstore.repository.impl.BookRowMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Пропускная способность {@link BookRowMapper} на строке в памяти, без драйвера и сети.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Thread)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class BookRowMapperBenchmark {
+
+    private final ResultSet resultSet = new BookRowResultSet();
+
+    @Benchmark
+    public BookEntity mapRow() throws SQLException {
+        return BookRowMapper.INSTANCE.mapRow(resultSet, 1);
+    }
+}
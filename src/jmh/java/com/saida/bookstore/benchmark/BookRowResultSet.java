@@ -0,0 +1,102 @@
+package com.saida.bookstore.benchmark;
+
+import java.math.BigDecimal;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Однострочный ResultSet с колонками таблицы book.
+ * <p>
+ * Поддерживает ровно те геттеры, которые вызывают {@link com.saida.bookstore.repository.impl.BookRowMapper}
+ * и {@link com.saida.bookstore.api.codec.BookJsonWriter}. uuid и numeric отдаются текстом,
+ * как их возвращает драйвер PostgreSQL.
+ */
+final class BookRowResultSet extends UnsupportedResultSet {
+
+    private final long id = 42L;
+    private final UUID publicId = UUID.fromString("0f8fad5b-d9cb-469f-a165-70867728950e");
+    private final String title = "Effective Java";
+    private final String author = "Joshua Bloch";
+    private final String isbn = "9780134685991";
+    private final BigDecimal price = new BigDecimal("45.99");
+    private final int publicationYear = 2018;
+    private final long version = 3L;
+    private final String publicIdText = publicId.toString();
+    private final String priceText = price.toString();
+    private final LocalDateTime createdAtDateTime = LocalDateTime.of(2024, 1, 15, 10, 30);
+    private final Timestamp createdAt = Timestamp.valueOf(createdAtDateTime);
+
+    @Override
+    public long getLong(String columnLabel) throws SQLException {
+        if ("id".equals(columnLabel)) {
+            return id;
+        }
+        if ("version".equals(columnLabel)) {
+            return version;
+        }
+        throw unknownColumn(columnLabel);
+    }
+
+    @Override
+    public <T> T getObject(String columnLabel, Class<T> type) throws SQLException {
+        if ("public_id".equals(columnLabel) && type == UUID.class) {
+            return type.cast(publicId);
+        }
+        if (("created_at".equals(columnLabel) || "updated_at".equals(columnLabel)) && type == LocalDateTime.class) {
+            return type.cast(createdAtDateTime);
+        }
+        throw unknownColumn(columnLabel);
+    }
+
+    @Override
+    public String getString(String columnLabel) throws SQLException {
+        return switch (columnLabel) {
+            case "title" -> title;
+            case "author" -> author;
+            case "isbn" -> isbn;
+            case "public_id" -> publicIdText;
+            case "price" -> priceText;
+            default -> throw unknownColumn(columnLabel);
+        };
+    }
+
+    @Override
+    public BigDecimal getBigDecimal(String columnLabel) throws SQLException {
+        if ("price".equals(columnLabel)) {
+            return price;
+        }
+        throw unknownColumn(columnLabel);
+    }
+
+    @Override
+    public int getInt(String columnLabel) throws SQLException {
+        if ("publication_year".equals(columnLabel)) {
+            return publicationYear;
+        }
+        throw unknownColumn(columnLabel);
+    }
+
+    @Override
+    public Timestamp getTimestamp(String columnLabel) throws SQLException {
+        if ("created_at".equals(columnLabel) || "updated_at".equals(columnLabel)) {
+            return createdAt;
+        }
+        throw unknownColumn(columnLabel);
+    }
+
+    @Override
+    public boolean wasNull() {
+        return false;
+    }
+
+    @Override
+    public int getRow() {
+        return 1;
+    }
+
+    private static SQLException unknownColumn(String columnLabel) {
+        return new SQLException("Unknown column: " + columnLabel);
+    }
+}
@@ -0,0 +1,69 @@
+package com.saida.bookstore.benchmark;
+
+import com.saida.bookstore.dto.BookDto;
+import com.saida.bookstore.validator.CompositeBookValidator;
+import com.saida.bookstore.validator.impl.BookAuthorValidator;
+import com.saida.bookstore.validator.impl.BookIsbnValidator;
+import com.saida.bookstore.validator.impl.BookPriceValidator;
+import com.saida.bookstore.validator.impl.BookPublicationYearValidator;
+import com.saida.bookstore.validator.impl.BookTitleValidator;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Стоимость валидации одной книги: корректные данные, ошибки во всех полях и режим fail-fast.
+ * <p>
+ * Выделение памяти на корректной книге видно с профилировщиком: {@code -Djmh.args="CompositeBookValidator -prof gc"}.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Thread)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class CompositeBookValidatorBenchmark {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private final CompositeBookValidator validator = new CompositeBookValidator(List.of(
+            new BookTitleValidator(),
+            new BookAuthorValidator(),
+            new BookIsbnValidator(),
+            new BookPriceValidator(),
+            new BookPublicationYearValidator()
+    ), meterRegistry);
+
+    private final BookDto validBook = new BookDto(null, "Effective Java", "Joshua Bloch",
+            "978-0-13-468599-1", new BigDecimal("45.99"), 2018, null, null, 1L);
+
+    private final BookDto invalidBook = new BookDto(null, " ", "", "12-34",
+            new BigDecimal("-1.999"), 1200, null, null, 1L);
+
+    @Benchmark
+    public BookDto validBook() {
+        validator.validate(validBook);
+        return validBook;
+    }
+
+    @Benchmark
+    public List<String> invalidBook() {
+        return validator.collectErrors(invalidBook, false);
+    }
+
+    @Benchmark
+    public List<String> invalidBookFailFast() {
+        return validator.collectErrors(invalidBook, true);
+    }
+}
@@ -0,0 +1,50 @@
+package com.saida.bookstore.benchmark;
+
+import com.saida.bookstore.util.IsbnUtils;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Проверка, нормализация и канонизация ISBN для типичных входных строк.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Thread)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class IsbnUtilsBenchmark {
+
+    @Param({"9780134685991", "978-0-13-468599-1", "0-306-40615-2", "not-an-isbn"})
+    private String isbn;
+
+    @Benchmark
+    public boolean isValidFormat() {
+        return IsbnUtils.isValidFormat(isbn);
+    }
+
+    @Benchmark
+    public String normalize() {
+        return IsbnUtils.normalize(isbn);
+    }
+
+    @Benchmark
+    public IsbnUtils.Check check() {
+        return IsbnUtils.check(isbn);
+    }
+
+    @Benchmark
+    public String canonicalize() {
+        return IsbnUtils.canonicalize(isbn);
+    }
+}
@@ -1,63 +1,356 @@
 package com.saida.bookstore.api;
 
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.core.util.ByteArrayBuilder;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.saida.bookstore.api.codec.BookJsonWriter;
+import com.saida.bookstore.api.codec.BookProtobufCodec;
+import com.saida.bookstore.api.codec.EncodedBookCache;
+import com.saida.bookstore.api.codec.ResponseCompressor;
+import com.saida.bookstore.api.request.BookLookupRequest;
 import com.saida.bookstore.api.request.BookRequest;
+import com.saida.bookstore.api.response.BookBatchItemResponse;
+import com.saida.bookstore.api.response.BookChangePageResponse;
+import com.saida.bookstore.api.response.BookImportResponse;
+import com.saida.bookstore.api.response.BookLookupResponse;
+import com.saida.bookstore.api.response.BookPageResponse;
 import com.saida.bookstore.api.response.BookResponse;
+import com.saida.bookstore.api.response.BookStatsResponse;
 import com.saida.bookstore.dto.BookDto;
+import com.saida.bookstore.dto.BookImportFormat;
+import com.saida.bookstore.dto.BookImportReport;
+import com.saida.bookstore.dto.BookLookupResult;
+import com.saida.bookstore.dto.BookPageDto;
+import com.saida.bookstore.dto.BookPageVersion;
+import com.saida.bookstore.dto.BookSearchCriteria;
+import com.saida.bookstore.dto.BookStats;
 import com.saida.bookstore.mapper.BookMapper;
+import com.saida.bookstore.service.BookChangeService;
+import com.saida.bookstore.service.BookImportService;
 import com.saida.bookstore.service.BookService;
+import com.saida.bookstore.util.ETagUtils;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.media.Content;
 import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.util.MimeTypeUtils;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.math.BigDecimal;
 import java.util.List;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
 
 @Tag(name = "Book Controller", description = "API для работы с книгами")
 @Schema(description = "book")
 @RestController
+@Profile("!reactive")
 @RequestMapping(path = "/book")
 @RequiredArgsConstructor
 public class BookController {
 
+    private static final SerializedString NDJSON_SEPARATOR = new SerializedString("\n");
+
+    // Форматы книги и страницы книг в порядке предпочтения при равном качестве в Accept
+    private static final List<MediaType> PRODUCIBLE_MEDIA_TYPES =
+            List.of(MediaType.APPLICATION_JSON, MediaType.APPLICATION_CBOR, BookProtobufCodec.MEDIA_TYPE);
+    private static final CBORFactory CBOR_FACTORY = new CBORFactory();
+
     private final BookMapper bookMapper;
     private final BookService bookService;
+    private final BookImportService bookImportService;
+    private final BookChangeService bookChangeService;
+    private final ObjectMapper objectMapper;
+    private final EncodedBookCache encodedBookCache;
+    private final ResponseCompressor responseCompressor;
 
-    @Operation(summary = "Найти книгу по ID", description = "Возвращает книгу по её идентификатору")
+    @Operation(summary = "Найти книгу по ID", description = "Возвращает книгу по её идентификатору. "
+            + "Кроме JSON отдаёт CBOR и протобуф по заголовку Accept")
     @ApiResponses(value = {
-            @ApiResponse(responseCode = "200", description = "Успешное получение книги!"),
+            @ApiResponse(responseCode = "200", description = "Успешное получение книги!",
+                    content = {
+                            @Content(mediaType = MediaType.APPLICATION_JSON_VALUE,
+                                    schema = @Schema(implementation = BookResponse.class)),
+                            @Content(mediaType = MediaType.APPLICATION_CBOR_VALUE,
+                                    schema = @Schema(implementation = BookResponse.class)),
+                            @Content(mediaType = BookProtobufCodec.MEDIA_TYPE_VALUE)
+                    }),
+            @ApiResponse(responseCode = "304", description = "Книга не изменилась с прошлого запроса"),
             @ApiResponse(responseCode = "404", description = "Книга не найдена:(")
     })
-    @GetMapping("/{publicId}")
-    ResponseEntity<BookResponse> getBookById(
+    @GetMapping(path = "/{publicId}", produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_CBOR_VALUE,
+            BookProtobufCodec.MEDIA_TYPE_VALUE})
+    public ResponseEntity<byte[]> getBookById(
             @Parameter(description = "ID книги", required = true, example = "1")
-            @PathVariable UUID publicId
+            @PathVariable UUID publicId,
+            @RequestHeader(name = HttpHeaders.ACCEPT, required = false) String accept,
+            @RequestHeader(name = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding,
+            WebRequest webRequest
     ) {
+        MediaType contentType = negotiateContentType(accept);
+        boolean gzip = ResponseCompressor.acceptsGzip(acceptEncoding);
         BookDto dto = bookService.getBookById(publicId);
-        return ResponseEntity.ok().body(bookMapper.toResponse(dto));
+        String version = ETagUtils.of(dto);
+        String etag = representationETag(version, contentType, gzip);
+        long lastModified = ETagUtils.lastModified(dto);
+        // checkNotModified сам выставляет 304 и заголовки, тело не сериализуется
+        if (webRequest.checkNotModified(etag, lastModified)) {
+            return null;
+        }
+        // Тело популярной книги уже закодировано и сжато: маппер и Jackson не вызываются
+        EncodedBookCache.EncodedBody body =
+                encodedBookCache.get(publicId, version, contentType, () -> bookMapper.toResponse(dto));
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                .contentType(contentType)
+                .cacheControl(CacheControl.noCache())
+                .varyBy(HttpHeaders.ACCEPT, HttpHeaders.ACCEPT_ENCODING)
+                .eTag(etag)
+                .lastModified(lastModified);
+        if (gzip && body.gzip() != null) {
+            return response.header(HttpHeaders.CONTENT_ENCODING, ResponseCompressor.GZIP).body(body.gzip());
+        }
+        return response.body(body.identity());
     }
 
 
-    @Operation(summary = "Получить все книги", description = "Возвращает список всех книг")
+    @Operation(summary = "Найти книги по списку ключей",
+            description = "Возвращает книги по спискам publicId и ISBN (до 1000 ключей) за один запрос. "
+                    + "Результаты идут в порядке запроса, ненайденные ключи помечены found=false")
     @ApiResponses(value = {
-            @ApiResponse(responseCode = "200", description = "Успешное получение списка книг!")
+            @ApiResponse(responseCode = "200", description = "Успешный поиск книг!"),
+            @ApiResponse(responseCode = "400", description = "Слишком много ключей:(")
     })
-    @GetMapping
-    public ResponseEntity<List<BookResponse>> getAllBooks() {
-        List<BookResponse> books = bookService.getAllBooks()
-                .stream()
-                .map(bookMapper::toResponse)
-                .toList();
-        return ResponseEntity.ok(books);
+    @PostMapping("/lookup")
+    public ResponseEntity<BookLookupResponse> lookupBooks(@RequestBody BookLookupRequest request) {
+        BookLookupResult result = bookService.lookupBooks(request.publicIds(), request.isbns());
+        return ResponseEntity.ok(bookMapper.toResponse(result));
+    }
+
+
+    @Operation(summary = "Получить страницу книг",
+            description = "Возвращает страницу книг, начиная с самых новых. "
+                    + "Для следующей страницы передайте nextCursor из ответа в параметре cursor. "
+                    + "Кроме JSON отдаёт CBOR и протобуф (схема proto/book.proto) по заголовку Accept")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Успешное получение страницы книг!",
+                    content = {
+                            @Content(mediaType = MediaType.APPLICATION_JSON_VALUE,
+                                    schema = @Schema(implementation = BookPageResponse.class)),
+                            @Content(mediaType = MediaType.APPLICATION_CBOR_VALUE,
+                                    schema = @Schema(implementation = BookPageResponse.class)),
+                            @Content(mediaType = BookProtobufCodec.MEDIA_TYPE_VALUE)
+                    }),
+            @ApiResponse(responseCode = "304", description = "Страница не изменилась с прошлого запроса"),
+            @ApiResponse(responseCode = "400", description = "Неверный курсор или размер страницы:("),
+            @ApiResponse(responseCode = "406", description = "Ни один из форматов в Accept не поддерживается:(")
+    })
+    @GetMapping(produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_CBOR_VALUE,
+            BookProtobufCodec.MEDIA_TYPE_VALUE})
+    public ResponseEntity<byte[]> getAllBooks(
+            @Parameter(description = "Курсор из предыдущей страницы")
+            @RequestParam(required = false) String cursor,
+            @Parameter(description = "Размер страницы (по умолчанию 20, максимум 100)")
+            @RequestParam(required = false) Integer limit,
+            @RequestHeader(name = HttpHeaders.ACCEPT, required = false) String accept,
+            @RequestHeader(name = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding,
+            WebRequest webRequest
+    ) throws IOException {
+        MediaType contentType = negotiateContentType(accept);
+        boolean gzip = ResponseCompressor.acceptsGzip(acceptEncoding);
+        // Версия читается до страницы: если книги изменятся между запросами, ETag окажется старше тела
+        // и следующий условный запрос просто получит 200. Last-Modified не отдаём — удаление его не меняет
+        BookPageVersion version = bookService.getAllBooksVersion(cursor, limit);
+        String etag = representationETag(ETagUtils.of(version), contentType, gzip);
+        if (webRequest.checkNotModified(etag)) {
+            return null;
+        }
+        byte[] body = BookProtobufCodec.MEDIA_TYPE.equals(contentType)
+                ? writeProtobufPage(cursor, limit)
+                : writePage(MediaType.APPLICATION_CBOR.equals(contentType), cursor, limit);
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                .contentType(contentType)
+                .cacheControl(CacheControl.noCache())
+                .varyBy(HttpHeaders.ACCEPT, HttpHeaders.ACCEPT_ENCODING)
+                .eTag(etag);
+        byte[] compressed = gzip ? responseCompressor.compress(body) : null;
+        if (compressed != null) {
+            return response.header(HttpHeaders.CONTENT_ENCODING, ResponseCompressor.GZIP).body(compressed);
+        }
+        return response.body(body);
+    }
+
+    /**
+     * ETag представления: JSON без сжатия получает ETag версии как есть, остальные форматы и gzip — с суффиксом.
+     * Суффикс gzip зависит только от Accept-Encoding, чтобы 304 можно было ответить до кодирования тела.
+     */
+    private static String representationETag(String etag, MediaType contentType, boolean gzip) {
+        if (!MediaType.APPLICATION_JSON.equals(contentType)) {
+            etag = ETagUtils.forRepresentation(etag, contentType.getSubtype());
+        }
+        return gzip ? ETagUtils.forRepresentation(etag, ResponseCompressor.GZIP) : etag;
+    }
+
+    /**
+     * Выбирает формат ответа по заголовку Accept: сначала по качеству, затем по точности типа.
+     * Неподдерживаемый Accept сюда не доходит — Spring отвечает 406 по атрибуту produces.
+     */
+    private static MediaType negotiateContentType(String accept) {
+        if (accept == null) {
+            return MediaType.APPLICATION_JSON;
+        }
+        List<MediaType> acceptedTypes = MediaType.parseMediaTypes(accept);
+        MimeTypeUtils.sortBySpecificity(acceptedTypes);
+        for (MediaType acceptedType : acceptedTypes) {
+            if (acceptedType.getQualityValue() == 0) {
+                continue;
+            }
+            for (MediaType producibleType : PRODUCIBLE_MEDIA_TYPES) {
+                if (acceptedType.includes(producibleType)) {
+                    return producibleType;
+                }
+            }
+        }
+        return MediaType.APPLICATION_JSON;
+    }
+
+    /**
+     * Пишет страницу в формате {@link BookPageResponse} прямо из строк результата запроса.
+     * Страница собирается в памяти, а не в ответ: соединение с базой не ждёт медленного клиента,
+     * а ошибка в курсоре превращается в обычный ответ 400.
+     */
+    private byte[] writePage(boolean cbor, String cursor, Integer limit) throws IOException {
+        ByteArrayBuilder buffer = new ByteArrayBuilder();
+        try (JsonGenerator generator = cbor
+                ? CBOR_FACTORY.createGenerator(buffer)
+                : objectMapper.createGenerator(buffer)) {
+            generator.writeStartObject();
+            generator.writeArrayFieldStart("items");
+            String nextCursor = bookService.writeAllBooks(cursor, limit,
+                    rs -> BookJsonWriter.INSTANCE.write(rs, generator));
+            generator.writeEndArray();
+            generator.writeStringField("nextCursor", nextCursor);
+            generator.writeEndObject();
+        }
+        return buffer.toByteArray();
+    }
+
+    private byte[] writeProtobufPage(String cursor, Integer limit) {
+        BookProtobufCodec.PageWriter pageWriter = new BookProtobufCodec.PageWriter();
+        String nextCursor = bookService.writeAllBooks(cursor, limit, pageWriter);
+        return pageWriter.finish(nextCursor);
+    }
+
+
+    @Operation(summary = "Поиск книг",
+            description = "Полнотекстовый поиск по названию и автору с учётом опечаток и фильтрами по автору, "
+                    + "году издания и цене. Результаты упорядочены по релевантности. "
+                    + "Для следующей страницы передайте nextCursor из ответа в параметре cursor")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Успешный поиск книг!"),
+            @ApiResponse(responseCode = "400", description = "Неверные параметры поиска:(")
+    })
+    @GetMapping("/search")
+    public ResponseEntity<BookPageResponse> searchBooks(
+            @Parameter(description = "Поисковый запрос по названию и автору", example = "clean code")
+            @RequestParam(required = false) String q,
+            @Parameter(description = "Автор (точное совпадение или похожее написание)")
+            @RequestParam(required = false) String author,
+            @Parameter(description = "Минимальный год издания")
+            @RequestParam(required = false) Integer yearFrom,
+            @Parameter(description = "Максимальный год издания")
+            @RequestParam(required = false) Integer yearTo,
+            @Parameter(description = "Минимальная цена")
+            @RequestParam(required = false) BigDecimal priceMin,
+            @Parameter(description = "Максимальная цена")
+            @RequestParam(required = false) BigDecimal priceMax,
+            @Parameter(description = "Курсор из предыдущей страницы поиска")
+            @RequestParam(required = false) String cursor,
+            @Parameter(description = "Размер страницы (по умолчанию 20, максимум 100)")
+            @RequestParam(required = false) Integer limit
+    ) {
+        BookSearchCriteria criteria = new BookSearchCriteria(q, author, yearFrom, yearTo, priceMin, priceMax);
+        BookPageDto page = bookService.searchBooks(criteria, cursor, limit);
+        return ResponseEntity.ok(bookMapper.toResponse(page));
     }
 
 
+    @Operation(summary = "Статистика каталога",
+            description = "Количество книг и минимальная, максимальная и средняя цена, сгруппированные по автору "
+                    + "(author), году издания (publicationYear) и интервалам цены (price). Без groupBy возвращает "
+                    + "итог по каталогу. Считается в базе и кэшируется на несколько секунд")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Успешное получение статистики!"),
+            @ApiResponse(responseCode = "400", description = "Неизвестное измерение или неверная ширина интервала:(")
+    })
+    @GetMapping("/stats")
+    public ResponseEntity<BookStatsResponse> getStats(
+            @Parameter(description = "Измерения группировки через запятую или повтором параметра",
+                    example = "publicationYear,price")
+            @RequestParam(required = false) List<String> groupBy,
+            @Parameter(description = "Ширина интервала цены для измерения price (по умолчанию 10)")
+            @RequestParam(required = false) BigDecimal priceBucket
+    ) {
+        BookStats stats = bookService.getStats(groupBy, priceBucket);
+        return ResponseEntity.ok(bookMapper.toResponse(stats));
+    }
+
+
+    @Operation(summary = "Выгрузить каталог",
+            description = "Потоково выгружает все книги в формате NDJSON: одна книга в строке")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Выгрузка каталога началась!")
+    })
+    @GetMapping(path = "/export", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> exportBooks() {
+        // Книги пишутся прямо из строк результата, без сущностей, DTO и сериализации через рефлексию
+        StreamingResponseBody body = outputStream -> {
+            try (JsonGenerator generator = objectMapper.createGenerator(outputStream)) {
+                generator.setRootValueSeparator(NDJSON_SEPARATOR);
+                bookService.exportBooks(rs -> BookJsonWriter.INSTANCE.write(rs, generator));
+            }
+        };
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(body);
+    }
+
+    @Operation(summary = "Получить изменения каталога",
+            description = "Возвращает изменения книг после смещения since; если изменений нет, ждёт новых "
+                    + "(long-poll, по умолчанию до 30 секунд). Без since возвращает текущее смещение: "
+                    + "с него начинают после полной загрузки каталога. "
+                    + "Для следующего запроса передайте nextOffset из ответа")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Изменения получены или время ожидания истекло"),
+            @ApiResponse(responseCode = "400", description = "Неверное смещение или размер порции:("),
+            @ApiResponse(responseCode = "410", description = "Изменения после since удалены, нужна полная загрузка")
+    })
+    @GetMapping("/changes")
+    public CompletableFuture<ResponseEntity<BookChangePageResponse>> getChanges(
+            @Parameter(description = "Смещение последнего полученного изменения")
+            @RequestParam(required = false) Long since,
+            @Parameter(description = "Максимальное количество изменений (по умолчанию 100, максимум 1000)")
+            @RequestParam(required = false) Integer limit
+    ) {
+        return bookChangeService.awaitChanges(since, limit)
+                .thenApply(page -> ResponseEntity.ok(bookMapper.toResponse(page)));
+    }
+
     @Operation(summary = "Создать книгу", description = "Создание новой книги в системе")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "201", description = "Книга успешно создана!"),
@@ -70,12 +363,74 @@ public class BookController {
                 .body(bookMapper.toResponse(bookDto));
     }
 
+    @Operation(summary = "Создать пакет книг",
+            description = "Создание множества книг за один запрос. Ошибка в одной книге не отменяет остальные")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Пакет обработан, результат по каждой книге в ответе!"),
+            @ApiResponse(responseCode = "400", description = "Пакет слишком большой:(")
+    })
+    @PostMapping("/batch")
+    public ResponseEntity<List<BookBatchItemResponse>> saveBooks(@RequestBody List<BookRequest> requests) {
+        List<BookDto> books = requests.stream()
+                .map(bookMapper::toDto)
+                .toList();
+        return ResponseEntity.ok(bookMapper.toBatchResponse(bookService.saveBooks(books)));
+    }
+
+    @Operation(summary = "Импортировать книги из CSV",
+            description = "Потоковая загрузка каталога из CSV с заголовком title,author,isbn,price,publicationYear")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Импорт завершён, отчёт в ответе!"),
+            @ApiResponse(responseCode = "400", description = "Не удалось прочитать файл:(")
+    })
+    @PostMapping(path = "/import", consumes = "text/csv")
+    public ResponseEntity<BookImportResponse> importCsv(
+            InputStream body,
+            @Parameter(description = "Сообщать для строки только первую ошибку валидации")
+            @RequestParam(defaultValue = "false") boolean failFast
+    ) {
+        BookImportReport report = bookImportService.importBooks(body, BookImportFormat.CSV, failFast);
+        return ResponseEntity.ok(bookMapper.toResponse(report));
+    }
+
+    @Operation(summary = "Импортировать книги из NDJSON",
+            description = "Потоковая загрузка каталога: один объект книги в формате запроса на строку")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Импорт завершён, отчёт в ответе!"),
+            @ApiResponse(responseCode = "400", description = "Не удалось прочитать файл:(")
+    })
+    @PostMapping(path = "/import", consumes = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<BookImportResponse> importNdjson(
+            InputStream body,
+            @Parameter(description = "Сообщать для строки только первую ошибку валидации")
+            @RequestParam(defaultValue = "false") boolean failFast
+    ) {
+        BookImportReport report = bookImportService.importBooks(body, BookImportFormat.NDJSON, failFast);
+        return ResponseEntity.ok(bookMapper.toResponse(report));
+    }
+
+    @Operation(summary = "Обновить книгу",
+            description = "Обновляет книгу. С заголовком If-Match (ETag из GET /book/{publicId}) обновление "
+                    + "выполняется, только если книга не менялась с момента чтения, иначе возвращается 412")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Книга успешно обновлена!"),
+            @ApiResponse(responseCode = "400", description = "Неверные данные книги:("),
+            @ApiResponse(responseCode = "404", description = "Книга не найдена:("),
+            @ApiResponse(responseCode = "409", description = "ISBN занят другой книгой:("),
+            @ApiResponse(responseCode = "412", description = "Книга изменилась после чтения, перечитайте её:(")
+    })
     @PutMapping("/{publicId}")
     public ResponseEntity<BookResponse> updateBook(
             @PathVariable UUID publicId,
+            @Parameter(description = "ETag прочитанной версии книги")
+            @RequestHeader(name = HttpHeaders.IF_MATCH, required = false) String ifMatch,
             @RequestBody BookRequest request) {
-        BookDto updatedBook = bookService.updateBook(publicId, bookMapper.toDto(request));
-        return ResponseEntity.ok(bookMapper.toResponse(updatedBook));
+        BookDto updatedBook = bookService.updateBook(publicId, bookMapper.toDto(request),
+                ETagUtils.parseVersions(ifMatch));
+        // ETag новой версии: с ним клиент может выполнить следующее условное обновление без чтения
+        return ResponseEntity.ok()
+                .eTag(ETagUtils.of(updatedBook))
+                .body(bookMapper.toResponse(updatedBook));
     }
 
 
@@ -0,0 +1,114 @@
+package com.saida.bookstore.api;
+
+import com.saida.bookstore.api.request.BookRequest;
+import com.saida.bookstore.api.response.BookPageResponse;
+import com.saida.bookstore.api.response.BookResponse;
+import com.saida.bookstore.mapper.BookMapper;
+import com.saida.bookstore.service.ReactiveBookService;
+import com.saida.bookstore.util.ETagUtils;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * WebFlux-версия {@link BookController} для профиля reactive: те же пути, параметры и формат ответов.
+ */
+@Tag(name = "Reactive Book Controller", description = "Неблокирующее API для работы с книгами")
+@RestController
+@Profile("reactive")
+@RequestMapping(path = "/book")
+@RequiredArgsConstructor
+public class ReactiveBookController {
+
+    private final BookMapper bookMapper;
+    private final ReactiveBookService bookService;
+
+    @Operation(summary = "Найти книгу по ID", description = "Возвращает книгу по её идентификатору")
+    @GetMapping("/{publicId}")
+    public Mono<ResponseEntity<BookResponse>> getBookById(
+            @Parameter(description = "ID книги", required = true)
+            @PathVariable UUID publicId,
+            ServerWebExchange exchange
+    ) {
+        return bookService.getBookById(publicId).flatMap(dto -> {
+            String etag = ETagUtils.of(dto);
+            Instant lastModified = Instant.ofEpochMilli(ETagUtils.lastModified(dto));
+            // checkNotModified сам выставляет 304 и заголовки, тело не сериализуется
+            if (exchange.checkNotModified(etag, lastModified)) {
+                return Mono.empty();
+            }
+            return Mono.just(ResponseEntity.ok()
+                    .cacheControl(CacheControl.noCache())
+                    .eTag(etag)
+                    .lastModified(lastModified)
+                    .body(bookMapper.toResponse(dto)));
+        });
+    }
+
+    @Operation(summary = "Получить страницу книг",
+            description = "Возвращает страницу книг, начиная с самых новых. "
+                    + "Для следующей страницы передайте nextCursor из ответа в параметре cursor")
+    @GetMapping
+    public Mono<ResponseEntity<BookPageResponse>> getAllBooks(
+            @Parameter(description = "Курсор из предыдущей страницы")
+            @RequestParam(required = false) String cursor,
+            @Parameter(description = "Размер страницы (по умолчанию 20, максимум 100)")
+            @RequestParam(required = false) Integer limit,
+            ServerWebExchange exchange
+    ) {
+        return bookService.getAllBooksVersion(cursor, limit).flatMap(version -> {
+            String etag = ETagUtils.of(version);
+            if (exchange.checkNotModified(etag)) {
+                return Mono.empty();
+            }
+            return bookService.getAllBooks(cursor, limit)
+                    .map(page -> ResponseEntity.ok()
+                            .cacheControl(CacheControl.noCache())
+                            .eTag(etag)
+                            .body(bookMapper.toResponse(page)));
+        });
+    }
+
+    @Operation(summary = "Выгрузить каталог",
+            description = "Потоково выгружает все книги в формате NDJSON: одна книга в строке. "
+                    + "Книги читаются из базы по мере того, как клиент успевает их принимать")
+    @GetMapping(path = "/export", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public Flux<BookResponse> exportBooks() {
+        return bookService.exportBooks().map(bookMapper::toResponse);
+    }
+
+    @Operation(summary = "Создать книгу", description = "Создание новой книги в системе")
+    @PostMapping
+    public Mono<ResponseEntity<BookResponse>> saveBook(@RequestBody BookRequest request) {
+        return bookService.saveBook(bookMapper.toDto(request))
+                .map(bookDto -> ResponseEntity.status(HttpStatus.CREATED)
+                        .body(bookMapper.toResponse(bookDto)));
+    }
+
+    @PutMapping("/{publicId}")
+    public Mono<ResponseEntity<BookResponse>> updateBook(
+            @PathVariable UUID publicId,
+            @RequestBody BookRequest request) {
+        return bookService.updateBook(publicId, bookMapper.toDto(request))
+                .map(updatedBook -> ResponseEntity.ok(bookMapper.toResponse(updatedBook)));
+    }
+
+    @DeleteMapping("/{publicId}")
+    public Mono<ResponseEntity<Void>> deleteBook(@PathVariable("publicId") UUID publicId) {
+        return bookService.deleteBookById(publicId)
+                .then(Mono.fromCallable(() -> ResponseEntity.noContent().build()));
+    }
+}
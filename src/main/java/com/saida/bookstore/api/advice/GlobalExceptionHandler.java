@@ -3,24 +3,38 @@ package com.saida.bookstore.api.advice;
 import com.saida.bookstore.dto.ErrorResponse;
 import com.saida.bookstore.exception.BookAlreadyExistsException;
 import com.saida.bookstore.exception.BookNotFoundException;
+import com.saida.bookstore.exception.BookVersionMismatchException;
+import com.saida.bookstore.exception.ChangeOffsetExpiredException;
 import com.saida.bookstore.exception.InvalidBookDataException;
 import com.saida.bookstore.exception.ValidationException;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.annotation.Profile;
+import org.springframework.core.NestedExceptionUtils;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.dao.TransientDataAccessException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.transaction.CannotCreateTransactionException;
+import org.springframework.transaction.TransactionTimedOutException;
 import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
 import org.springframework.web.context.request.WebRequest;
 
+import java.sql.SQLTimeoutException;
+import java.sql.SQLTransientConnectionException;
 import java.time.LocalDateTime;
 import java.util.HashMap;
 import java.util.Map;
 
 @Slf4j
 @RestControllerAdvice
+@Profile("!reactive")
 public class GlobalExceptionHandler {
 
+    private static final String RETRY_AFTER_SECONDS = "1";
+
     @ExceptionHandler(BookNotFoundException.class)
     public ResponseEntity<ErrorResponse> handleBookNotFound(BookNotFoundException ex, WebRequest request) {
         log.warn("Book not found: {}", ex.getMessage());
@@ -51,6 +65,21 @@ public class GlobalExceptionHandler {
         return new ResponseEntity<>(errorResponse, HttpStatus.CONFLICT);
     }
 
+    @ExceptionHandler(BookVersionMismatchException.class)
+    public ResponseEntity<ErrorResponse> handleBookVersionMismatch(BookVersionMismatchException ex, WebRequest request) {
+        log.warn("Book version mismatch: {}", ex.getMessage());
+
+        ErrorResponse errorResponse = ErrorResponse.builder()
+                .timestamp(LocalDateTime.now())
+                .status(HttpStatus.PRECONDITION_FAILED.value())
+                .error("Book Version Mismatch")
+                .message(ex.getMessage())
+                .path(request.getDescription(false))
+                .build();
+
+        return new ResponseEntity<>(errorResponse, HttpStatus.PRECONDITION_FAILED);
+    }
+
     @ExceptionHandler(InvalidBookDataException.class)
     public ResponseEntity<ErrorResponse> handleInvalidBookData(InvalidBookDataException ex, WebRequest request) {
         log.warn("Invalid book data: {}", ex.getMessage());
@@ -66,6 +95,21 @@ public class GlobalExceptionHandler {
         return new ResponseEntity<>(errorResponse, HttpStatus.BAD_REQUEST);
     }
 
+    @ExceptionHandler(ChangeOffsetExpiredException.class)
+    public ResponseEntity<ErrorResponse> handleChangeOffsetExpired(ChangeOffsetExpiredException ex, WebRequest request) {
+        log.warn("Change offset expired: {}", ex.getMessage());
+
+        ErrorResponse errorResponse = ErrorResponse.builder()
+                .timestamp(LocalDateTime.now())
+                .status(HttpStatus.GONE.value())
+                .error("Change Offset Expired")
+                .message(ex.getMessage())
+                .path(request.getDescription(false))
+                .build();
+
+        return new ResponseEntity<>(errorResponse, HttpStatus.GONE);
+    }
+
     @ExceptionHandler(MethodArgumentNotValidException.class)
     public ResponseEntity<ErrorResponse> handleValidationExceptions(MethodArgumentNotValidException ex, WebRequest request) {
         log.warn("Validation error: {}", ex.getMessage());
@@ -104,6 +148,18 @@ public class GlobalExceptionHandler {
 
     @ExceptionHandler(Exception.class)
     public ResponseEntity<ErrorResponse> handleGenericException(Exception ex, WebRequest request) {
+        // Репозитории оборачивают ошибки доступа к данным, поэтому временные сбои ищем по цепочке причин
+        if (hasCause(ex, SQLTransientConnectionException.class)) {
+            return serviceUnavailable(ex, request, "Service is overloaded, please retry later");
+        }
+        if (hasCause(ex, TransactionTimedOutException.class) || hasCause(ex, QueryTimeoutException.class)
+                || hasCause(ex, SQLTimeoutException.class)) {
+            return serviceUnavailable(ex, request, "Database did not respond in time, please retry later");
+        }
+        if (hasCause(ex, TransientDataAccessException.class)
+                || hasCause(ex, CannotCreateTransactionException.class)) {
+            return serviceUnavailable(ex, request, "Database is temporarily unavailable, please retry later");
+        }
         log.error("Unexpected error occurred: ", ex);
 
         ErrorResponse errorResponse = ErrorResponse.builder()
@@ -116,4 +172,30 @@ public class GlobalExceptionHandler {
 
         return new ResponseEntity<>(errorResponse, HttpStatus.INTERNAL_SERVER_ERROR);
     }
-}
\ No newline at end of file
+
+    private ResponseEntity<ErrorResponse> serviceUnavailable(Exception ex, WebRequest request, String message) {
+        log.warn("Database unavailable: {} ({})", ex.getMessage(),
+                NestedExceptionUtils.getMostSpecificCause(ex).getMessage());
+
+        ErrorResponse errorResponse = ErrorResponse.builder()
+                .timestamp(LocalDateTime.now())
+                .status(HttpStatus.SERVICE_UNAVAILABLE.value())
+                .error("Service Unavailable")
+                .message(message)
+                .path(request.getDescription(false))
+                .build();
+
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, RETRY_AFTER_SECONDS)
+                .body(errorResponse);
+    }
+
+    private static boolean hasCause(Throwable ex, Class<? extends Throwable> type) {
+        for (Throwable cause = ex; cause != null; cause = cause.getCause()) {
+            if (type.isInstance(cause)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
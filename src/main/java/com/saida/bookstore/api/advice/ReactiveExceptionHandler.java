@@ -0,0 +1,75 @@
+package com.saida.bookstore.api.advice;
+
+import com.saida.bookstore.dto.ErrorResponse;
+import com.saida.bookstore.exception.BookAlreadyExistsException;
+import com.saida.bookstore.exception.BookNotFoundException;
+import com.saida.bookstore.exception.InvalidBookDataException;
+import com.saida.bookstore.exception.ValidationException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+
+/**
+ * Обработка исключений для профиля reactive с тем же форматом ответа, что и {@link GlobalExceptionHandler}.
+ */
+@Slf4j
+@RestControllerAdvice
+@Profile("reactive")
+public class ReactiveExceptionHandler {
+
+    @ExceptionHandler(BookNotFoundException.class)
+    public ResponseEntity<ErrorResponse> handleBookNotFound(BookNotFoundException ex, ServerHttpRequest request) {
+        log.warn("Book not found: {}", ex.getMessage());
+        return error(HttpStatus.NOT_FOUND, "Book Not Found", ex.getMessage(), request, null);
+    }
+
+    @ExceptionHandler(BookAlreadyExistsException.class)
+    public ResponseEntity<ErrorResponse> handleBookAlreadyExists(BookAlreadyExistsException ex,
+                                                                 ServerHttpRequest request) {
+        log.warn("Book already exists: {}", ex.getMessage());
+        return error(HttpStatus.CONFLICT, "Book Already Exists", ex.getMessage(), request, null);
+    }
+
+    @ExceptionHandler(InvalidBookDataException.class)
+    public ResponseEntity<ErrorResponse> handleInvalidBookData(InvalidBookDataException ex,
+                                                               ServerHttpRequest request) {
+        log.warn("Invalid book data: {}", ex.getMessage());
+        return error(HttpStatus.BAD_REQUEST, "Invalid Book Data", ex.getMessage(), request, null);
+    }
+
+    @ExceptionHandler(ValidationException.class)
+    public ResponseEntity<ErrorResponse> handleValidationException(ValidationException ex,
+                                                                   ServerHttpRequest request) {
+        log.warn("Validation failed: {}", ex.getMessage());
+        return error(HttpStatus.BAD_REQUEST, "Validation Failed", ex.getMessage(), request,
+                Map.of("errors", String.join(", ", ex.getErrors())));
+    }
+
+    @ExceptionHandler(Exception.class)
+    public ResponseEntity<ErrorResponse> handleGenericException(Exception ex, ServerHttpRequest request) {
+        log.error("Unexpected error occurred: ", ex);
+        return error(HttpStatus.INTERNAL_SERVER_ERROR, "Internal Server Error", "An unexpected error occurred",
+                request, null);
+    }
+
+    private static ResponseEntity<ErrorResponse> error(HttpStatus status, String error, String message,
+                                                       ServerHttpRequest request, Map<String, String> details) {
+        ErrorResponse errorResponse = ErrorResponse.builder()
+                .timestamp(LocalDateTime.now())
+                .status(status.value())
+                .error(error)
+                .message(message)
+                // Тот же формат, что у WebRequest.getDescription(false) в блокирующем стеке
+                .path("uri=" + request.getPath().value())
+                .details(details)
+                .build();
+        return new ResponseEntity<>(errorResponse, status);
+    }
+}
@@ -0,0 +1,139 @@
+package com.saida.bookstore.api.codec;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.saida.bookstore.api.response.BookResponse;
+import com.saida.bookstore.util.UuidUtils;
+
+import java.io.IOException;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+
+/**
+ * Пишет строку таблицы book в {@link JsonGenerator} объектом в формате {@link BookResponse}.
+ * <p>
+ * Значения берутся прямо из {@link ResultSet}: без промежуточных BookEntity, BookDto и BookResponse
+ * и без рефлексии Jackson. Формат совпадает с сериализацией BookResponse через ObjectMapper приложения:
+ * поля в порядке компонент записи, null пишется явно, даты — ISO-8601 без зоны.
+ * <p>
+ * В JSON publicId и цена передаются текстом драйвера, поэтому UUID и BigDecimal не создаются.
+ * В CBOR, как и сериализаторы Jackson, UUID пишется 16 байтами, а цена — десятичной дробью.
+ * <p>
+ * Не хранит состояния, поэтому используется как единственный экземпляр {@link #INSTANCE}.
+ */
+public final class BookJsonWriter {
+
+    public static final BookJsonWriter INSTANCE = new BookJsonWriter();
+
+    // Имена полей кодируются один раз, генератор копирует готовые байты
+    private static final SerializedString PUBLIC_ID = new SerializedString("publicId");
+    private static final SerializedString TITLE = new SerializedString("title");
+    private static final SerializedString AUTHOR = new SerializedString("author");
+    private static final SerializedString ISBN = new SerializedString("isbn");
+    private static final SerializedString PRICE = new SerializedString("price");
+    private static final SerializedString PUBLICATION_YEAR = new SerializedString("publicationYear");
+    private static final SerializedString CREATED_AT = new SerializedString("createdAt");
+    private static final SerializedString UPDATED_AT = new SerializedString("updatedAt");
+
+    // 2024-01-15T10:30:00.123456789
+    private static final int MAX_DATE_TIME_LENGTH = 29;
+
+    private BookJsonWriter() {
+    }
+
+    public void write(ResultSet rs, JsonGenerator generator) throws SQLException, IOException {
+        generator.writeStartObject();
+        generator.writeFieldName(PUBLIC_ID);
+        String publicId = rs.getString("public_id");
+        if (publicId != null && generator.canWriteBinaryNatively()) {
+            generator.writeBinary(UuidUtils.toBytes(publicId));
+        } else {
+            generator.writeString(publicId);
+        }
+        generator.writeFieldName(TITLE);
+        generator.writeString(rs.getString("title"));
+        generator.writeFieldName(AUTHOR);
+        generator.writeString(rs.getString("author"));
+        generator.writeFieldName(ISBN);
+        generator.writeString(rs.getString("isbn"));
+
+        // Текст numeric совпадает с BigDecimal.toString: у DECIMAL(10, 2) нет экспоненты.
+        // Двоичные форматы не умеют писать число текстом, им нужен BigDecimal
+        generator.writeFieldName(PRICE);
+        if (generator.canWriteFormattedNumbers()) {
+            String price = rs.getString("price");
+            if (price != null) {
+                generator.writeNumber(price);
+            } else {
+                generator.writeNull();
+            }
+        } else {
+            generator.writeNumber(rs.getBigDecimal("price"));
+        }
+
+        generator.writeFieldName(PUBLICATION_YEAR);
+        int publicationYear = rs.getInt("publication_year");
+        if (rs.wasNull()) {
+            generator.writeNull();
+        } else {
+            generator.writeNumber(publicationYear);
+        }
+
+        generator.writeFieldName(CREATED_AT);
+        writeDateTime(rs.getObject("created_at", LocalDateTime.class), generator);
+        generator.writeFieldName(UPDATED_AT);
+        writeDateTime(rs.getObject("updated_at", LocalDateTime.class), generator);
+        generator.writeEndObject();
+    }
+
+    /**
+     * Пишет дату в формате {@link DateTimeFormatter#ISO_LOCAL_DATE_TIME}, как LocalDateTimeSerializer
+     * из jackson-datatype-jsr310 по умолчанию: секунды всегда, доли секунды без хвостовых нулей.
+     * Четырёхзначные годы форматируются вручную в массив символов, без промежуточных строк.
+     */
+    private static void writeDateTime(LocalDateTime value, JsonGenerator generator) throws IOException {
+        if (value == null) {
+            generator.writeNull();
+            return;
+        }
+        int year = value.getYear();
+        if (year < 1000 || year > 9999) {
+            generator.writeString(DateTimeFormatter.ISO_LOCAL_DATE_TIME.format(value));
+            return;
+        }
+        char[] chars = new char[MAX_DATE_TIME_LENGTH];
+        writeDigits(chars, 0, year, 4);
+        chars[4] = '-';
+        writeDigits(chars, 5, value.getMonthValue(), 2);
+        chars[7] = '-';
+        writeDigits(chars, 8, value.getDayOfMonth(), 2);
+        chars[10] = 'T';
+        writeDigits(chars, 11, value.getHour(), 2);
+        chars[13] = ':';
+        writeDigits(chars, 14, value.getMinute(), 2);
+        chars[16] = ':';
+        writeDigits(chars, 17, value.getSecond(), 2);
+        int length = 19;
+        int nano = value.getNano();
+        if (nano > 0) {
+            chars[length++] = '.';
+            int digits = 9;
+            while (nano % 10 == 0) {
+                nano /= 10;
+                digits--;
+            }
+            writeDigits(chars, length, nano, digits);
+            length += digits;
+        }
+        generator.writeString(chars, 0, length);
+    }
+
+    private static void writeDigits(char[] chars, int offset, int value, int width) {
+        for (int i = offset + width - 1; i >= offset; i--) {
+            chars[i] = (char) ('0' + value % 10);
+            value /= 10;
+        }
+    }
+}
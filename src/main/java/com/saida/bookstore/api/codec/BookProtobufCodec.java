@@ -0,0 +1,402 @@
+package com.saida.bookstore.api.codec;
+
+import com.saida.bookstore.api.response.BookPageResponse;
+import com.saida.bookstore.api.response.BookResponse;
+import com.saida.bookstore.repository.BookRowWriter;
+import com.saida.bookstore.util.UuidUtils;
+import org.springframework.http.MediaType;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.nio.charset.StandardCharsets;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Кодирует книги в протобуф по схеме src/main/resources/proto/book.proto.
+ * <p>
+ * Схема компактнее JSON: publicId — 16 байт, цена — количество копеек (sint64),
+ * даты — микросекунды от начала эпохи без зоны (int64), имена полей не передаются.
+ * Отсутствующие значения не пишутся вовсе. Кодек написан вручную, без protoc и protobuf-java:
+ * сообщений всего два, а писать их нужно прямо из {@link ResultSet}.
+ */
+public final class BookProtobufCodec {
+
+    public static final String MEDIA_TYPE_VALUE = "application/x-protobuf";
+    public static final MediaType MEDIA_TYPE = MediaType.valueOf(MEDIA_TYPE_VALUE);
+
+    // Номера полей сообщения Book
+    private static final int BOOK_PUBLIC_ID = 1;
+    private static final int BOOK_TITLE = 2;
+    private static final int BOOK_AUTHOR = 3;
+    private static final int BOOK_ISBN = 4;
+    private static final int BOOK_PRICE_CENTS = 5;
+    private static final int BOOK_PUBLICATION_YEAR = 6;
+    private static final int BOOK_CREATED_AT_MICROS = 7;
+    private static final int BOOK_UPDATED_AT_MICROS = 8;
+
+    // Номера полей сообщения BookPage
+    private static final int PAGE_ITEMS = 1;
+    private static final int PAGE_NEXT_CURSOR = 2;
+
+    private static final int WIRE_VARINT = 0;
+    private static final int WIRE_FIXED64 = 1;
+    private static final int WIRE_LENGTH_DELIMITED = 2;
+    private static final int WIRE_FIXED32 = 5;
+
+    private static final int PRICE_SCALE = 2;
+    private static final long MICROS_PER_SECOND = 1_000_000L;
+
+    private BookProtobufCodec() {
+        // Утилитный класс
+    }
+
+    public static byte[] encode(BookResponse book) {
+        Output output = new Output(256);
+        writeBook(output, book);
+        return output.toByteArray();
+    }
+
+    public static byte[] encode(BookPageResponse page) {
+        Output output = new Output(4096);
+        Output item = new Output(256);
+        for (BookResponse book : page.items()) {
+            item.reset();
+            writeBook(item, book);
+            output.writeMessage(PAGE_ITEMS, item);
+        }
+        if (page.nextCursor() != null) {
+            output.writeString(PAGE_NEXT_CURSOR, page.nextCursor());
+        }
+        return output.toByteArray();
+    }
+
+    /**
+     * Разбирает сообщение Book. Нужен клиентам и тестам, сервис протобуф не принимает.
+     *
+     * @throws IllegalArgumentException если сообщение повреждено
+     */
+    public static BookResponse decodeBook(byte[] bytes) {
+        return readBook(new Input(bytes, 0, bytes.length));
+    }
+
+    /**
+     * Разбирает сообщение BookPage.
+     *
+     * @throws IllegalArgumentException если сообщение повреждено
+     */
+    public static BookPageResponse decodePage(byte[] bytes) {
+        Input input = new Input(bytes, 0, bytes.length);
+        List<BookResponse> items = new ArrayList<>();
+        String nextCursor = null;
+        while (input.hasMore()) {
+            int tag = input.readTag();
+            switch (tag >>> 3) {
+                case PAGE_ITEMS -> items.add(readBook(input.readMessage()));
+                case PAGE_NEXT_CURSOR -> nextCursor = input.readString();
+                default -> input.skip(tag & 7);
+            }
+        }
+        return new BookPageResponse(items, nextCursor);
+    }
+
+    /**
+     * Собирает сообщение BookPage из строк результата запроса, как {@link BookJsonWriter} для JSON.
+     * Книга кодируется в переиспользуемый буфер, затем копируется в страницу с префиксом длины.
+     */
+    public static final class PageWriter implements BookRowWriter {
+
+        private final Output page = new Output(4096);
+        private final Output item = new Output(256);
+
+        @Override
+        public void write(ResultSet rs) throws SQLException {
+            item.reset();
+            String publicId = rs.getString("public_id");
+            int publicationYear = rs.getInt("publication_year");
+            writeBook(item,
+                    publicId != null ? UuidUtils.toBytes(publicId) : null,
+                    rs.getString("title"),
+                    rs.getString("author"),
+                    rs.getString("isbn"),
+                    rs.getBigDecimal("price"),
+                    rs.wasNull() ? null : publicationYear,
+                    rs.getObject("created_at", LocalDateTime.class),
+                    rs.getObject("updated_at", LocalDateTime.class));
+            page.writeMessage(PAGE_ITEMS, item);
+        }
+
+        /**
+         * Завершает страницу.
+         *
+         * @param nextCursor курсор следующей страницы или null
+         * @return закодированное сообщение BookPage
+         */
+        public byte[] finish(String nextCursor) {
+            if (nextCursor != null) {
+                page.writeString(PAGE_NEXT_CURSOR, nextCursor);
+            }
+            return page.toByteArray();
+        }
+    }
+
+    private static void writeBook(Output output, BookResponse book) {
+        writeBook(output,
+                book.publicId() != null ? UuidUtils.toBytes(book.publicId()) : null,
+                book.title(),
+                book.author(),
+                book.isbn(),
+                book.price(),
+                book.publicationYear(),
+                book.createdAt(),
+                book.updatedAt());
+    }
+
+    private static void writeBook(Output output, byte[] publicId, String title, String author, String isbn,
+                                  BigDecimal price, Integer publicationYear,
+                                  LocalDateTime createdAt, LocalDateTime updatedAt) {
+        if (publicId != null) {
+            output.writeBytes(BOOK_PUBLIC_ID, publicId);
+        }
+        if (title != null) {
+            output.writeString(BOOK_TITLE, title);
+        }
+        if (author != null) {
+            output.writeString(BOOK_AUTHOR, author);
+        }
+        if (isbn != null) {
+            output.writeString(BOOK_ISBN, isbn);
+        }
+        if (price != null) {
+            // DECIMAL(10, 2): копейки всегда помещаются в long, округление не нужно
+            long cents = price.setScale(PRICE_SCALE, RoundingMode.UNNECESSARY).unscaledValue().longValueExact();
+            output.writeTag(BOOK_PRICE_CENTS, WIRE_VARINT);
+            output.writeVarint(cents << 1 ^ cents >> 63);
+        }
+        if (publicationYear != null) {
+            output.writeTag(BOOK_PUBLICATION_YEAR, WIRE_VARINT);
+            // int32 пишется как знаковое 64-битное число, как в protobuf-java
+            output.writeVarint(publicationYear.longValue());
+        }
+        if (createdAt != null) {
+            output.writeTag(BOOK_CREATED_AT_MICROS, WIRE_VARINT);
+            output.writeVarint(toMicros(createdAt));
+        }
+        if (updatedAt != null) {
+            output.writeTag(BOOK_UPDATED_AT_MICROS, WIRE_VARINT);
+            output.writeVarint(toMicros(updatedAt));
+        }
+    }
+
+    private static BookResponse readBook(Input input) {
+        UUID publicId = null;
+        String title = null;
+        String author = null;
+        String isbn = null;
+        BigDecimal price = null;
+        Integer publicationYear = null;
+        LocalDateTime createdAt = null;
+        LocalDateTime updatedAt = null;
+        while (input.hasMore()) {
+            int tag = input.readTag();
+            switch (tag >>> 3) {
+                case BOOK_PUBLIC_ID -> publicId = UuidUtils.fromBytes(input.readBytes());
+                case BOOK_TITLE -> title = input.readString();
+                case BOOK_AUTHOR -> author = input.readString();
+                case BOOK_ISBN -> isbn = input.readString();
+                case BOOK_PRICE_CENTS -> {
+                    long zigZag = input.readVarint();
+                    price = BigDecimal.valueOf(zigZag >>> 1 ^ -(zigZag & 1), PRICE_SCALE);
+                }
+                case BOOK_PUBLICATION_YEAR -> publicationYear = (int) input.readVarint();
+                case BOOK_CREATED_AT_MICROS -> createdAt = fromMicros(input.readVarint());
+                case BOOK_UPDATED_AT_MICROS -> updatedAt = fromMicros(input.readVarint());
+                default -> input.skip(tag & 7);
+            }
+        }
+        return new BookResponse(publicId, title, author, isbn, price, publicationYear, createdAt, updatedAt);
+    }
+
+    private static long toMicros(LocalDateTime value) {
+        // PostgreSQL хранит TIMESTAMP с точностью до микросекунд, поэтому более мелкие доли не передаются
+        return value.toEpochSecond(ZoneOffset.UTC) * MICROS_PER_SECOND + value.getNano() / 1000;
+    }
+
+    private static LocalDateTime fromMicros(long micros) {
+        long seconds = Math.floorDiv(micros, MICROS_PER_SECOND);
+        int nanos = (int) Math.floorMod(micros, MICROS_PER_SECOND) * 1000;
+        return LocalDateTime.ofEpochSecond(seconds, nanos, ZoneOffset.UTC);
+    }
+
+    /**
+     * Растущий буфер с примитивами кодирования протобуфа.
+     */
+    private static final class Output {
+
+        private byte[] buffer;
+        private int size;
+
+        Output(int capacity) {
+            this.buffer = new byte[capacity];
+        }
+
+        void writeTag(int field, int wireType) {
+            writeVarint(field << 3 | wireType);
+        }
+
+        void writeVarint(long value) {
+            ensureCapacity(10);
+            while ((value & ~0x7FL) != 0) {
+                buffer[size++] = (byte) (value & 0x7F | 0x80);
+                value >>>= 7;
+            }
+            buffer[size++] = (byte) value;
+        }
+
+        void writeBytes(int field, byte[] bytes) {
+            writeBytes(field, bytes, bytes.length);
+        }
+
+        void writeMessage(int field, Output message) {
+            writeBytes(field, message.buffer, message.size);
+        }
+
+        void writeString(int field, String value) {
+            int length = value.length();
+            for (int i = 0; i < length; i++) {
+                if (value.charAt(i) >= 0x80) {
+                    writeBytes(field, value.getBytes(StandardCharsets.UTF_8));
+                    return;
+                }
+            }
+            // Строка из ASCII: длина в байтах равна длине строки, символы пишутся без промежуточного массива
+            writeTag(field, WIRE_LENGTH_DELIMITED);
+            writeVarint(length);
+            ensureCapacity(length);
+            for (int i = 0; i < length; i++) {
+                buffer[size++] = (byte) value.charAt(i);
+            }
+        }
+
+        void reset() {
+            size = 0;
+        }
+
+        byte[] toByteArray() {
+            return Arrays.copyOf(buffer, size);
+        }
+
+        private void writeBytes(int field, byte[] bytes, int length) {
+            writeTag(field, WIRE_LENGTH_DELIMITED);
+            writeVarint(length);
+            ensureCapacity(length);
+            System.arraycopy(bytes, 0, buffer, size, length);
+            size += length;
+        }
+
+        private void ensureCapacity(int length) {
+            if (size + length > buffer.length) {
+                buffer = Arrays.copyOf(buffer, Math.max(buffer.length * 2, size + length));
+            }
+        }
+    }
+
+    /**
+     * Чтение протобуфа из участка массива; вложенные сообщения читаются без копирования.
+     */
+    private static final class Input {
+
+        private final byte[] bytes;
+        private final int limit;
+        private int position;
+
+        Input(byte[] bytes, int offset, int limit) {
+            this.bytes = bytes;
+            this.position = offset;
+            this.limit = limit;
+        }
+
+        boolean hasMore() {
+            return position < limit;
+        }
+
+        int readTag() {
+            return (int) readVarint();
+        }
+
+        long readVarint() {
+            long value = 0;
+            for (int shift = 0; shift < 64; shift += 7) {
+                byte b = readByte();
+                value |= (long) (b & 0x7F) << shift;
+                if (b >= 0) {
+                    return value;
+                }
+            }
+            throw malformed();
+        }
+
+        byte[] readBytes() {
+            int length = readLength();
+            byte[] value = Arrays.copyOfRange(bytes, position, position + length);
+            position += length;
+            return value;
+        }
+
+        String readString() {
+            int length = readLength();
+            String value = new String(bytes, position, length, StandardCharsets.UTF_8);
+            position += length;
+            return value;
+        }
+
+        Input readMessage() {
+            int length = readLength();
+            Input message = new Input(bytes, position, position + length);
+            position += length;
+            return message;
+        }
+
+        void skip(int wireType) {
+            switch (wireType) {
+                case WIRE_VARINT -> readVarint();
+                case WIRE_FIXED64 -> advance(8);
+                case WIRE_LENGTH_DELIMITED -> advance(readLength());
+                case WIRE_FIXED32 -> advance(4);
+                default -> throw malformed();
+            }
+        }
+
+        private int readLength() {
+            long length = readVarint();
+            if (length < 0 || length > limit - position) {
+                throw malformed();
+            }
+            return (int) length;
+        }
+
+        private byte readByte() {
+            if (position >= limit) {
+                throw malformed();
+            }
+            return bytes[position++];
+        }
+
+        private void advance(int length) {
+            if (length > limit - position) {
+                throw malformed();
+            }
+            position += length;
+        }
+
+        private static IllegalArgumentException malformed() {
+            return new IllegalArgumentException("Malformed protobuf message");
+        }
+    }
+}
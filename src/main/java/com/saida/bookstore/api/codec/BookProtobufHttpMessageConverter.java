@@ -0,0 +1,46 @@
+package com.saida.bookstore.api.codec;
+
+import com.saida.bookstore.api.response.BookPageResponse;
+import com.saida.bookstore.api.response.BookResponse;
+import org.springframework.http.HttpInputMessage;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.AbstractHttpMessageConverter;
+import org.springframework.http.converter.HttpMessageNotReadableException;
+
+import java.io.IOException;
+
+/**
+ * Отдаёт {@link BookResponse} и {@link BookPageResponse} в протобуфе, если клиент прислал
+ * Accept: application/x-protobuf. Только запись: тела запросов по-прежнему принимаются в JSON.
+ */
+public class BookProtobufHttpMessageConverter extends AbstractHttpMessageConverter<Object> {
+
+    public BookProtobufHttpMessageConverter() {
+        super(BookProtobufCodec.MEDIA_TYPE);
+    }
+
+    @Override
+    protected boolean supports(Class<?> clazz) {
+        return clazz == BookResponse.class || clazz == BookPageResponse.class;
+    }
+
+    @Override
+    public boolean canRead(Class<?> clazz, MediaType mediaType) {
+        return false;
+    }
+
+    @Override
+    protected Object readInternal(Class<?> clazz, HttpInputMessage inputMessage) {
+        throw new HttpMessageNotReadableException("Reading protobuf is not supported", inputMessage);
+    }
+
+    @Override
+    protected void writeInternal(Object body, HttpOutputMessage outputMessage) throws IOException {
+        byte[] bytes = body instanceof BookResponse book
+                ? BookProtobufCodec.encode(book)
+                : BookProtobufCodec.encode((BookPageResponse) body);
+        outputMessage.getHeaders().setContentLength(bytes.length);
+        outputMessage.getBody().write(bytes);
+    }
+}
@@ -0,0 +1,121 @@
+package com.saida.bookstore.api.codec;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.saida.bookstore.api.response.BookResponse;
+import com.saida.bookstore.config.CacheConfig;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+
+import java.io.UncheckedIOException;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.function.Supplier;
+import java.util.zip.Deflater;
+
+/**
+ * Кэш готовых тел ответа GET /book/{publicId}: сериализованных и сжатых байтов популярных книг.
+ * <p>
+ * Попадание не вызывает ни маппер, ни Jackson, ни gzip. Запись хранит версию книги, поэтому устаревшее
+ * тело не отдаётся, даже если изменение прошло мимо этого экземпляра; при изменении и удалении книги
+ * сервис вытесняет запись вместе с кэшем книг. Размер кэша ограничен суммарным объёмом тел, см. {@link CacheConfig}.
+ */
+@Component
+@Profile("!reactive")
+public class EncodedBookCache {
+
+    private final Cache cache;
+    private final ObjectMapper jsonMapper;
+    private final ObjectMapper cborMapper;
+    private final ResponseCompressor responseCompressor;
+
+    public EncodedBookCache(CacheManager cacheManager, ObjectMapper objectMapper,
+                            ResponseCompressor responseCompressor) {
+        this.cache = cacheManager.getCache(CacheConfig.ENCODED_BOOKS_CACHE);
+        this.responseCompressor = responseCompressor;
+        this.jsonMapper = objectMapper;
+        // Настройки и модули те же, что у JSON: даты строками ISO-8601
+        this.cborMapper = objectMapper.copyWith(new CBORFactory());
+    }
+
+    /**
+     * Возвращает тело книги в формате contentType, при промахе кодирует ответ и сохраняет его.
+     *
+     * @param publicId    книга
+     * @param version     версия книги, например её ETag
+     * @param contentType формат: JSON, CBOR или протобуф
+     * @param response    ответ для кодирования при промахе
+     * @return закодированное тело
+     */
+    public EncodedBody get(UUID publicId, String version, MediaType contentType, Supplier<BookResponse> response) {
+        EncodedBook cached = cache != null ? cache.get(publicId, EncodedBook.class) : null;
+        if (cached != null && cached.version().equals(version)) {
+            EncodedBody body = cached.bodies().get(contentType);
+            if (body != null) {
+                return body;
+            }
+        }
+
+        byte[] identity = encode(response.get(), contentType);
+        // Порог тот же, что у остальных ответов; сжатие выполняется один раз на версию, поэтому уровень максимальный
+        EncodedBody body = new EncodedBody(identity, responseCompressor.compress(identity, Deflater.BEST_COMPRESSION));
+
+        // Записи неизменяемы: новый формат добавляется копией, гонка лишь повторит кодирование
+        Map<MediaType, EncodedBody> bodies = cached != null && cached.version().equals(version)
+                ? new HashMap<>(cached.bodies())
+                : new HashMap<>();
+        bodies.put(contentType, body);
+        if (cache != null) {
+            cache.put(publicId, new EncodedBook(version, Map.copyOf(bodies)));
+        }
+        return body;
+    }
+
+    private byte[] encode(BookResponse response, MediaType contentType) {
+        if (BookProtobufCodec.MEDIA_TYPE.equals(contentType)) {
+            return BookProtobufCodec.encode(response);
+        }
+        try {
+            return MediaType.APPLICATION_CBOR.equals(contentType)
+                    ? cborMapper.writeValueAsBytes(response)
+                    : jsonMapper.writeValueAsBytes(response);
+        } catch (JsonProcessingException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Тело одного формата: как есть и в gzip.
+     *
+     * @param identity тело без сжатия
+     * @param gzip     тело в gzip или null, если тело меньше порога сжатия или сжатие не уменьшило размер
+     */
+    public record EncodedBody(byte[] identity, byte[] gzip) {
+
+        int weight() {
+            return identity.length + (gzip != null ? gzip.length : 0);
+        }
+    }
+
+    /**
+     * Все закодированные форматы одной версии книги.
+     */
+    public record EncodedBook(String version, Map<MediaType, EncodedBody> bodies) {
+
+        /**
+         * Объём тел в байтах для ограничения размера кэша.
+         */
+        public int weight() {
+            int weight = 0;
+            for (EncodedBody body : bodies.values()) {
+                weight += body.weight();
+            }
+            return weight;
+        }
+    }
+}
@@ -0,0 +1,113 @@
+package com.saida.bookstore.api.codec;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.zip.Deflater;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Сжатие тел ответов с валидаторами кэширования.
+ * <p>
+ * Tomcat (server.compression) не сжимает ответы с сильным ETag: сжатое тело — другое представление,
+ * и ETag у него должен быть другим. GET /book и GET /book/{publicId} поэтому сжимают тело сами
+ * и добавляют к ETag суффикс -gzip. Порог размера общий с server.compression.
+ */
+@Component
+public class ResponseCompressor {
+
+    public static final String GZIP = "gzip";
+
+    private final long minResponseSize;
+
+    public ResponseCompressor(@Value("${server.compression.min-response-size:2KB}") DataSize minResponseSize) {
+        this.minResponseSize = minResponseSize.toBytes();
+    }
+
+    /**
+     * Сжимает тело, если оно не меньше порога.
+     *
+     * @return тело в gzip или null, если сжимать не стоит
+     */
+    public byte[] compress(byte[] body) {
+        return compress(body, Deflater.DEFAULT_COMPRESSION);
+    }
+
+    /**
+     * Сжимает тело с заданным уровнем, если оно не меньше порога.
+     *
+     * @param level уровень сжатия {@link Deflater}
+     * @return тело в gzip или null, если сжимать не стоит
+     */
+    public byte[] compress(byte[] body, int level) {
+        if (body.length < minResponseSize) {
+            return null;
+        }
+        byte[] compressed = gzip(body, level);
+        return compressed.length < body.length ? compressed : null;
+    }
+
+    /**
+     * Проверяет, принимает ли клиент gzip, по заголовку Accept-Encoding.
+     *
+     * @param acceptEncoding значение заголовка или null
+     * @return true, если gzip (или *) указан с ненулевым качеством
+     */
+    public static boolean acceptsGzip(String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return false;
+        }
+        // Явно указанный gzip важнее *
+        boolean wildcard = false;
+        for (String coding : acceptEncoding.split(",")) {
+            int parameters = coding.indexOf(';');
+            String name = (parameters < 0 ? coding : coding.substring(0, parameters)).trim();
+            boolean accepted = parameters < 0 || !isZeroQuality(coding.substring(parameters + 1));
+            if (name.equalsIgnoreCase(GZIP) || name.equalsIgnoreCase("x-gzip")) {
+                return accepted;
+            }
+            if (name.equals("*")) {
+                wildcard = accepted;
+            }
+        }
+        return wildcard;
+    }
+
+    /**
+     * Сжимает тело в gzip.
+     *
+     * @param level уровень сжатия {@link Deflater}
+     */
+    public static byte[] gzip(byte[] body, int level) {
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream(body.length / 2 + 32);
+        try (GZIPOutputStream gzip = new GZIPOutputStream(buffer) {
+            {
+                def.setLevel(level);
+            }
+        }) {
+            gzip.write(body);
+        } catch (IOException e) {
+            // ByteArrayOutputStream не бросает IOException
+            throw new UncheckedIOException(e);
+        }
+        return buffer.toByteArray();
+    }
+
+    private static boolean isZeroQuality(String parameters) {
+        for (String parameter : parameters.split(";")) {
+            String[] pair = parameter.split("=", 2);
+            if (pair.length == 2 && pair[0].trim().equalsIgnoreCase("q")) {
+                try {
+                    return Double.parseDouble(pair[1].trim()) == 0;
+                } catch (NumberFormatException e) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,10 @@
+package com.saida.bookstore.api.request;
+
+import java.util.List;
+import java.util.UUID;
+
+public record BookLookupRequest(
+        List<UUID> publicIds,
+        List<String> isbns
+) {
+}
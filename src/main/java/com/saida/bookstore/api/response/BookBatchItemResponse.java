@@ -0,0 +1,19 @@
+package com.saida.bookstore.api.response;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import java.util.List;
+
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record BookBatchItemResponse(
+        int index,
+        Status status,
+        BookResponse book,
+        List<String> errors
+) {
+
+    public enum Status {
+        CREATED,
+        FAILED
+    }
+}
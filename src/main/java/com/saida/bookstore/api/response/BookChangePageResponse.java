@@ -0,0 +1,9 @@
+package com.saida.bookstore.api.response;
+
+import java.util.List;
+
+public record BookChangePageResponse(
+        List<BookChangeResponse> changes,
+        long nextOffset
+) {
+}
@@ -0,0 +1,17 @@
+package com.saida.bookstore.api.response;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.saida.bookstore.dto.BookChangeType;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record BookChangeResponse(
+        long offset,
+        BookChangeType type,
+        UUID publicId,
+        LocalDateTime changedAt,
+        BookResponse book
+) {
+}
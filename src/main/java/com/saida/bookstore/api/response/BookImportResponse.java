@@ -0,0 +1,18 @@
+package com.saida.bookstore.api.response;
+
+import java.util.List;
+
+public record BookImportResponse(
+        long accepted,
+        long rejected,
+        long inserted,
+        long duplicates,
+        List<Error> errors
+) {
+
+    public record Error(
+            long line,
+            List<String> errors
+    ) {
+    }
+}
@@ -0,0 +1,19 @@
+package com.saida.bookstore.api.response;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import java.util.List;
+
+public record BookLookupResponse(
+        List<Item> publicIds,
+        List<Item> isbns
+) {
+
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    public record Item(
+            String key,
+            boolean found,
+            BookResponse book
+    ) {
+    }
+}
@@ -0,0 +1,9 @@
+package com.saida.bookstore.api.response;
+
+import java.util.List;
+
+public record BookPageResponse(
+        List<BookResponse> items,
+        String nextCursor
+) {
+}
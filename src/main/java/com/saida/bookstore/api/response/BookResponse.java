@@ -11,6 +11,7 @@ public record BookResponse(
         String isbn,
         BigDecimal price,
         Integer publicationYear,
-        LocalDateTime createdAt
+        LocalDateTime createdAt,
+        LocalDateTime updatedAt
 ) {
 }
\ No newline at end of file
@@ -0,0 +1,27 @@
+package com.saida.bookstore.api.response;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record BookStatsResponse(
+        List<String> groupBy,
+        BigDecimal priceBucket,
+        List<Group> groups
+) {
+
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    public record Group(
+            String author,
+            Integer publicationYear,
+            BigDecimal priceFrom,
+            BigDecimal priceTo,
+            long count,
+            BigDecimal minPrice,
+            BigDecimal maxPrice,
+            BigDecimal avgPrice
+    ) {
+    }
+}
@@ -0,0 +1,140 @@
+package com.saida.bookstore.config;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.time.Duration;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Ограничивает число одновременно выданных соединений перед пулом Hikari.
+ * <p>
+ * На виртуальных потоках запросов может быть на порядки больше, чем соединений в пуле, и все они
+ * одновременно конкурируют за соединение внутри Hikari. Справедливый семафор выстраивает их в очередь
+ * до обращения к пулу, а при ожидании дольше {@code maxWait} запрос отклоняется без захвата соединения.
+ * Разрешение возвращается при закрытии соединения.
+ */
+public class BulkheadDataSource extends DelegatingDataSource {
+
+    private final Semaphore permits;
+    private final long maxWaitNanos;
+    private final Timer waitTimer;
+    private final Counter rejectedCounter;
+
+    /**
+     * @param targetDataSource пул соединений
+     * @param maxConcurrent    максимальное число одновременно выданных соединений
+     * @param maxWait          максимальное время ожидания разрешения
+     * @param meterRegistry    реестр метрик ожидания и отказов
+     */
+    public BulkheadDataSource(DataSource targetDataSource, int maxConcurrent, Duration maxWait,
+                              MeterRegistry meterRegistry) {
+        super(targetDataSource);
+        this.permits = new Semaphore(maxConcurrent, true);
+        this.maxWaitNanos = maxWait.toNanos();
+        this.waitTimer = Timer.builder("bookstore.datasource.bulkhead.wait")
+                .description("Time spent waiting for a connection permit")
+                .register(meterRegistry);
+        this.rejectedCounter = Counter.builder("bookstore.datasource.bulkhead.rejected")
+                .description("Connection requests rejected after waiting for a permit")
+                .register(meterRegistry);
+        Gauge.builder("bookstore.datasource.bulkhead.available", permits, Semaphore::availablePermits)
+                .description("Free connection permits")
+                .register(meterRegistry);
+        Gauge.builder("bookstore.datasource.bulkhead.queued", permits, Semaphore::getQueueLength)
+                .description("Threads waiting for a connection permit")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        acquire();
+        try {
+            return releasingOnClose(obtainTargetDataSource().getConnection());
+        } catch (SQLException | RuntimeException e) {
+            permits.release();
+            throw e;
+        }
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        acquire();
+        try {
+            return releasingOnClose(obtainTargetDataSource().getConnection(username, password));
+        } catch (SQLException | RuntimeException e) {
+            permits.release();
+            throw e;
+        }
+    }
+
+    private void acquire() throws SQLException {
+        long start = System.nanoTime();
+        boolean acquired;
+        try {
+            acquired = permits.tryAcquire(maxWaitNanos, TimeUnit.NANOSECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLTransientConnectionException("Interrupted while waiting for a connection permit", e);
+        } finally {
+            waitTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+        if (!acquired) {
+            rejectedCounter.increment();
+            throw new SQLTransientConnectionException(
+                    "Connection permit not available, request timed out after " + maxWaitNanos / 1_000_000 + "ms");
+        }
+    }
+
+    private Connection releasingOnClose(Connection connection) {
+        return (Connection) Proxy.newProxyInstance(
+                Connection.class.getClassLoader(),
+                new Class<?>[]{Connection.class},
+                new ReleasingInvocationHandler(connection));
+    }
+
+    /**
+     * Возвращает разрешение ровно один раз, даже если соединение закрывают повторно.
+     */
+    private final class ReleasingInvocationHandler implements InvocationHandler {
+
+        private final Connection target;
+        private final AtomicBoolean released = new AtomicBoolean();
+
+        private ReleasingInvocationHandler(Connection target) {
+            this.target = target;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            if ("close".equals(method.getName()) && method.getParameterCount() == 0) {
+                try {
+                    target.close();
+                } finally {
+                    if (released.compareAndSet(false, true)) {
+                        permits.release();
+                    }
+                }
+                return null;
+            }
+            try {
+                return method.invoke(target, args);
+            } catch (InvocationTargetException e) {
+                throw e.getTargetException();
+            }
+        }
+    }
+}
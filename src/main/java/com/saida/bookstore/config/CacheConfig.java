@@ -0,0 +1,67 @@
+package com.saida.bookstore.config;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.saida.bookstore.api.codec.EncodedBookCache;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.cache.CacheManagerCustomizer;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+
+/**
+ * Настройка кэширования.
+ * Размер, TTL и сбор статистики кэшей задаются в spring.cache.caffeine.spec,
+ * метрики попаданий, промахов и вытеснений публикуются Spring Boot автоматически.
+ * Кэш статистики регистрируется отдельно: его TTL намного короче общего.
+ * Кэш готовых тел ответов ограничен не числом записей, а их суммарным объёмом.
+ * <p>
+ * Кэширующий прокси оборачивает транзакционный, поэтому инвалидация выполняется
+ * после коммита, а попадание в кэш не открывает транзакцию.
+ */
+@Configuration
+@EnableCaching(order = Ordered.HIGHEST_PRECEDENCE)
+public class CacheConfig {
+
+    /**
+     * Кэш книг по publicId.
+     */
+    public static final String BOOKS_CACHE = "books";
+
+    /**
+     * Кэш статистики каталога по измерениям группировки.
+     */
+    public static final String STATS_CACHE = "bookStats";
+
+    /**
+     * Кэш сериализованных и сжатых тел ответа GET /book/{publicId} по publicId.
+     */
+    public static final String ENCODED_BOOKS_CACHE = "encodedBooks";
+
+    // Комбинаций измерений и ширин интервала немного, тысячи записей хватает с запасом
+    private static final long STATS_CACHE_SIZE = 1000;
+
+    @Bean
+    CacheManagerCustomizer<CaffeineCacheManager> statsCacheCustomizer(
+            @Value("${bookstore.stats.cache-ttl:30s}") Duration ttl) {
+        return cacheManager -> cacheManager.registerCustomCache(STATS_CACHE, Caffeine.newBuilder()
+                .maximumSize(STATS_CACHE_SIZE)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build());
+    }
+
+    @Bean
+    CacheManagerCustomizer<CaffeineCacheManager> encodedBooksCacheCustomizer(
+            @Value("${bookstore.encoded-books-cache.max-size:64MB}") DataSize maxSize) {
+        return cacheManager -> cacheManager.registerCustomCache(ENCODED_BOOKS_CACHE, Caffeine.newBuilder()
+                .maximumWeight(maxSize.toBytes())
+                .weigher((key, value) -> value instanceof EncodedBookCache.EncodedBook book ? book.weight() : 1)
+                .recordStats()
+                .build());
+    }
+}
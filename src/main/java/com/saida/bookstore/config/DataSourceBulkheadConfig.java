@@ -0,0 +1,87 @@
+package com.saida.bookstore.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import org.springframework.core.env.Environment;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+
+/**
+ * Оборачивает пул соединений в {@link BulkheadDataSource}.
+ * Включается свойством bookstore.datasource.bulkhead.enabled, по умолчанию — в профиле virtual-threads.
+ * <p>
+ * Если max-concurrent не задан, число разрешений равно размеру пула Hikari: тогда в самом пуле
+ * никогда нет ожидающих потоков, а очередь и таймаут целиком определяются семафором.
+ */
+@Slf4j
+@Configuration
+@ConditionalOnProperty(prefix = DataSourceBulkheadConfig.PREFIX, name = "enabled", havingValue = "true")
+public class DataSourceBulkheadConfig {
+
+    static final String PREFIX = "bookstore.datasource.bulkhead";
+
+    private static final Duration DEFAULT_MAX_WAIT = Duration.ofSeconds(2);
+
+    /**
+     * Настройки ограничителя.
+     *
+     * @param maxConcurrent максимальное число одновременно выданных соединений, 0 — размер пула
+     * @param maxWait       максимальное время ожидания соединения
+     */
+    record Properties(int maxConcurrent, Duration maxWait) {
+    }
+
+    // Статический метод: постпроцессор создаётся раньше остальных бинов и не должен тянуть за собой конфигурацию
+    @Bean
+    static BeanPostProcessor dataSourceBulkheadPostProcessor(Environment environment,
+                                                             ObjectProvider<MeterRegistry> meterRegistry) {
+        Properties properties = Binder.get(environment)
+                .bind(PREFIX, Properties.class)
+                .orElse(new Properties(0, DEFAULT_MAX_WAIT));
+        return new BulkheadPostProcessor(properties, meterRegistry);
+    }
+
+    /**
+     * Упорядочен, чтобы выполниться раньше неупорядоченных обёрток (например, маршрутизации на реплики)
+     * и ограничивать именно пул Hikari.
+     */
+    private record BulkheadPostProcessor(Properties properties, ObjectProvider<MeterRegistry> meterRegistry)
+            implements BeanPostProcessor, Ordered {
+
+        @Override
+        public Object postProcessAfterInitialization(Object bean, String beanName) {
+            if (!(bean instanceof DataSource dataSource) || bean instanceof BulkheadDataSource) {
+                return bean;
+            }
+            int maxConcurrent = properties.maxConcurrent() > 0
+                    ? properties.maxConcurrent()
+                    : poolSize(dataSource);
+            Duration maxWait = properties.maxWait() != null ? properties.maxWait() : DEFAULT_MAX_WAIT;
+            log.info("Limiting data source '{}' to {} concurrent connections, max wait {}",
+                    beanName, maxConcurrent, maxWait);
+            return new BulkheadDataSource(dataSource, maxConcurrent, maxWait, meterRegistry.getObject());
+        }
+
+        @Override
+        public int getOrder() {
+            return Ordered.HIGHEST_PRECEDENCE;
+        }
+    }
+
+    private static int poolSize(DataSource dataSource) {
+        if (dataSource instanceof HikariDataSource hikari) {
+            return hikari.getMaximumPoolSize();
+        }
+        throw new IllegalStateException("Set " + PREFIX + ".max-concurrent for data source "
+                + dataSource.getClass().getName());
+    }
+}
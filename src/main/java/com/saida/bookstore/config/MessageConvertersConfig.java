@@ -0,0 +1,37 @@
+package com.saida.bookstore.config;
+
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.saida.bookstore.api.codec.BookProtobufHttpMessageConverter;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import java.util.List;
+
+/**
+ * Двоичные форматы ответов для межсервисных вызовов: CBOR и протобуф выбираются по заголовку Accept.
+ */
+@Configuration
+@Profile("!reactive")
+@RequiredArgsConstructor
+public class MessageConvertersConfig implements WebMvcConfigurer {
+
+    private final Jackson2ObjectMapperBuilder objectMapperBuilder;
+
+    @Override
+    public void extendMessageConverters(List<HttpMessageConverter<?>> converters) {
+        // Конвертер CBOR из Spring MVC собран без настроек spring.jackson.*, и даты ушли бы массивами.
+        // Настройки берутся из того же построителя, что и у JSON, меняется только фабрика
+        for (HttpMessageConverter<?> converter : converters) {
+            if (converter instanceof MappingJackson2CborHttpMessageConverter cborConverter) {
+                cborConverter.setObjectMapper(objectMapperBuilder.factory(new CBORFactory()).build());
+            }
+        }
+        // Протобуф в конце списка: при Accept: */* порядок конвертеров решает формат, и это должен быть JSON
+        converters.add(new BookProtobufHttpMessageConverter());
+    }
+}
@@ -0,0 +1,23 @@
+package com.saida.bookstore.config;
+
+import org.springframework.boot.web.embedded.netty.NettyReactiveWebServerFactory;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+
+/**
+ * Настройка профиля reactive.
+ * <p>
+ * Tomcat остаётся в classpath ради блокирующего стека, и без явной фабрики Spring Boot запустил бы
+ * WebFlux поверх него. Netty обслуживает соединения на нескольких event loop потоках,
+ * поэтому медленные клиенты не занимают по потоку каждый.
+ */
+@Configuration
+@Profile("reactive")
+public class ReactiveConfig {
+
+    @Bean
+    NettyReactiveWebServerFactory nettyReactiveWebServerFactory() {
+        return new NettyReactiveWebServerFactory();
+    }
+}
@@ -0,0 +1,85 @@
+package com.saida.bookstore.config;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.Cookie;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseCookie;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.Set;
+
+/**
+ * Гарантирует, что клиент видит собственные изменения при чтении с реплик.
+ * <p>
+ * После изменяющего запроса клиенту выставляется cookie со временем, до которого его чтения идут
+ * на основной сервер. Окно должно быть не меньше допустимого отставания реплик.
+ * POST-запросы, которые только читают (например, {@code /book/lookup}), окно не открывают.
+ */
+public class ReadYourWritesFilter extends OncePerRequestFilter {
+
+    static final String COOKIE_NAME = "bookstore-primary-until";
+
+    private static final Set<String> SAFE_METHODS = Set.of("GET", "HEAD", "OPTIONS", "TRACE");
+
+    private final Duration window;
+    private final Set<String> readOnlyPaths;
+    private final Clock clock;
+
+    /**
+     * @param window        сколько после записи клиент читает с основного сервера
+     * @param readOnlyPaths пути изменяющих методов, которые на деле только читают
+     * @param clock         часы
+     */
+    public ReadYourWritesFilter(Duration window, Set<String> readOnlyPaths, Clock clock) {
+        this.window = window;
+        this.readOnlyPaths = readOnlyPaths;
+        this.clock = clock;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        long now = clock.millis();
+        boolean write = !SAFE_METHODS.contains(request.getMethod())
+                && !readOnlyPaths.contains(request.getRequestURI());
+        if (write) {
+            // Cookie выставляется до обработки: после записи в тело заголовки уже не изменить
+            long until = now + window.toMillis();
+            response.addHeader(HttpHeaders.SET_COOKIE, ResponseCookie.from(COOKIE_NAME, Long.toString(until))
+                    .path("/")
+                    .httpOnly(true)
+                    .maxAge(Duration.ofSeconds((window.toMillis() + 999) / 1000))
+                    .build()
+                    .toString());
+        }
+        ReplicaRoutingContext.begin(write || primaryUntil(request) > now);
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            ReplicaRoutingContext.clear();
+        }
+    }
+
+    private static long primaryUntil(HttpServletRequest request) {
+        Cookie[] cookies = request.getCookies();
+        if (cookies == null) {
+            return 0;
+        }
+        for (Cookie cookie : cookies) {
+            if (COOKIE_NAME.equals(cookie.getName())) {
+                try {
+                    return Long.parseLong(cookie.getValue());
+                } catch (NumberFormatException e) {
+                    return 0;
+                }
+            }
+        }
+        return 0;
+    }
+}
@@ -0,0 +1,108 @@
+package com.saida.bookstore.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Чтение с реплик: оборачивает пул соединений в {@link ReplicaRoutingDataSource}.
+ * Включается свойством bookstore.datasource.replica.enabled.
+ * <p>
+ * На реплики уходят только методы сервисов, помеченные {@code @Transactional(readOnly = true)}.
+ * Отставание реплик проверяется раз в bookstore.datasource.replica.lag-check-interval (по умолчанию 1s).
+ */
+@Slf4j
+@Configuration
+@ConditionalOnProperty(prefix = ReplicaRoutingConfig.PREFIX, name = "enabled", havingValue = "true")
+public class ReplicaRoutingConfig {
+
+    static final String PREFIX = "bookstore.datasource.replica";
+
+    /**
+     * Настройки реплик.
+     *
+     * @param urls                 JDBC-адреса реплик
+     * @param username             пользователь, по умолчанию spring.datasource.username
+     * @param password             пароль, по умолчанию spring.datasource.password
+     * @param maximumPoolSize      размер пула каждой реплики
+     * @param connectionTimeout    время ожидания соединения с репликой
+     * @param maxLag               отставание, после которого реплика исключается из чтения
+     * @param readYourWritesWindow сколько после записи клиент читает с основного сервера
+     * @param readOnlyPaths        пути POST-запросов, которые только читают и не открывают окно
+     */
+    public record Properties(List<String> urls, String username, String password, int maximumPoolSize,
+                             Duration connectionTimeout, Duration maxLag, Duration readYourWritesWindow,
+                             Set<String> readOnlyPaths) {
+
+        static Properties bind(Environment environment) {
+            Binder binder = Binder.get(environment);
+            Properties properties = binder.bind(PREFIX, Properties.class)
+                    .orElseThrow(() -> new IllegalStateException("Set " + PREFIX + ".urls"));
+            if (properties.urls() == null || properties.urls().isEmpty()) {
+                throw new IllegalStateException("Set " + PREFIX + ".urls");
+            }
+            return new Properties(
+                    properties.urls(),
+                    properties.username() != null
+                            ? properties.username()
+                            : environment.getProperty("spring.datasource.username"),
+                    properties.password() != null
+                            ? properties.password()
+                            : environment.getProperty("spring.datasource.password"),
+                    properties.maximumPoolSize() > 0 ? properties.maximumPoolSize() : 10,
+                    properties.connectionTimeout() != null ? properties.connectionTimeout() : Duration.ofSeconds(2),
+                    properties.maxLag() != null ? properties.maxLag() : Duration.ofSeconds(5),
+                    properties.readYourWritesWindow() != null
+                            ? properties.readYourWritesWindow()
+                            : Duration.ofSeconds(5),
+                    properties.readOnlyPaths() != null ? properties.readOnlyPaths() : Set.of("/book/lookup"));
+        }
+    }
+
+    @Bean
+    ReplicaSet replicaSet(Environment environment, MeterRegistry meterRegistry) {
+        Properties properties = Properties.bind(environment);
+        log.info("Routing read-only transactions to {} replica(s), max lag {}", properties.urls().size(),
+                properties.maxLag());
+        return ReplicaSet.create(properties, meterRegistry);
+    }
+
+    @Bean
+    @ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+    ReadYourWritesFilter readYourWritesFilter(Environment environment) {
+        Properties properties = Properties.bind(environment);
+        return new ReadYourWritesFilter(properties.readYourWritesWindow(), properties.readOnlyPaths(),
+                Clock.systemUTC());
+    }
+
+    // Выполняется после DataSourceBulkheadConfig (тот упорядочен), поэтому ограничитель охраняет только основной пул.
+    // LazyConnectionDataSourceProxy откладывает выбор сервера до первого запроса, когда признак readOnly уже выставлен.
+    @Bean
+    static BeanPostProcessor replicaRoutingPostProcessor(ObjectProvider<ReplicaSet> replicaSet,
+                                                         ObjectProvider<MeterRegistry> meterRegistry) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (!(bean instanceof DataSource dataSource) || bean instanceof LazyConnectionDataSourceProxy) {
+                    return bean;
+                }
+                return new LazyConnectionDataSourceProxy(
+                        new ReplicaRoutingDataSource(dataSource, replicaSet.getObject(), meterRegistry.getObject()));
+            }
+        };
+    }
+}
@@ -0,0 +1,77 @@
+package com.saida.bookstore.config;
+
+/**
+ * Состояние маршрутизации чтения для текущего HTTP-запроса.
+ * Заполняется {@link ReadYourWritesFilter} и {@link ReplicaRoutingDataSource}, читается им же и сервисом книг.
+ * <p>
+ * Вне HTTP-запроса (планировщик, миграции) контекст не активен: реплика выбирается заново
+ * для каждого соединения, а чтение с основного сервера не навязывается.
+ */
+public final class ReplicaRoutingContext {
+
+    private static final ThreadLocal<State> STATE = new ThreadLocal<>();
+
+    private ReplicaRoutingContext() {
+        // Утилитный класс
+    }
+
+    /**
+     * Начинает запрос.
+     *
+     * @param primaryRequired true, если клиент недавно писал и должен читать с основного сервера
+     */
+    public static void begin(boolean primaryRequired) {
+        STATE.set(new State(primaryRequired));
+    }
+
+    /**
+     * Завершает запрос и освобождает состояние потока.
+     */
+    public static void clear() {
+        STATE.remove();
+    }
+
+    static boolean isPrimaryRequired() {
+        State state = STATE.get();
+        return state != null && state.primaryRequired;
+    }
+
+    /**
+     * Реплика, уже выбранная в этом запросе, или -1.
+     * Все чтения одного запроса идут на одну реплику, чтобы, например, ETag страницы и её тело
+     * не были прочитаны с реплик с разным отставанием.
+     */
+    static int pinnedReplica() {
+        State state = STATE.get();
+        return state != null ? state.pinnedReplica : -1;
+    }
+
+    /**
+     * Читал ли текущий запрос с реплики. Такие данные могут отставать на bookstore.datasource.replica.max-lag,
+     * поэтому не должны попадать в общий кэш книг: после вытеснения при обновлении реплика вернула бы
+     * в кэш старую версию для всех клиентов.
+     *
+     * Вне HTTP-запроса выбор реплики не запоминается и метод возвращает false.
+     *
+     * @return true, если в этом запросе соединение уже выдавалось репликой
+     */
+    public static boolean isReplicaRead() {
+        return pinnedReplica() >= 0;
+    }
+
+    static void pinReplica(int index) {
+        State state = STATE.get();
+        if (state != null) {
+            state.pinnedReplica = index;
+        }
+    }
+
+    private static final class State {
+        private final boolean primaryRequired;
+        private int pinnedReplica = -1;
+
+        private State(boolean primaryRequired) {
+            this.primaryRequired = primaryRequired;
+        }
+    }
+}
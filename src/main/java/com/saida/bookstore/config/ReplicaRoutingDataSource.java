@@ -0,0 +1,81 @@
+package com.saida.bookstore.config;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+
+/**
+ * Направляет соединения только для чтения на реплики, остальные — на основной сервер.
+ * <p>
+ * Признак чтения берётся из {@code @Transactional(readOnly = true)}: поэтому источник должен быть обёрнут
+ * в {@link org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy}, чтобы соединение запрашивалось
+ * после того, как менеджер транзакций выставил этот признак. Чтение остаётся на основном сервере, если клиент
+ * недавно писал ({@link ReplicaRoutingContext}) или все реплики отстают или недоступны.
+ * <p>
+ * Основной источник остаётся целевым для {@link DelegatingDataSource}, поэтому метрики Hikari и
+ * {@code unwrap} продолжают видеть основной пул.
+ */
+public class ReplicaRoutingDataSource extends DelegatingDataSource {
+
+    private final ReplicaSet replicas;
+    private final Counter writeCounter;
+    private final Counter stickyCounter;
+    private final Counter fallbackCounter;
+    private final Counter replicaCounter;
+
+    /**
+     * @param primary       основной сервер
+     * @param replicas      реплики
+     * @param meterRegistry реестр метрики маршрутизации
+     */
+    public ReplicaRoutingDataSource(DataSource primary, ReplicaSet replicas, MeterRegistry meterRegistry) {
+        super(primary);
+        this.replicas = replicas;
+        this.writeCounter = routingCounter(meterRegistry, "primary", "read-write");
+        this.stickyCounter = routingCounter(meterRegistry, "primary", "read-your-writes");
+        this.fallbackCounter = routingCounter(meterRegistry, "primary", "no-replica");
+        this.replicaCounter = routingCounter(meterRegistry, "replica", "read-only");
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return determineTarget().getConnection();
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return determineTarget().getConnection(username, password);
+    }
+
+    DataSource determineTarget() {
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            writeCounter.increment();
+            return obtainTargetDataSource();
+        }
+        if (ReplicaRoutingContext.isPrimaryRequired()) {
+            stickyCounter.increment();
+            return obtainTargetDataSource();
+        }
+        int replica = replicas.pick(ReplicaRoutingContext.pinnedReplica());
+        if (replica < 0) {
+            fallbackCounter.increment();
+            return obtainTargetDataSource();
+        }
+        ReplicaRoutingContext.pinReplica(replica);
+        replicaCounter.increment();
+        return replicas.dataSource(replica);
+    }
+
+    private static Counter routingCounter(MeterRegistry meterRegistry, String target, String reason) {
+        return Counter.builder("bookstore.datasource.routing")
+                .description("Connections routed to the primary or a read replica")
+                .tag("target", target)
+                .tag("reason", reason)
+                .register(meterRegistry);
+    }
+}
@@ -0,0 +1,172 @@
+package com.saida.bookstore.config;
+
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Пулы соединений к репликам и контроль их отставания.
+ * <p>
+ * Отставание каждой реплики периодически измеряется по времени последней применённой транзакции.
+ * Реплика, отстающая больше чем на maxLag или недоступная, исключается из выбора до следующей проверки.
+ */
+@Slf4j
+public class ReplicaSet implements AutoCloseable {
+
+    // Реплика без входящего WAL (всё применено) или сервер не в режиме восстановления считаются актуальными
+    private static final String LAG_QUERY = """
+            SELECT CASE
+                       WHEN NOT pg_is_in_recovery() OR pg_last_wal_receive_lsn() = pg_last_wal_replay_lsn() THEN 0
+                       ELSE EXTRACT(EPOCH FROM now() - pg_last_xact_replay_timestamp()) * 1000
+                   END
+            """;
+
+    private final List<Replica> replicas;
+    private final long maxLagMillis;
+    private final AtomicInteger next = new AtomicInteger();
+
+    /**
+     * @param dataSources   пулы соединений к репликам по имени
+     * @param maxLag        максимально допустимое отставание реплики
+     * @param meterRegistry реестр метрики отставания
+     */
+    ReplicaSet(Map<String, DataSource> dataSources, Duration maxLag, MeterRegistry meterRegistry) {
+        this.maxLagMillis = maxLag.toMillis();
+        this.replicas = new ArrayList<>(dataSources.size());
+        dataSources.forEach((name, dataSource) -> {
+            Replica replica = new Replica(name, dataSource);
+            Gauge.builder("bookstore.datasource.replica.lag", replica, r -> r.lagMillis)
+                    .description("Replication lag of a read replica in milliseconds, -1 if unreachable")
+                    .tag("replica", name)
+                    .register(meterRegistry);
+            replicas.add(replica);
+        });
+    }
+
+    /**
+     * Создаёт пул Hikari только для чтения на каждый адрес из настроек.
+     *
+     * @param properties    адреса реплик и параметры пулов
+     * @param meterRegistry реестр метрик пулов и отставания
+     */
+    public static ReplicaSet create(ReplicaRoutingConfig.Properties properties, MeterRegistry meterRegistry) {
+        Map<String, DataSource> dataSources = new LinkedHashMap<>();
+        for (int i = 0; i < properties.urls().size(); i++) {
+            HikariConfig config = new HikariConfig();
+            config.setPoolName("replica-" + i);
+            config.setJdbcUrl(properties.urls().get(i));
+            config.setUsername(properties.username());
+            config.setPassword(properties.password());
+            config.setMaximumPoolSize(properties.maximumPoolSize());
+            config.setConnectionTimeout(properties.connectionTimeout().toMillis());
+            config.setReadOnly(true);
+            // Пул не должен падать при старте, если реплика ещё недоступна: до первой удачной проверки читаем с основного
+            config.setInitializationFailTimeout(-1);
+            config.setMetricsTrackerFactory(new MicrometerMetricsTrackerFactory(meterRegistry));
+            dataSources.put(config.getPoolName(), new HikariDataSource(config));
+        }
+        return new ReplicaSet(dataSources, properties.maxLag(), meterRegistry);
+    }
+
+    /**
+     * Число реплик.
+     */
+    public int size() {
+        return replicas.size();
+    }
+
+    /**
+     * Выбирает реплику по кругу среди доступных.
+     *
+     * @param preferred индекс реплики, которую нужно вернуть, если она ещё доступна, или -1
+     * @return индекс реплики или -1, если ни одна реплика не подходит
+     */
+    int pick(int preferred) {
+        if (preferred >= 0 && replicas.get(preferred).available) {
+            return preferred;
+        }
+        int size = replicas.size();
+        int start = Math.floorMod(next.getAndIncrement(), size);
+        for (int i = 0; i < size; i++) {
+            int index = (start + i) % size;
+            if (replicas.get(index).available) {
+                return index;
+            }
+        }
+        return -1;
+    }
+
+    DataSource dataSource(int index) {
+        return replicas.get(index).dataSource;
+    }
+
+    /**
+     * Измеряет отставание всех реплик.
+     */
+    @Scheduled(fixedDelayString = "${bookstore.datasource.replica.lag-check-interval:1s}")
+    public void checkLag() {
+        for (Replica replica : replicas) {
+            long lagMillis = measureLag(replica);
+            boolean available = lagMillis >= 0 && lagMillis <= maxLagMillis;
+            if (available && !replica.available) {
+                log.info("Replica {} is in rotation (lag {} ms)", replica.name, lagMillis);
+            } else if (!available && replica.available) {
+                log.warn("Replica {} is out of rotation (lag {} ms, max {} ms)",
+                        replica.name, lagMillis, maxLagMillis);
+            }
+            replica.lagMillis = lagMillis;
+            replica.available = available;
+        }
+    }
+
+    private static long measureLag(Replica replica) {
+        try (Connection connection = replica.dataSource.getConnection();
+             Statement statement = connection.createStatement();
+             ResultSet rs = statement.executeQuery(LAG_QUERY)) {
+            rs.next();
+            // pg_last_xact_replay_timestamp() равен NULL, пока реплика не применила ни одной транзакции
+            double lag = rs.getDouble(1);
+            return rs.wasNull() ? -1 : Math.max(0, (long) lag);
+        } catch (SQLException e) {
+            log.debug("Failed to measure lag of replica {}: {}", replica.name, e.getMessage());
+            return -1;
+        }
+    }
+
+    @Override
+    public void close() {
+        for (Replica replica : replicas) {
+            if (replica.dataSource instanceof HikariDataSource hikari) {
+                hikari.close();
+            }
+        }
+    }
+
+    private static final class Replica {
+        private final String name;
+        private final DataSource dataSource;
+        private volatile long lagMillis = -1;
+        private volatile boolean available;
+
+        private Replica(String name, DataSource dataSource) {
+            this.name = name;
+            this.dataSource = dataSource;
+        }
+    }
+}
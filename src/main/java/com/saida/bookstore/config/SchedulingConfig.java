@@ -0,0 +1,12 @@
+package com.saida.bookstore.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/**
+ * Включает фоновые задачи: релей ленты изменений и проверку отставания реплик.
+ */
+@Configuration
+@EnableScheduling
+public class SchedulingConfig {
+}
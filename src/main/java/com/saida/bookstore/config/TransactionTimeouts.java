@@ -0,0 +1,39 @@
+package com.saida.bookstore.config;
+
+/**
+ * Таймауты транзакций сервисов для {@code @Transactional(timeoutString = ...)}, в секундах.
+ * <p>
+ * Spring передаёт остаток времени транзакции в {@code Statement.setQueryTimeout} каждого запроса,
+ * поэтому медленный запрос прерывается и освобождает соединение, а клиент получает 503.
+ * Значения задаются свойствами bookstore.transaction.*.
+ */
+public final class TransactionTimeouts {
+
+    /** Чтение книги, страницы каталога и пакетный поиск по ключам. */
+    public static final String READ = "${bookstore.transaction.read-timeout:2}";
+
+    /** Полнотекстовый поиск. */
+    public static final String SEARCH = "${bookstore.transaction.search-timeout:5}";
+
+    /** Статистика каталога: агрегат по всей таблице. */
+    public static final String STATS = "${bookstore.transaction.stats-timeout:10}";
+
+    /** Создание, обновление и удаление одной книги. */
+    public static final String WRITE = "${bookstore.transaction.write-timeout:5}";
+
+    /** Пакетное создание книг. */
+    public static final String BATCH = "${bookstore.transaction.batch-timeout:30}";
+
+    /** Выгрузка каталога: совпадает с таймаутом асинхронного запроса spring.mvc.async.request-timeout. */
+    public static final String EXPORT = "${bookstore.transaction.export-timeout:1800}";
+
+    /**
+     * Массовый импорт через COPY. Без таймаута транзакции слияние из промежуточной таблицы
+     * ограничивалось бы общим spring.jdbc.template.query-timeout.
+     */
+    public static final String IMPORT = "${bookstore.transaction.import-timeout:1800}";
+
+    private TransactionTimeouts() {
+        // Утилитный класс
+    }
+}
@@ -0,0 +1,26 @@
+package com.saida.bookstore.config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Проверка окружения для профиля virtual-threads.
+ * Spring Boot молча игнорирует spring.threads.virtual.enabled на Java ниже 21,
+ * и приложение продолжает работать на пуле платформенных потоков Tomcat.
+ */
+@Slf4j
+@Configuration
+@ConditionalOnProperty(name = "spring.threads.virtual.enabled", havingValue = "true")
+public class VirtualThreadsConfig {
+
+    private static final int VIRTUAL_THREADS_JAVA_VERSION = 21;
+
+    VirtualThreadsConfig() {
+        int javaVersion = Runtime.version().feature();
+        if (javaVersion < VIRTUAL_THREADS_JAVA_VERSION) {
+            log.warn("Virtual threads requested but Java {} is running, requests are served by platform threads",
+                    javaVersion);
+        }
+    }
+}
@@ -0,0 +1,32 @@
+package com.saida.bookstore.dto;
+
+import java.util.List;
+
+/**
+ * Результат создания одной книги из пакетного запроса.
+ *
+ * @param index  позиция книги в исходном запросе
+ * @param status итог обработки
+ * @param book   созданная книга, только для {@link Status#CREATED}
+ * @param errors причины отказа, только для {@link Status#FAILED}
+ */
+public record BookBatchResult(
+        int index,
+        Status status,
+        BookDto book,
+        List<String> errors
+) {
+
+    public enum Status {
+        CREATED,
+        FAILED
+    }
+
+    public static BookBatchResult created(int index, BookDto book) {
+        return new BookBatchResult(index, Status.CREATED, book, null);
+    }
+
+    public static BookBatchResult failed(int index, List<String> errors) {
+        return new BookBatchResult(index, Status.FAILED, null, errors);
+    }
+}
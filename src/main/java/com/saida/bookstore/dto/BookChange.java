@@ -0,0 +1,22 @@
+package com.saida.bookstore.dto;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Изменение книги в ленте изменений.
+ *
+ * @param offset    позиция в ленте, растёт без пропусков
+ * @param type      вид изменения
+ * @param publicId  публичный идентификатор книги
+ * @param changedAt время изменения
+ * @param book      текущее состояние книги или null, если книга уже удалена
+ */
+public record BookChange(
+        long offset,
+        BookChangeType type,
+        UUID publicId,
+        LocalDateTime changedAt,
+        BookDto book
+) {
+}
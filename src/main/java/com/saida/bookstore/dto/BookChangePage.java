@@ -0,0 +1,15 @@
+package com.saida.bookstore.dto;
+
+import java.util.List;
+
+/**
+ * Порция ленты изменений.
+ *
+ * @param changes    изменения по возрастанию смещения
+ * @param nextOffset смещение для следующего запроса: последнее отданное или исходное, если изменений нет
+ */
+public record BookChangePage(
+        List<BookChange> changes,
+        long nextOffset
+) {
+}
@@ -0,0 +1,10 @@
+package com.saida.bookstore.dto;
+
+/**
+ * Вид изменения книги в ленте изменений.
+ */
+public enum BookChangeType {
+    CREATED,
+    UPDATED,
+    DELETED
+}
@@ -0,0 +1,16 @@
+package com.saida.bookstore.dto;
+
+import java.time.LocalDateTime;
+
+/**
+ * Позиция в выборке книг, отсортированной по (created_at DESC, id DESC).
+ * Клиенту передаётся только в закодированном виде, см. {@link com.saida.bookstore.util.CursorUtils}.
+ *
+ * @param createdAt дата создания последней книги на странице
+ * @param id        внутренний идентификатор последней книги на странице
+ */
+public record BookCursor(
+        LocalDateTime createdAt,
+        long id
+) {
+}
@@ -11,6 +11,8 @@ public record BookDto(
         String isbn,
         BigDecimal price,
         Integer publicationYear,
-        LocalDateTime createdAt
+        LocalDateTime createdAt,
+        LocalDateTime updatedAt,
+        Long version
 ) {
 }
\ No newline at end of file
@@ -0,0 +1,9 @@
+package com.saida.bookstore.dto;
+
+import java.util.List;
+
+public record BookImportError(
+        long line,
+        List<String> errors
+) {
+}
@@ -0,0 +1,15 @@
+package com.saida.bookstore.dto;
+
+/**
+ * Формат входного файла импорта.
+ */
+public enum BookImportFormat {
+    /**
+     * CSV с заголовком, колонки: title, author, isbn, price, publicationYear.
+     */
+    CSV,
+    /**
+     * Один JSON объект в формате BookRequest на строку.
+     */
+    NDJSON
+}
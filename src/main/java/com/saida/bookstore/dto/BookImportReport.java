@@ -0,0 +1,21 @@
+package com.saida.bookstore.dto;
+
+import java.util.List;
+
+/**
+ * Итог импорта книг.
+ *
+ * @param accepted   строки, прошедшие валидацию и загруженные во временную таблицу
+ * @param rejected   строки, отклонённые при разборе или валидации
+ * @param inserted   книги, добавленные в каталог
+ * @param duplicates принятые строки, чей ISBN уже есть в каталоге или повторяется в файле
+ * @param errors     первые ошибки разбора и валидации; их количество ограничено
+ */
+public record BookImportReport(
+        long accepted,
+        long rejected,
+        long inserted,
+        long duplicates,
+        List<BookImportError> errors
+) {
+}
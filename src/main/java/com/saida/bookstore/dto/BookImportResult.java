@@ -0,0 +1,13 @@
+package com.saida.bookstore.dto;
+
+/**
+ * Результат загрузки книг в базу.
+ *
+ * @param staged   строк загружено во временную таблицу
+ * @param inserted книг добавлено в каталог
+ */
+public record BookImportResult(
+        long staged,
+        long inserted
+) {
+}
@@ -0,0 +1,26 @@
+package com.saida.bookstore.dto;
+
+import java.util.List;
+
+/**
+ * Результат поиска книг по списку ключей.
+ * Элементы идут в порядке ключей запроса, включая повторы и ненайденные ключи.
+ *
+ * @param publicIds результаты по publicId
+ * @param isbns     результаты по ISBN
+ */
+public record BookLookupResult(
+        List<Item> publicIds,
+        List<Item> isbns
+) {
+
+    /**
+     * @param key  ключ в том виде, в каком он пришёл в запросе
+     * @param book найденная книга или null, если книги нет
+     */
+    public record Item(
+            String key,
+            BookDto book
+    ) {
+    }
+}
@@ -0,0 +1,9 @@
+package com.saida.bookstore.dto;
+
+import java.util.List;
+
+public record BookPageDto(
+        List<BookDto> items,
+        String nextCursor
+) {
+}
@@ -0,0 +1,18 @@
+package com.saida.bookstore.dto;
+
+import java.time.LocalDateTime;
+
+/**
+ * Версия страницы книг: меняется при вставке, удалении или обновлении любой книги страницы.
+ * Считается агрегатом по тому же диапазону ключей, что и сама страница, без чтения её содержимого в приложение.
+ *
+ * @param count         количество книг в диапазоне
+ * @param idSum         сумма внутренних идентификаторов книг диапазона
+ * @param lastUpdatedAt время последнего изменения книги диапазона, null для пустой страницы
+ */
+public record BookPageVersion(
+        long count,
+        long idSum,
+        LocalDateTime lastUpdatedAt
+) {
+}
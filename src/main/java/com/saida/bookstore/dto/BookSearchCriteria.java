@@ -0,0 +1,23 @@
+package com.saida.bookstore.dto;
+
+import java.math.BigDecimal;
+
+/**
+ * Условия поиска книг. Незаданные (null) условия не ограничивают выборку.
+ *
+ * @param query     полнотекстовый запрос по названию и автору, допускает опечатки
+ * @param author    автор: точное совпадение или похожее написание
+ * @param yearFrom  минимальный год издания включительно
+ * @param yearTo    максимальный год издания включительно
+ * @param priceMin  минимальная цена включительно
+ * @param priceMax  максимальная цена включительно
+ */
+public record BookSearchCriteria(
+        String query,
+        String author,
+        Integer yearFrom,
+        Integer yearTo,
+        BigDecimal priceMin,
+        BigDecimal priceMax
+) {
+}
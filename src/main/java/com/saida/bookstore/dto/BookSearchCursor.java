@@ -0,0 +1,14 @@
+package com.saida.bookstore.dto;
+
+/**
+ * Позиция в результатах поиска, отсортированных по (rank DESC, id DESC).
+ * Клиенту передаётся только в закодированном виде, см. {@link com.saida.bookstore.util.CursorUtils}.
+ *
+ * @param rank релевантность последней книги на странице
+ * @param id   внутренний идентификатор последней книги на странице
+ */
+public record BookSearchCursor(
+        float rank,
+        long id
+) {
+}
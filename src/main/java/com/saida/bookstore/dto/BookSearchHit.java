@@ -0,0 +1,15 @@
+package com.saida.bookstore.dto;
+
+import com.saida.bookstore.entity.BookEntity;
+
+/**
+ * Книга из результатов поиска вместе с её релевантностью.
+ *
+ * @param book книга
+ * @param rank релевантность, вычисленная базой; нужна для курсора следующей страницы
+ */
+public record BookSearchHit(
+        BookEntity book,
+        float rank
+) {
+}
@@ -0,0 +1,18 @@
+package com.saida.bookstore.dto;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+/**
+ * Статистика каталога, сгруппированная по измерениям.
+ *
+ * @param groupBy     измерения в порядке группировки; пустой список — одна группа на весь каталог
+ * @param priceBucket ширина интервала цены, null если цена не входит в измерения
+ * @param groups      группы, упорядоченные по значениям измерений
+ */
+public record BookStats(
+        List<BookStatsDimension> groupBy,
+        BigDecimal priceBucket,
+        List<BookStatsGroup> groups
+) {
+}
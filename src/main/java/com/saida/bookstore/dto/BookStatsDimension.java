@@ -0,0 +1,36 @@
+package com.saida.bookstore.dto;
+
+/**
+ * Измерение группировки статистики каталога и его имя в параметре groupBy.
+ */
+public enum BookStatsDimension {
+    AUTHOR("author"),
+    PUBLICATION_YEAR("publicationYear"),
+    /** Интервалы цены заданной ширины. */
+    PRICE("price");
+
+    private final String paramName;
+
+    BookStatsDimension(String paramName) {
+        this.paramName = paramName;
+    }
+
+    public String paramName() {
+        return paramName;
+    }
+
+    /**
+     * Находит измерение по имени параметра без учёта регистра.
+     *
+     * @param paramName имя измерения из запроса
+     * @return измерение или null, если имя неизвестно
+     */
+    public static BookStatsDimension fromParamName(String paramName) {
+        for (BookStatsDimension dimension : values()) {
+            if (dimension.paramName.equalsIgnoreCase(paramName)) {
+                return dimension;
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,27 @@
+package com.saida.bookstore.dto;
+
+import java.math.BigDecimal;
+
+/**
+ * Агрегаты по одной группе книг. Значения измерений, по которым не группировали, равны null.
+ *
+ * @param author          автор
+ * @param publicationYear год издания
+ * @param priceFrom       нижняя граница интервала цены включительно
+ * @param priceTo         верхняя граница интервала цены, не включая её
+ * @param count           количество книг в группе
+ * @param minPrice        минимальная цена, null для пустого каталога
+ * @param maxPrice        максимальная цена, null для пустого каталога
+ * @param avgPrice        средняя цена, округлённая до копеек; null для пустого каталога
+ */
+public record BookStatsGroup(
+        String author,
+        Integer publicationYear,
+        BigDecimal priceFrom,
+        BigDecimal priceTo,
+        long count,
+        BigDecimal minPrice,
+        BigDecimal maxPrice,
+        BigDecimal avgPrice
+) {
+}
@@ -0,0 +1,18 @@
+package com.saida.bookstore.entity;
+
+import com.saida.bookstore.dto.BookChangeType;
+import lombok.Builder;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+@Data
+@Builder
+public class BookChangeEntity {
+    private Long offset;
+    private BookChangeType type;
+    private UUID publicId;
+    private LocalDateTime changedAt;
+    private BookEntity book;
+}
@@ -18,4 +18,6 @@ public class BookEntity {
     private BigDecimal price;
     private Integer publicationYear;
     private LocalDateTime createdAt;
+    private LocalDateTime updatedAt;
+    private Long version;
 }
@@ -0,0 +1,7 @@
+package com.saida.bookstore.exception;
+
+public class BookVersionMismatchException extends RuntimeException {
+    public BookVersionMismatchException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,7 @@
+package com.saida.bookstore.exception;
+
+public class ChangeOffsetExpiredException extends RuntimeException {
+    public ChangeOffsetExpiredException(String message) {
+        super(message);
+    }
+}
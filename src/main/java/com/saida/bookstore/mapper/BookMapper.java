@@ -1,13 +1,33 @@
 package com.saida.bookstore.mapper;
 
 import com.saida.bookstore.api.request.BookRequest;
+import com.saida.bookstore.api.response.BookBatchItemResponse;
+import com.saida.bookstore.api.response.BookChangePageResponse;
+import com.saida.bookstore.api.response.BookChangeResponse;
+import com.saida.bookstore.api.response.BookImportResponse;
+import com.saida.bookstore.api.response.BookLookupResponse;
+import com.saida.bookstore.api.response.BookPageResponse;
 import com.saida.bookstore.api.response.BookResponse;
+import com.saida.bookstore.api.response.BookStatsResponse;
+import com.saida.bookstore.dto.BookBatchResult;
+import com.saida.bookstore.dto.BookChange;
+import com.saida.bookstore.dto.BookChangePage;
 import com.saida.bookstore.dto.BookDto;
+import com.saida.bookstore.dto.BookImportReport;
+import com.saida.bookstore.dto.BookLookupResult;
+import com.saida.bookstore.dto.BookPageDto;
+import com.saida.bookstore.dto.BookStats;
+import com.saida.bookstore.dto.BookStatsDimension;
+import com.saida.bookstore.entity.BookChangeEntity;
 import com.saida.bookstore.entity.BookEntity;
+import org.mapstruct.DecoratedWith;
 import org.mapstruct.Mapper;
 import org.mapstruct.Mapping;
 
+import java.util.List;
+
 @Mapper(componentModel = "spring")
+@DecoratedWith(BookMapperDecorator.class)
 public interface BookMapper {
 
     @Mapping(source = "publicId", target = "publicId")
@@ -17,8 +37,32 @@ public interface BookMapper {
     @Mapping(source = "price", target = "price")
     @Mapping(source = "publicationYear", target = "publicationYear")
     @Mapping(source = "createdAt", target = "createdAt")
+    @Mapping(source = "updatedAt", target = "updatedAt")
     BookResponse toResponse(BookDto bookDto);
 
+    BookPageResponse toResponse(BookPageDto bookPageDto);
+
+    BookBatchItemResponse toResponse(BookBatchResult bookBatchResult);
+
+    List<BookBatchItemResponse> toBatchResponse(List<BookBatchResult> bookBatchResults);
+
+    BookImportResponse toResponse(BookImportReport bookImportReport);
+
+    BookLookupResponse toResponse(BookLookupResult bookLookupResult);
+
+    @Mapping(target = "found", expression = "java(item.book() != null)")
+    BookLookupResponse.Item toResponse(BookLookupResult.Item item);
+
+    BookChangePageResponse toResponse(BookChangePage bookChangePage);
+
+    BookChangeResponse toResponse(BookChange bookChange);
+
+    BookStatsResponse toResponse(BookStats bookStats);
+
+    default String toParamName(BookStatsDimension dimension) {
+        return dimension.paramName();
+    }
+
     @Mapping(source = "publicId", target = "publicId")
     @Mapping(source = "title", target = "title")
     @Mapping(source = "author", target = "author")
@@ -26,6 +70,8 @@ public interface BookMapper {
     @Mapping(source = "price", target = "price")
     @Mapping(source = "publicationYear", target = "publicationYear")
     @Mapping(source = "createdAt", target = "createdAt")
+    @Mapping(source = "updatedAt", target = "updatedAt")
+    @Mapping(target = "version", ignore = true)
     BookDto toDto(BookResponse bookResponse);
 
     @Mapping(source = "title", target = "title")
@@ -33,10 +79,13 @@ public interface BookMapper {
     @Mapping(source = "isbn", target = "isbn")
     @Mapping(source = "price", target = "price")
     @Mapping(source = "publicationYear", target = "publicationYear")
+    @Mapping(target = "version", ignore = true)
     BookDto toDto(BookRequest bookRequest);
 
     @Mapping(target = "id", ignore = true)
     BookEntity toEntity(BookDto dto);
 
     BookDto toDto(BookEntity entity);
+
+    BookChange toDto(BookChangeEntity entity);
 }
@@ -0,0 +1,92 @@
+package com.saida.bookstore.mapper;
+
+import com.saida.bookstore.api.request.BookRequest;
+import com.saida.bookstore.api.response.BookPageResponse;
+import com.saida.bookstore.api.response.BookResponse;
+import com.saida.bookstore.dto.BookDto;
+import com.saida.bookstore.dto.BookPageDto;
+import com.saida.bookstore.entity.BookEntity;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Публикует время преобразований горячих путей в bookstore.mapper с тегом mapping:
+ * сущность → DTO → ответ при чтении и запрос → DTO → сущность при записи.
+ * Остальные методы MapStruct делегирует без замера.
+ */
+public abstract class BookMapperDecorator implements BookMapper {
+
+    private BookMapper delegate;
+    private Timer entityToDto;
+    private Timer dtoToResponse;
+    private Timer pageToResponse;
+    private Timer requestToDto;
+    private Timer dtoToEntity;
+
+    // MapStruct создаёт наследника через конструктор без аргументов, поэтому зависимости внедряются сеттерами
+    @Autowired
+    void setDelegate(@Qualifier("delegate") BookMapper delegate) {
+        this.delegate = delegate;
+    }
+
+    @Autowired
+    void setMeterRegistry(MeterRegistry meterRegistry) {
+        entityToDto = timer(meterRegistry, "entity-to-dto");
+        dtoToResponse = timer(meterRegistry, "dto-to-response");
+        pageToResponse = timer(meterRegistry, "page-to-response");
+        requestToDto = timer(meterRegistry, "request-to-dto");
+        dtoToEntity = timer(meterRegistry, "dto-to-entity");
+    }
+
+    @Override
+    public BookDto toDto(BookEntity entity) {
+        long start = System.nanoTime();
+        BookDto dto = delegate.toDto(entity);
+        entityToDto.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        return dto;
+    }
+
+    @Override
+    public BookResponse toResponse(BookDto bookDto) {
+        long start = System.nanoTime();
+        BookResponse response = delegate.toResponse(bookDto);
+        dtoToResponse.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        return response;
+    }
+
+    @Override
+    public BookPageResponse toResponse(BookPageDto bookPageDto) {
+        long start = System.nanoTime();
+        BookPageResponse response = delegate.toResponse(bookPageDto);
+        pageToResponse.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        return response;
+    }
+
+    @Override
+    public BookDto toDto(BookRequest bookRequest) {
+        long start = System.nanoTime();
+        BookDto dto = delegate.toDto(bookRequest);
+        requestToDto.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        return dto;
+    }
+
+    @Override
+    public BookEntity toEntity(BookDto dto) {
+        long start = System.nanoTime();
+        BookEntity entity = delegate.toEntity(dto);
+        dtoToEntity.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        return entity;
+    }
+
+    private static Timer timer(MeterRegistry meterRegistry, String mapping) {
+        return Timer.builder("bookstore.mapper")
+                .description("Time spent mapping between entity, DTO and API models")
+                .tag("mapping", mapping)
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+    }
+}
@@ -0,0 +1,51 @@
+package com.saida.bookstore.repository;
+
+import com.saida.bookstore.entity.BookChangeEntity;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Лента изменений книг: outbox, который пополняет триггер на таблице book, и опубликованные изменения.
+ */
+public interface BookChangeRepository {
+
+    /**
+     * Захватывает блокировку релея до конца текущей транзакции. Должен вызываться внутри транзакции.
+     *
+     * @return true, если блокировка получена; false, если релей уже работает в другом экземпляре приложения
+     */
+    boolean tryLockRelay();
+
+    /**
+     * Переносит самые старые строки outbox в опубликованные изменения, назначая им следующие смещения.
+     * Должен вызываться в транзакции после {@link #tryLockRelay()}.
+     *
+     * @param limit максимальное количество переносимых строк
+     * @return количество опубликованных изменений
+     */
+    int relay(int limit);
+
+    /**
+     * Возвращает опубликованные изменения после смещения вместе с текущим состоянием книг.
+     *
+     * @param offset смещение последнего полученного изменения
+     * @param limit  максимальное количество изменений
+     * @return изменения по возрастанию смещения
+     */
+    List<BookChangeEntity> findAfter(long offset, int limit);
+
+    /**
+     * @return смещение последнего опубликованного изменения, 0 если изменений не было
+     */
+    long findLatestOffset();
+
+    /**
+     * Удаляет изменения, опубликованные раньше заданного момента. Последнее изменение сохраняется всегда,
+     * чтобы смещения продолжались без пропусков.
+     *
+     * @param publishedBefore граница хранения
+     * @return количество удалённых изменений
+     */
+    int deleteExpired(LocalDateTime publishedBefore);
+}
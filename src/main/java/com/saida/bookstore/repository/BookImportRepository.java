@@ -0,0 +1,20 @@
+package com.saida.bookstore.repository;
+
+import com.saida.bookstore.dto.BookImportResult;
+import com.saida.bookstore.entity.BookEntity;
+
+import java.util.stream.Stream;
+
+public interface BookImportRepository {
+
+    /**
+     * Загружает книги через COPY во временную таблицу и переносит их в каталог одним запросом.
+     * Книги читаются из потока по одной и не накапливаются в памяти.
+     * Книги с ISBN, уже существующим в каталоге или повторяющимся в потоке, пропускаются.
+     * Должен вызываться внутри транзакции: временная таблица удаляется при её завершении.
+     *
+     * @param books поток валидных книг
+     * @return количество загруженных и добавленных книг
+     */
+    BookImportResult copyBooks(Stream<BookEntity> books);
+}
@@ -1,7 +1,17 @@
 package com.saida.bookstore.repository;
 
+import com.saida.bookstore.dto.BookCursor;
+import com.saida.bookstore.dto.BookPageVersion;
+import com.saida.bookstore.dto.BookSearchCriteria;
+import com.saida.bookstore.dto.BookSearchCursor;
+import com.saida.bookstore.dto.BookSearchHit;
+import com.saida.bookstore.dto.BookStatsDimension;
+import com.saida.bookstore.dto.BookStatsGroup;
 import com.saida.bookstore.entity.BookEntity;
+import org.springframework.dao.DuplicateKeyException;
 
+import java.math.BigDecimal;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
@@ -10,11 +20,101 @@ public interface BookRepository {
 
     Optional<BookEntity> findById(UUID publicId);
 
-    List<BookEntity> findAll();
+    /**
+     * Находит книги по набору publicId и ISBN одним запросом.
+     *
+     * @param publicIds публичные идентификаторы, может быть пустым
+     * @param isbns     ISBN в каноническом виде, может быть пустым
+     * @return найденные книги в произвольном порядке, без повторов
+     */
+    List<BookEntity> findAllByKeys(Collection<UUID> publicIds, Collection<String> isbns);
 
+    /**
+     * Передаёт строки книг страницы в порядке (created_at DESC, id DESC) в writer, не создавая сущностей.
+     * Читает на одну строку больше limit, чтобы понять, есть ли следующая страница; эта строка не пишется.
+     *
+     * @param after  позиция последней книги предыдущей страницы, null для первой страницы
+     * @param limit  максимальное количество книг на странице
+     * @param writer запись строки книги в ответ
+     * @return позиция последней записанной книги, если за ней есть ещё книги, иначе null
+     */
+    BookCursor writePage(BookCursor after, int limit, BookRowWriter writer);
+
+    /**
+     * Считает версию диапазона книг страницы в том же порядке, что и
+     * {@link #writePage(BookCursor, int, BookRowWriter)}, не передавая строки в приложение.
+     *
+     * @param after позиция последней книги предыдущей страницы, null для первой страницы
+     * @param limit максимальное количество книг на странице
+     * @return количество, сумма id и максимальный updated_at книг страницы
+     */
+    BookPageVersion findPageVersion(BookCursor after, int limit);
+
+    /**
+     * Ищет книги по условиям и возвращает их по убыванию релевантности, затем по убыванию id.
+     * Без полнотекстового запроса релевантность всех книг равна нулю.
+     *
+     * @param criteria условия поиска
+     * @param after    позиция последней книги предыдущей страницы, null для первой страницы
+     * @param limit    максимальное количество книг на странице
+     * @return найденные книги с релевантностью, не более limit штук
+     */
+    List<BookSearchHit> search(BookSearchCriteria criteria, BookSearchCursor after, int limit);
+
+    /**
+     * Считает количество книг и минимальную, максимальную и среднюю цену одним агрегирующим запросом,
+     * группируя по измерениям в заданном порядке.
+     *
+     * @param groupBy     измерения группировки; пустой список — одна строка на весь каталог
+     * @param priceBucket ширина интервала цены, обязательна при группировке по цене
+     * @return группы, упорядоченные по значениям измерений
+     */
+    List<BookStatsGroup> aggregate(List<BookStatsDimension> groupBy, BigDecimal priceBucket);
+
+    /**
+     * Последовательно передаёт строки всех книг в writer, не накапливая их в памяти.
+     * Должен вызываться внутри транзакции: только при выключенном autocommit
+     * драйвер PostgreSQL читает строки серверным курсором порциями.
+     *
+     * @param writer запись строки книги в ответ
+     */
+    void writeAll(BookRowWriter writer);
+
+    /**
+     * Создаёт новую книгу.
+     *
+     * @param book данные книги
+     * @return сохранённая книга с присвоенными идентификаторами
+     * @throws DuplicateKeyException если ISBN уже занят другой книгой
+     */
     BookEntity save(BookEntity book);
 
-    void deleteById(UUID publicId);
+    /**
+     * Обновляет книгу по publicId одним запросом, без предварительного чтения, и увеличивает её версию.
+     *
+     * @param book             новые данные книги с заполненным publicId
+     * @param expectedVersions версии, при которых обновление допустимо, или null для безусловного обновления
+     * @return обновлённая книга или пустой Optional, если книга не найдена или её версия не совпала
+     * @throws DuplicateKeyException если новый ISBN уже занят другой книгой
+     */
+    Optional<BookEntity> update(BookEntity book, Collection<Long> expectedVersions);
+
+    /**
+     * Вставляет книги одним запросом на каждую порцию.
+     * Книги, чей ISBN уже занят, пропускаются без ошибки.
+     *
+     * @param books новые книги с уникальными в пределах списка ISBN
+     * @return только фактически вставленные книги
+     */
+    List<BookEntity> saveAll(List<BookEntity> books);
+
+    /**
+     * Удаляет книгу по publicId.
+     *
+     * @param publicId публичный идентификатор книги
+     * @return true, если книга была удалена, false если она не найдена
+     */
+    boolean deleteById(UUID publicId);
 
     boolean existsByIsbn(String isbn);
 }
\ No newline at end of file
@@ -0,0 +1,18 @@
+package com.saida.bookstore.repository;
+
+import java.io.IOException;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+/**
+ * Пишет текущую строку таблицы book прямо в ответ, не создавая сущность.
+ * Реализации для JSON, CBOR и протобуфа лежат в пакете api.codec.
+ */
+@FunctionalInterface
+public interface BookRowWriter {
+
+    /**
+     * @param rs результат запроса, установленный на строку книги со всеми колонками таблицы
+     */
+    void write(ResultSet rs) throws SQLException, IOException;
+}
@@ -0,0 +1,76 @@
+package com.saida.bookstore.repository;
+
+import com.saida.bookstore.dto.BookCursor;
+import com.saida.bookstore.dto.BookPageVersion;
+import com.saida.bookstore.entity.BookEntity;
+import org.springframework.dao.DuplicateKeyException;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.UUID;
+
+/**
+ * Неблокирующий аналог {@link BookRepository} для профиля reactive.
+ * Запросы и порядок выборки совпадают с блокирующей реализацией.
+ */
+public interface ReactiveBookRepository {
+
+    /**
+     * Находит книгу по publicId.
+     *
+     * @param publicId публичный идентификатор книги
+     * @return книга или пустой Mono, если она не найдена
+     */
+    Mono<BookEntity> findById(UUID publicId);
+
+    /**
+     * Возвращает страницу книг в порядке (created_at DESC, id DESC).
+     *
+     * @param after позиция последней книги предыдущей страницы, null для первой страницы
+     * @param limit максимальное количество книг на странице
+     * @return книги страницы, не более limit штук
+     */
+    Flux<BookEntity> findPage(BookCursor after, int limit);
+
+    /**
+     * Считает версию страницы по тому же диапазону ключей, что и {@link #findPage(BookCursor, int)}.
+     *
+     * @param after позиция последней книги предыдущей страницы, null для первой страницы
+     * @param limit максимальное количество книг на странице
+     * @return количество, сумма id и максимальный updated_at книг страницы
+     */
+    Mono<BookPageVersion> findPageVersion(BookCursor after, int limit);
+
+    /**
+     * Отдаёт все книги каталога. Строки читаются из базы порциями по мере запроса подписчика,
+     * поэтому медленный клиент не заставляет накапливать каталог в памяти.
+     *
+     * @return все книги в произвольном порядке
+     */
+    Flux<BookEntity> findAll();
+
+    /**
+     * Создаёт новую книгу.
+     *
+     * @param book данные книги
+     * @return сохранённая книга или ошибка {@link DuplicateKeyException}, если ISBN уже занят
+     */
+    Mono<BookEntity> save(BookEntity book);
+
+    /**
+     * Обновляет книгу по publicId одним запросом.
+     *
+     * @param book новые данные книги с заполненным publicId
+     * @return обновлённая книга, пустой Mono если книга не найдена,
+     * или ошибка {@link DuplicateKeyException}, если новый ISBN занят другой книгой
+     */
+    Mono<BookEntity> update(BookEntity book);
+
+    /**
+     * Удаляет книгу по publicId.
+     *
+     * @param publicId публичный идентификатор книги
+     * @return true, если книга была удалена, false если она не найдена
+     */
+    Mono<Boolean> deleteById(UUID publicId);
+}
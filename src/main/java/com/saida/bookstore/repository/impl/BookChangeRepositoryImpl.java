@@ -0,0 +1,125 @@
+package com.saida.bookstore.repository.impl;
+
+import com.saida.bookstore.dto.BookChangeType;
+import com.saida.bookstore.entity.BookChangeEntity;
+import com.saida.bookstore.repository.BookChangeRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Profile;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+@Repository
+@Profile("!reactive")
+@RequiredArgsConstructor
+public class BookChangeRepositoryImpl implements BookChangeRepository {
+
+    // Транзакционная блокировка снимается при commit/rollback, явный unlock не нужен
+    private static final String TRY_LOCK_RELAY = """
+            SELECT pg_try_advisory_xact_lock(hashtext('book_change_relay'))
+            """;
+
+    // Под блокировкой релея смещения назначаются подряд от текущего максимума, поэтому в ленте нет пропусков,
+    // а изменения из долгих транзакций получают смещение при публикации и не теряются за спиной у читателей
+    private static final String RELAY = """
+            WITH moved AS (
+                DELETE FROM book_outbox
+                WHERE id IN (SELECT id FROM book_outbox ORDER BY id LIMIT :limit)
+                RETURNING id, change_type, public_id, changed_at
+            )
+            INSERT INTO book_change (change_offset, change_type, public_id, changed_at, published_at)
+            SELECT (SELECT coalesce(max(change_offset), 0) FROM book_change) + row_number() OVER (ORDER BY id),
+                   change_type, public_id, changed_at, LOCALTIMESTAMP
+            FROM moved
+            """;
+
+    // Книга подтягивается в текущем состоянии: для удалённых книг колонки book равны NULL
+    private static final String FIND_AFTER_SELECT = """
+            SELECT c.change_offset, c.change_type, c.public_id AS change_public_id, c.changed_at,
+                   b.id, b.public_id, b.title, b.author, b.isbn, b.price, b.publication_year,
+                   b.created_at, b.updated_at, b.version
+            FROM book_change c
+            LEFT JOIN book b ON b.public_id = c.public_id
+            WHERE c.change_offset > :offset
+            ORDER BY c.change_offset
+            LIMIT :limit
+            """;
+
+    private static final String LATEST_OFFSET_SELECT = """
+            SELECT coalesce(max(change_offset), 0) FROM book_change
+            """;
+
+    private static final String DELETE_EXPIRED = """
+            DELETE FROM book_change
+            WHERE published_at < :publishedBefore
+              AND change_offset < (SELECT max(change_offset) FROM book_change)
+            """;
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+    private final QueryMetrics queryMetrics;
+
+    private final RowMapper<BookChangeEntity> changeRowMapper = (rs, rowNum) -> BookChangeEntity.builder()
+            .offset(rs.getLong("change_offset"))
+            .type(BookChangeType.valueOf(rs.getString("change_type")))
+            .publicId(rs.getObject("change_public_id", UUID.class))
+            .changedAt(rs.getTimestamp("changed_at").toLocalDateTime())
+            .book(rs.getObject("id") != null ? BookRowMapper.INSTANCE.mapRow(rs, rowNum) : null)
+            .build();
+
+    @Override
+    public boolean tryLockRelay() {
+        try {
+            return Boolean.TRUE.equals(queryMetrics.execute("TRY_LOCK_RELAY",
+                    () -> jdbcTemplate.queryForObject(TRY_LOCK_RELAY, Map.of(), Boolean.class)));
+        } catch (DataAccessException e) {
+            throw new RuntimeException("Error while locking book change relay", e);
+        }
+    }
+
+    @Override
+    public int relay(int limit) {
+        try {
+            return queryMetrics.update("RELAY", () -> jdbcTemplate.update(RELAY, Map.of("limit", limit)));
+        } catch (DataAccessException e) {
+            throw new RuntimeException("Error while relaying book changes", e);
+        }
+    }
+
+    @Override
+    public List<BookChangeEntity> findAfter(long offset, int limit) {
+        try {
+            return queryMetrics.query("FIND_AFTER_SELECT", () -> jdbcTemplate.query(FIND_AFTER_SELECT,
+                    Map.of("offset", offset, "limit", limit), changeRowMapper));
+        } catch (DataAccessException e) {
+            throw new RuntimeException("Error while fetching book changes", e);
+        }
+    }
+
+    @Override
+    public long findLatestOffset() {
+        try {
+            Long offset = queryMetrics.execute("LATEST_OFFSET_SELECT",
+                    () -> jdbcTemplate.queryForObject(LATEST_OFFSET_SELECT, Map.of(), Long.class));
+            return offset != null ? offset : 0;
+        } catch (DataAccessException e) {
+            throw new RuntimeException("Error while fetching latest book change offset", e);
+        }
+    }
+
+    @Override
+    public int deleteExpired(LocalDateTime publishedBefore) {
+        try {
+            return queryMetrics.update("DELETE_EXPIRED", () -> jdbcTemplate.update(DELETE_EXPIRED,
+                    Map.of("publishedBefore", Timestamp.valueOf(publishedBefore))));
+        } catch (DataAccessException e) {
+            throw new RuntimeException("Error while deleting expired book changes", e);
+        }
+    }
+}
@@ -0,0 +1,130 @@
+package com.saida.bookstore.repository.impl;
+
+import com.saida.bookstore.dto.BookImportResult;
+import com.saida.bookstore.entity.BookEntity;
+import com.saida.bookstore.repository.BookImportRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.postgresql.PGConnection;
+import org.postgresql.copy.PGCopyOutputStream;
+import org.springframework.context.annotation.Profile;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.stream.Stream;
+
+@Slf4j
+@Repository
+@Profile("!reactive")
+@RequiredArgsConstructor
+public class BookImportRepositoryImpl implements BookImportRepository {
+
+    private static final String CREATE_STAGING_TABLE = """
+            CREATE TEMPORARY TABLE book_import_staging (
+                title            TEXT,
+                author           TEXT,
+                isbn             TEXT,
+                price            NUMERIC(10, 2),
+                publication_year INTEGER
+            ) ON COMMIT DROP
+            """;
+
+    private static final String COPY_TO_STAGING = """
+            COPY book_import_staging (title, author, isbn, price, publication_year) FROM STDIN
+            """;
+
+    private static final String MERGE_STAGING = """
+            INSERT INTO book (public_id, title, author, isbn, price, publication_year, created_at, updated_at)
+            SELECT DISTINCT ON (isbn)
+                   gen_random_uuid(), title, author, isbn, price, publication_year, LOCALTIMESTAMP, LOCALTIMESTAMP
+            FROM book_import_staging
+            ORDER BY isbn
+            ON CONFLICT (isbn) DO NOTHING
+            """;
+
+    private static final int COPY_BUFFER_SIZE = 64 * 1024;
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+    private final QueryMetrics queryMetrics;
+
+    @Override
+    public BookImportResult copyBooks(Stream<BookEntity> books) {
+        try {
+            return jdbcTemplate.getJdbcOperations().execute((ConnectionCallback<BookImportResult>) connection -> {
+                try (Statement statement = connection.createStatement()) {
+                    statement.execute(CREATE_STAGING_TABLE);
+                }
+                // Время COPY включает чтение и разбор входного потока: строки передаются в базу по мере разбора
+                long staged = queryMetrics.execute("COPY_TO_STAGING", () -> copyToStaging(connection, books));
+                queryMetrics.recordRows("COPY_TO_STAGING", staged);
+                try (Statement statement = connection.createStatement()) {
+                    long inserted = queryMetrics.execute("MERGE_STAGING",
+                            () -> statement.executeLargeUpdate(MERGE_STAGING));
+                    queryMetrics.recordRows("MERGE_STAGING", inserted);
+                    log.debug("Merged {} of {} staged books", inserted, staged);
+                    return new BookImportResult(staged, inserted);
+                }
+            });
+        } catch (DataAccessException e) {
+            throw new RuntimeException("Failed to import books", e);
+        }
+    }
+
+    private long copyToStaging(Connection connection, Stream<BookEntity> books) throws SQLException {
+        PGConnection pgConnection = connection.unwrap(PGConnection.class);
+        PGCopyOutputStream copyStream = new PGCopyOutputStream(pgConnection, COPY_TO_STAGING, COPY_BUFFER_SIZE);
+        try {
+            Writer writer = new BufferedWriter(new OutputStreamWriter(copyStream, StandardCharsets.UTF_8));
+            StringBuilder row = new StringBuilder(256);
+            books.forEach(book -> {
+                row.setLength(0);
+                appendText(row, book.getTitle()).append('\t');
+                appendText(row, book.getAuthor()).append('\t');
+                appendText(row, book.getIsbn()).append('\t');
+                row.append(book.getPrice().toPlainString()).append('\t');
+                row.append(book.getPublicationYear()).append('\n');
+                try {
+                    writer.append(row);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+            writer.flush();
+            return copyStream.endCopy();
+        } catch (IOException | UncheckedIOException e) {
+            throw new SQLException("Failed to copy books to staging table", e);
+        } finally {
+            if (copyStream.isActive()) {
+                copyStream.cancelCopy();
+            }
+        }
+    }
+
+    /**
+     * Добавляет значение в текстовом формате COPY, экранируя спецсимволы.
+     */
+    private static StringBuilder appendText(StringBuilder row, String value) {
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '\\' -> row.append("\\\\");
+                case '\t' -> row.append("\\t");
+                case '\n' -> row.append("\\n");
+                case '\r' -> row.append("\\r");
+                default -> row.append(c);
+            }
+        }
+        return row;
+    }
+}
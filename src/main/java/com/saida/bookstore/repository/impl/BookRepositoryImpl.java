@@ -1,52 +1,184 @@
 package com.saida.bookstore.repository.impl;
 
+import com.saida.bookstore.dto.BookCursor;
+import com.saida.bookstore.dto.BookPageVersion;
+import com.saida.bookstore.dto.BookSearchCriteria;
+import com.saida.bookstore.dto.BookSearchCursor;
+import com.saida.bookstore.dto.BookSearchHit;
+import com.saida.bookstore.dto.BookStatsDimension;
+import com.saida.bookstore.dto.BookStatsGroup;
 import com.saida.bookstore.entity.BookEntity;
 import com.saida.bookstore.repository.BookRepository;
+import com.saida.bookstore.repository.BookRowWriter;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.annotation.Profile;
 import org.springframework.dao.DataAccessException;
-import org.springframework.dao.EmptyResultDataAccessException;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.PreparedStatementCreator;
+import org.springframework.jdbc.core.RowCallbackHandler;
 import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
 import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
 import org.springframework.stereotype.Repository;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
 import java.sql.Timestamp;
+import java.sql.Types;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 
 @Slf4j
 @Repository
+@Profile("!reactive")
 @RequiredArgsConstructor
 public class BookRepositoryImpl implements BookRepository {
 
-    private static final String FIND_BY_PUBLIC_ID_SELECT = """
-            SELECT id, public_id, title, author, isbn, price, publication_year, created_at 
+    // Запросы без модификатора private используются и в R2dbcBookRepository, чтобы оба стека работали одинаково
+
+    static final String FIND_BY_PUBLIC_ID_SELECT = """
+            SELECT id, public_id, title, author, isbn, price, publication_year, created_at, updated_at, version
             FROM book WHERE public_id = :publicId
             """;
 
-    private static final String FIND_ALL_SELECT = """
-            SELECT id, public_id, title, author, isbn, price, publication_year, created_at 
-            FROM book ORDER BY created_at DESC
+    // Оба условия обслуживаются уникальными индексами по public_id и isbn
+    private static final String FIND_ALL_BY_KEYS_SELECT = """
+            SELECT id, public_id, title, author, isbn, price, publication_year, created_at, updated_at, version
+            FROM book
+            WHERE public_id = ANY(CAST(:publicIds AS uuid[])) OR isbn = ANY(CAST(:isbns AS text[]))
+            """;
+
+    static final String FIND_FIRST_PAGE_SELECT = """
+            SELECT id, public_id, title, author, isbn, price, publication_year, created_at, updated_at, version
+            FROM book
+            ORDER BY created_at DESC, id DESC
+            LIMIT :limit
+            """;
+
+    // Первое условие - диапазон по idx_book_created_at, второе отсекает уже отданные строки с той же датой
+    static final String FIND_PAGE_AFTER_SELECT = """
+            SELECT id, public_id, title, author, isbn, price, publication_year, created_at, updated_at, version
+            FROM book
+            WHERE created_at <= :createdAt
+              AND (created_at < :createdAt OR id < :id)
+            ORDER BY created_at DESC, id DESC
+            LIMIT :limit
+            """;
+
+    // Агрегат по тому же диапазону, что и страница: в приложение передаётся одна строка вместо всей страницы
+    static final String PAGE_VERSION_SELECT = """
+            SELECT count(*) AS count, coalesce(sum(id), 0) AS id_sum, max(updated_at) AS last_updated_at
+            FROM (SELECT id, updated_at
+                  FROM book
+                  %s
+                  ORDER BY created_at DESC, id DESC
+                  LIMIT :limit) page
+            """;
+
+    static final String PAGE_AFTER_FILTER = """
+            WHERE created_at <= :createdAt
+              AND (created_at < :createdAt OR id < :id)""";
+
+    // Во фрагменты подставляются только константы ниже, значения фильтров передаются параметрами
+    private static final String SEARCH_SELECT = """
+            SELECT id, public_id, title, author, isbn, price, publication_year, created_at, updated_at, version, rank
+            FROM (SELECT id, public_id, title, author, isbn, price, publication_year, created_at, updated_at, version,
+                         %s AS rank
+                  FROM book
+                  WHERE %s) ranked
+            %s
+            ORDER BY rank DESC, id DESC
+            LIMIT :limit
+            """;
+
+    // Вес названия и автора задан в search_vector, word_similarity поднимает совпадения с опечатками
+    private static final String SEARCH_RANK =
+            "ts_rank(search_vector, websearch_to_tsquery('simple', :query)) + word_similarity(:query, title)";
+
+    private static final String SEARCH_NO_RANK = "CAST(0 AS real)";
+
+    // idx_book_search_vector и триграммные индексы по title/author
+    private static final String SEARCH_QUERY_FILTER =
+            "(search_vector @@ websearch_to_tsquery('simple', :query) OR :query <% title OR :query <% author)";
+
+    // Точное совпадение идёт по idx_book_author, похожее написание - по idx_book_author_trgm
+    private static final String SEARCH_AUTHOR_FILTER = "(author = :author OR author % :author)";
+
+    private static final String SEARCH_AFTER_FILTER = "WHERE rank < :rank OR (rank = :rank AND id < :id)";
+
+    // Во фрагменты подставляются только выражения измерений ниже, ширина интервала цены передаётся параметром
+    private static final String STATS_SELECT = """
+            SELECT %s count(*) AS book_count, min(price) AS min_price, max(price) AS max_price,
+                   round(avg(price), 2) AS avg_price
+            FROM book
+            %s
+            """;
+
+    private static final String STATS_PRICE_FROM = "floor(price / :priceBucket) * :priceBucket";
+
+    static final String EXPORT_SELECT = """
+            SELECT id, public_id, title, author, isbn, price, publication_year, created_at, updated_at, version
+            FROM book
+            """;
+
+    static final int EXPORT_FETCH_SIZE = 500;
+
+    static final String INSERT_BOOK = """
+            INSERT INTO book (public_id, title, author, isbn, price, publication_year, created_at, updated_at)
+            VALUES (:publicId, :title, :author, :isbn, :price, :publicationYear, :createdAt, :createdAt)
+            ON CONFLICT (isbn) DO NOTHING
+            RETURNING id, public_id, title, author, isbn, price, publication_year, created_at, updated_at, version
             """;
 
-    private static final String INSERT_BOOK = """
-            INSERT INTO book (public_id, title, author, isbn, price, publication_year, created_at)
-            VALUES (:publicId, :title, :author, :isbn, :price, :publicationYear, :createdAt)
-            RETURNING id, public_id, title, author, isbn, price, publication_year, created_at
+    private static final String INSERT_BOOKS = """
+            INSERT INTO book (public_id, title, author, isbn, price, publication_year, created_at, updated_at)
+            SELECT gen_random_uuid(), t.title, t.author, t.isbn, t.price, t.publication_year, :createdAt, :createdAt
+            FROM unnest(CAST(:titles AS text[]), CAST(:authors AS text[]), CAST(:isbns AS text[]),
+                        CAST(:prices AS numeric[]), CAST(:publicationYears AS integer[]))
+                     AS t(title, author, isbn, price, publication_year)
+            ON CONFLICT (isbn) DO NOTHING
+            RETURNING id, public_id, title, author, isbn, price, publication_year, created_at, updated_at, version
             """;
 
-    private static final String UPDATE_BOOK = """
+    private static final int INSERT_CHUNK_SIZE = 1000;
+
+    // GREATEST гарантирует рост updated_at даже при двух обновлениях в одну микросекунду, иначе Last-Modified и ETag страницы не сменятся
+    static final String UPDATE_BOOK = """
             UPDATE book 
             SET title = :title, author = :author, isbn = :isbn, 
-                price = :price, publication_year = :publicationYear
+                price = :price, publication_year = :publicationYear,
+                updated_at = GREATEST(:updatedAt, updated_at + INTERVAL '1 microsecond'),
+                version = version + 1
             WHERE public_id = :publicId
-            RETURNING id, public_id, title, author, isbn, price, publication_year, created_at
+            RETURNING id, public_id, title, author, isbn, price, publication_year, created_at, updated_at, version
+            """;
+
+    // Оптимистичная блокировка: строка обновляется, только если её версия не изменилась с чтения клиентом.
+    // Проверка и запись выполняются одним оператором, без SELECT ... FOR UPDATE
+    private static final String UPDATE_BOOK_IF_VERSION = """
+            UPDATE book 
+            SET title = :title, author = :author, isbn = :isbn, 
+                price = :price, publication_year = :publicationYear,
+                updated_at = GREATEST(:updatedAt, updated_at + INTERVAL '1 microsecond'),
+                version = version + 1
+            WHERE public_id = :publicId AND version = ANY(CAST(:versions AS bigint[]))
+            RETURNING id, public_id, title, author, isbn, price, publication_year, created_at, updated_at, version
             """;
 
-    private static final String DELETE_BOOK = """
+    static final String DELETE_BOOK = """
             DELETE FROM book WHERE public_id = :publicId
             """;
 
@@ -55,60 +187,301 @@ public class BookRepositoryImpl implements BookRepository {
             """;
 
     private final NamedParameterJdbcTemplate jdbcTemplate;
+    private final QueryMetrics queryMetrics;
+    private final RowMapper<BookEntity> bookRowMapper = BookRowMapper.INSTANCE;
 
     @Override
     public Optional<BookEntity> findById(UUID publicId) {
+        List<BookEntity> books;
         try {
-            BookEntity book = jdbcTemplate.queryForObject(
+            books = queryMetrics.query("FIND_BY_PUBLIC_ID_SELECT", () -> jdbcTemplate.query(
                     FIND_BY_PUBLIC_ID_SELECT,
-                    Map.of("publicId", publicId.toString()),
+                    Map.of("publicId", publicId),
                     bookRowMapper
-            );
-            return Optional.of(book);
-        } catch (EmptyResultDataAccessException e) {
+            ));
+        } catch (DataAccessException e) {
+            throw new RuntimeException("Error while finding book with public id: " + publicId, e);
+        }
+        if (books.isEmpty()) {
             log.debug("Book not found with public id: {}", publicId);
             return Optional.empty();
         }
+        return Optional.of(books.get(0));
     }
 
     @Override
-    public List<BookEntity> findAll() {
+    public List<BookEntity> findAllByKeys(Collection<UUID> publicIds, Collection<String> isbns) {
+        Map<String, Object> params = Map.of(
+                "publicIds", publicIds.toArray(UUID[]::new),
+                "isbns", isbns.toArray(String[]::new)
+        );
         try {
-            return jdbcTemplate.query(FIND_ALL_SELECT, bookRowMapper);
+            return queryMetrics.query("FIND_ALL_BY_KEYS_SELECT",
+                    () -> jdbcTemplate.query(FIND_ALL_BY_KEYS_SELECT, params, bookRowMapper));
         } catch (DataAccessException e) {
-            throw new RuntimeException("Error while fetching all books", e);
+            throw new RuntimeException("Error while looking up books", e);
         }
     }
 
     @Override
-    public BookEntity save(BookEntity book) {
-        if (book.getId() == null) {
-            return insert(book);
-        } else {
-            return update(book);
+    public BookCursor writePage(BookCursor after, int limit, BookRowWriter writer) {
+        // Запрашиваем на одну строку больше, чтобы понять, есть ли следующая страница
+        MapSqlParameterSource params = new MapSqlParameterSource("limit", limit + 1);
+        if (after != null) {
+            params.addValue("createdAt", Timestamp.valueOf(after.createdAt()));
+            params.addValue("id", after.id());
+        }
+        String query = after == null ? "FIND_FIRST_PAGE_SELECT" : "FIND_PAGE_AFTER_SELECT";
+        String sql = after == null ? FIND_FIRST_PAGE_SELECT : FIND_PAGE_AFTER_SELECT;
+        PageWriter pageWriter = new PageWriter(limit, writer);
+        try {
+            queryMetrics.execute(query, () -> {
+                jdbcTemplate.query(sql, params, pageWriter);
+                return null;
+            });
+            queryMetrics.recordRows(query, pageWriter.rows);
+        } catch (DataAccessException e) {
+            throw new RuntimeException("Error while fetching books page", e);
+        }
+        return pageWriter.hasMore ? pageWriter.last : null;
+    }
+
+    @Override
+    public BookPageVersion findPageVersion(BookCursor after, int limit) {
+        MapSqlParameterSource params = new MapSqlParameterSource("limit", limit);
+        if (after != null) {
+            params.addValue("createdAt", Timestamp.valueOf(after.createdAt()));
+            params.addValue("id", after.id());
+        }
+        String sql = PAGE_VERSION_SELECT.formatted(after != null ? PAGE_AFTER_FILTER : "");
+        try {
+            return queryMetrics.execute("PAGE_VERSION_SELECT", () -> jdbcTemplate.queryForObject(sql, params,
+                    (rs, rowNum) -> {
+                        Timestamp lastUpdatedAt = rs.getTimestamp("last_updated_at");
+                        return new BookPageVersion(rs.getLong("count"), rs.getLong("id_sum"),
+                                lastUpdatedAt != null ? lastUpdatedAt.toLocalDateTime() : null);
+                    }));
+        } catch (DataAccessException e) {
+            throw new RuntimeException("Error while fetching books page version", e);
         }
     }
 
+    @Override
+    public List<BookSearchHit> search(BookSearchCriteria criteria, BookSearchCursor after, int limit) {
+        MapSqlParameterSource params = new MapSqlParameterSource("limit", limit);
+        List<String> filters = new ArrayList<>();
+
+        boolean hasQuery = criteria.query() != null;
+        if (hasQuery) {
+            filters.add(SEARCH_QUERY_FILTER);
+            params.addValue("query", criteria.query());
+        }
+        if (criteria.author() != null) {
+            filters.add(SEARCH_AUTHOR_FILTER);
+            params.addValue("author", criteria.author());
+        }
+        if (criteria.yearFrom() != null) {
+            filters.add("publication_year >= :yearFrom");
+            params.addValue("yearFrom", criteria.yearFrom());
+        }
+        if (criteria.yearTo() != null) {
+            filters.add("publication_year <= :yearTo");
+            params.addValue("yearTo", criteria.yearTo());
+        }
+        if (criteria.priceMin() != null) {
+            filters.add("price >= :priceMin");
+            params.addValue("priceMin", criteria.priceMin());
+        }
+        if (criteria.priceMax() != null) {
+            filters.add("price <= :priceMax");
+            params.addValue("priceMax", criteria.priceMax());
+        }
+        if (after != null) {
+            params.addValue("rank", after.rank(), Types.REAL);
+            params.addValue("id", after.id());
+        }
+
+        String sql = SEARCH_SELECT.formatted(
+                hasQuery ? SEARCH_RANK : SEARCH_NO_RANK,
+                filters.isEmpty() ? "TRUE" : String.join(" AND ", filters),
+                after != null ? SEARCH_AFTER_FILTER : ""
+        );
+        try {
+            return queryMetrics.query("SEARCH_SELECT", () -> jdbcTemplate.query(sql, params,
+                    (rs, rowNum) -> new BookSearchHit(bookRowMapper.mapRow(rs, rowNum), rs.getFloat("rank"))));
+        } catch (DataAccessException e) {
+            throw new RuntimeException("Error while searching books", e);
+        }
+    }
+
+    @Override
+    public List<BookStatsGroup> aggregate(List<BookStatsDimension> groupBy, BigDecimal priceBucket) {
+        MapSqlParameterSource params = new MapSqlParameterSource();
+        StringBuilder columns = new StringBuilder();
+        for (BookStatsDimension dimension : groupBy) {
+            columns.append(switch (dimension) {
+                case AUTHOR -> "author";
+                case PUBLICATION_YEAR -> "publication_year";
+                case PRICE -> STATS_PRICE_FROM + " AS price_from";
+            }).append(", ");
+        }
+        boolean byAuthor = groupBy.contains(BookStatsDimension.AUTHOR);
+        boolean byYear = groupBy.contains(BookStatsDimension.PUBLICATION_YEAR);
+        boolean byPrice = groupBy.contains(BookStatsDimension.PRICE);
+        if (byPrice) {
+            params.addValue("priceBucket", priceBucket);
+        }
+        // Группировка и сортировка по номерам колонок: выражение интервала цены не повторяется
+        String positions = IntStream.rangeClosed(1, groupBy.size())
+                .mapToObj(String::valueOf)
+                .collect(Collectors.joining(", "));
+        String sql = STATS_SELECT.formatted(columns,
+                groupBy.isEmpty() ? "" : "GROUP BY " + positions + " ORDER BY " + positions);
+
+        try {
+            return queryMetrics.query("STATS_SELECT", () -> jdbcTemplate.query(sql, params, (rs, rowNum) -> {
+                BigDecimal priceFrom = byPrice ? rs.getBigDecimal("price_from") : null;
+                return new BookStatsGroup(
+                        byAuthor ? rs.getString("author") : null,
+                        byYear ? rs.getObject("publication_year", Integer.class) : null,
+                        priceFrom,
+                        priceFrom != null ? priceFrom.add(priceBucket) : null,
+                        rs.getLong("book_count"),
+                        rs.getBigDecimal("min_price"),
+                        rs.getBigDecimal("max_price"),
+                        rs.getBigDecimal("avg_price"));
+            }));
+        } catch (DataAccessException e) {
+            throw new RuntimeException("Error while aggregating book stats", e);
+        }
+    }
+
+    @Override
+    public void writeAll(BookRowWriter writer) {
+        PreparedStatementCreator statementCreator = connection -> {
+            PreparedStatement statement = connection.prepareStatement(
+                    EXPORT_SELECT, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+            statement.setFetchSize(EXPORT_FETCH_SIZE);
+            return statement;
+        };
+        // Время выгрузки включает запись в ответ: строки отдаются клиенту по мере чтения
+        long[] rows = new long[1];
+        try {
+            queryMetrics.execute("EXPORT_SELECT", () -> {
+                jdbcTemplate.getJdbcOperations().query(statementCreator, (RowCallbackHandler) rs -> {
+                    writeBook(rs, writer);
+                    rows[0]++;
+                });
+                return null;
+            });
+            queryMetrics.recordRows("EXPORT_SELECT", rows[0]);
+        } catch (DataAccessException e) {
+            throw new RuntimeException("Error while streaming books", e);
+        }
+    }
+
+    private static void writeBook(ResultSet rs, BookRowWriter writer) throws SQLException {
+        try {
+            writer.write(rs);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Пишет не более limit строк страницы и запоминает позицию последней из них.
+     * Позиция читается только у строки с номером limit: лишь она может оказаться последней
+     * перед следующей страницей.
+     */
+    private static final class PageWriter implements RowCallbackHandler {
+
+        private final int limit;
+        private final BookRowWriter writer;
+        private int rows;
+        private BookCursor last;
+        private boolean hasMore;
+
+        private PageWriter(int limit, BookRowWriter writer) {
+            this.limit = limit;
+            this.writer = writer;
+        }
+
+        @Override
+        public void processRow(ResultSet rs) throws SQLException {
+            rows++;
+            if (rows > limit) {
+                hasMore = true;
+                return;
+            }
+            writeBook(rs, writer);
+            if (rows == limit) {
+                last = new BookCursor(rs.getObject("created_at", LocalDateTime.class), rs.getLong("id"));
+            }
+        }
+    }
+
+    @Override
+    public List<BookEntity> saveAll(List<BookEntity> books) {
+        List<BookEntity> inserted = new ArrayList<>(books.size());
+        Timestamp createdAt = Timestamp.valueOf(LocalDateTime.now());
+
+        for (int from = 0; from < books.size(); from += INSERT_CHUNK_SIZE) {
+            List<BookEntity> chunk = books.subList(from, Math.min(from + INSERT_CHUNK_SIZE, books.size()));
+            int size = chunk.size();
+            String[] titles = new String[size];
+            String[] authors = new String[size];
+            String[] isbns = new String[size];
+            String[] prices = new String[size];
+            Integer[] publicationYears = new Integer[size];
+            for (int i = 0; i < size; i++) {
+                BookEntity book = chunk.get(i);
+                titles[i] = book.getTitle();
+                authors[i] = book.getAuthor();
+                isbns[i] = book.getIsbn();
+                prices[i] = book.getPrice().toPlainString();
+                publicationYears[i] = book.getPublicationYear();
+            }
+
+            Map<String, Object> params = Map.of(
+                    "titles", titles,
+                    "authors", authors,
+                    "isbns", isbns,
+                    "prices", prices,
+                    "publicationYears", publicationYears,
+                    "createdAt", createdAt
+            );
+
+            try {
+                inserted.addAll(queryMetrics.query("INSERT_BOOKS",
+                        () -> jdbcTemplate.query(INSERT_BOOKS, params, bookRowMapper)));
+            } catch (DataAccessException e) {
+                throw new RuntimeException("Failed to save batch of " + size + " books", e);
+            }
+        }
+        return inserted;
+    }
+
     @Override
     public boolean existsByIsbn(String isbn) {
         try {
-            Integer count = jdbcTemplate.queryForObject(
+            Integer count = queryMetrics.execute("EXISTS_BY_ISBN", () -> jdbcTemplate.queryForObject(
                     EXISTS_BY_ISBN,
                     Map.of("isbn", isbn),
                     Integer.class
-            );
+            ));
             return count != null && count > 0;
         } catch (DataAccessException e) {
             throw new RuntimeException("Error checking ISBN existence", e);
         }
     }
 
-    private BookEntity insert(BookEntity book) {
+    @Override
+    public BookEntity save(BookEntity book) {
         UUID publicId = UUID.randomUUID();
         LocalDateTime createdAt = LocalDateTime.now();
 
         Map<String, Object> params = Map.of(
-                "publicId", publicId.toString(),
+                "publicId", publicId,
                 "title", book.getTitle(),
                 "author", book.getAuthor(),
                 "isbn", book.getIsbn(),
@@ -117,53 +490,62 @@ public class BookRepositoryImpl implements BookRepository {
                 "createdAt", Timestamp.valueOf(createdAt)
         );
 
+        List<BookEntity> inserted;
         try {
-            return jdbcTemplate.queryForObject(INSERT_BOOK, params, bookRowMapper);
+            inserted = queryMetrics.query("INSERT_BOOK",
+                    () -> jdbcTemplate.query(INSERT_BOOK, params, bookRowMapper));
         } catch (DataAccessException e) {
             throw new RuntimeException("Failed to save book with title: " + book.getTitle(), e);
         }
+        if (inserted.isEmpty()) {
+            throw new DuplicateKeyException("Book with ISBN '" + book.getIsbn() + "' already exists");
+        }
+        return inserted.get(0);
     }
 
-    private BookEntity update(BookEntity book) {
-        Map<String, Object> params = Map.of(
-                "publicId", book.getPublicId().toString(),
-                "title", book.getTitle(),
-                "author", book.getAuthor(),
-                "isbn", book.getIsbn(),
-                "price", book.getPrice(),
-                "publicationYear", book.getPublicationYear()
-        );
+    @Override
+    public Optional<BookEntity> update(BookEntity book, Collection<Long> expectedVersions) {
+        Map<String, Object> params = new HashMap<>();
+        params.put("publicId", book.getPublicId());
+        params.put("title", book.getTitle());
+        params.put("author", book.getAuthor());
+        params.put("isbn", book.getIsbn());
+        params.put("price", book.getPrice());
+        params.put("publicationYear", book.getPublicationYear());
+        params.put("updatedAt", Timestamp.valueOf(LocalDateTime.now()));
+
+        String queryName = "UPDATE_BOOK";
+        String sql = UPDATE_BOOK;
+        if (expectedVersions != null) {
+            params.put("versions", expectedVersions.toArray(Long[]::new));
+            queryName = "UPDATE_BOOK_IF_VERSION";
+            sql = UPDATE_BOOK_IF_VERSION;
+        }
 
         try {
-            return jdbcTemplate.queryForObject(UPDATE_BOOK, params, bookRowMapper);
+            String updateSql = sql;
+            return queryMetrics.query(queryName, () -> jdbcTemplate.query(updateSql, params, bookRowMapper))
+                    .stream()
+                    .findFirst();
+        } catch (DuplicateKeyException e) {
+            throw e;
         } catch (DataAccessException e) {
             throw new RuntimeException("Failed to update book with public id: " + book.getPublicId(), e);
         }
     }
 
     @Override
-    public void deleteById(UUID publicId) {
+    public boolean deleteById(UUID publicId) {
         try {
-            int affectedRows = jdbcTemplate.update(DELETE_BOOK, Map.of("publicId", publicId.toString()));
+            int affectedRows = queryMetrics.update("DELETE_BOOK",
+                    () -> jdbcTemplate.update(DELETE_BOOK, Map.of("publicId", publicId)));
             if (affectedRows == 0) {
-                log.warn("No book found with public id: {} for deletion", publicId);
+                log.debug("No book found with public id: {} for deletion", publicId);
             }
+            return affectedRows > 0;
         } catch (DataAccessException e) {
             throw new RuntimeException("Failed to delete book with public id: " + publicId, e);
         }
     }
 
-    private final RowMapper<BookEntity> bookRowMapper = (rs, rowNum) ->
-            BookEntity.builder()
-                    .id(rs.getLong("id"))
-                    .publicId(UUID.fromString(rs.getString("public_id")))
-                    .title(rs.getString("title"))
-                    .author(rs.getString("author"))
-                    .isbn(rs.getString("isbn"))
-                    .price(rs.getBigDecimal("price"))
-                    .publicationYear(rs.getInt("publication_year"))
-                    .createdAt(rs.getTimestamp("created_at") != null ?
-                            rs.getTimestamp("created_at").toLocalDateTime() : null)
-                    .build();
-
-}
\ No newline at end of file
+}
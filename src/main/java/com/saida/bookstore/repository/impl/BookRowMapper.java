@@ -0,0 +1,40 @@
+package com.saida.bookstore.repository.impl;
+
+import com.saida.bookstore.entity.BookEntity;
+import org.springframework.jdbc.core.RowMapper;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.util.UUID;
+
+/**
+ * Преобразует строку таблицы book в {@link BookEntity}.
+ * <p>
+ * Не хранит состояния, поэтому используется как единственный экземпляр {@link #INSTANCE}.
+ */
+public final class BookRowMapper implements RowMapper<BookEntity> {
+
+    public static final BookRowMapper INSTANCE = new BookRowMapper();
+
+    private BookRowMapper() {
+    }
+
+    @Override
+    public BookEntity mapRow(ResultSet rs, int rowNum) throws SQLException {
+        Timestamp createdAt = rs.getTimestamp("created_at");
+        Timestamp updatedAt = rs.getTimestamp("updated_at");
+        return BookEntity.builder()
+                .id(rs.getLong("id"))
+                .publicId(rs.getObject("public_id", UUID.class))
+                .title(rs.getString("title"))
+                .author(rs.getString("author"))
+                .isbn(rs.getString("isbn"))
+                .price(rs.getBigDecimal("price"))
+                .publicationYear(rs.getInt("publication_year"))
+                .createdAt(createdAt != null ? createdAt.toLocalDateTime() : null)
+                .updatedAt(updatedAt != null ? updatedAt.toLocalDateTime() : null)
+                .version(rs.getLong("version"))
+                .build();
+    }
+}
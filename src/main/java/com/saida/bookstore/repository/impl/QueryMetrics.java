@@ -0,0 +1,102 @@
+package com.saida.bookstore.repository.impl;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Метрики SQL-запросов репозиториев по имени запроса — имени константы с SQL
+ * (FIND_BY_PUBLIC_ID_SELECT, INSERT_BOOK и т. д.).
+ * <p>
+ * bookstore.db.query — время выполнения с гистограммой для перцентилей и исходом success/error,
+ * bookstore.db.query.rows — число прочитанных или изменённых строк. Время ожидания соединения
+ * в пуле сюда не входит: его показывает hikaricp.connections.acquire.
+ */
+@Component
+public class QueryMetrics {
+
+    private final MeterRegistry meterRegistry;
+    private final ConcurrentMap<String, Meters> meters = new ConcurrentHashMap<>();
+
+    public QueryMetrics(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    /**
+     * Вызов, выполняющий SQL-запрос.
+     */
+    @FunctionalInterface
+    public interface Call<T, E extends Exception> {
+        T call() throws E;
+    }
+
+    /**
+     * Выполняет выборку и записывает время и количество возвращённых строк.
+     */
+    public <T, E extends Exception> List<T> query(String query, Call<List<T>, E> call) throws E {
+        List<T> rows = execute(query, call);
+        meters(query).rows().record(rows.size());
+        return rows;
+    }
+
+    /**
+     * Выполняет изменяющий запрос и записывает время и количество изменённых строк.
+     */
+    public <E extends Exception> int update(String query, Call<Integer, E> call) throws E {
+        int rows = execute(query, call);
+        meters(query).rows().record(rows);
+        return rows;
+    }
+
+    /**
+     * Выполняет запрос и записывает только время.
+     */
+    public <T, E extends Exception> T execute(String query, Call<T, E> call) throws E {
+        Meters queryMeters = meters(query);
+        long start = System.nanoTime();
+        boolean success = false;
+        try {
+            T result = call.call();
+            success = true;
+            return result;
+        } finally {
+            Timer timer = success ? queryMeters.success() : queryMeters.error();
+            timer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    /**
+     * Записывает количество строк, обработанных запросом построчно (потоковые выборки, COPY).
+     */
+    public void recordRows(String query, long rows) {
+        meters(query).rows().record(rows);
+    }
+
+    private Meters meters(String query) {
+        return meters.computeIfAbsent(query, name -> new Meters(
+                timer(name, "success"),
+                timer(name, "error"),
+                DistributionSummary.builder("bookstore.db.query.rows")
+                        .description("Rows returned or affected by a repository query")
+                        .tag("query", name)
+                        .register(meterRegistry)));
+    }
+
+    private Timer timer(String query, String outcome) {
+        return Timer.builder("bookstore.db.query")
+                .description("Repository query execution time")
+                .tag("query", query)
+                .tag("outcome", outcome)
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+    }
+
+    private record Meters(Timer success, Timer error, DistributionSummary rows) {
+    }
+}
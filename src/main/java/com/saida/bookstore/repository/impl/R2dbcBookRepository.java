@@ -0,0 +1,143 @@
+package com.saida.bookstore.repository.impl;
+
+import com.saida.bookstore.dto.BookCursor;
+import com.saida.bookstore.dto.BookPageVersion;
+import com.saida.bookstore.entity.BookEntity;
+import com.saida.bookstore.repository.ReactiveBookRepository;
+import io.r2dbc.spi.Readable;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Profile;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+import static com.saida.bookstore.repository.impl.BookRepositoryImpl.DELETE_BOOK;
+import static com.saida.bookstore.repository.impl.BookRepositoryImpl.EXPORT_FETCH_SIZE;
+import static com.saida.bookstore.repository.impl.BookRepositoryImpl.EXPORT_SELECT;
+import static com.saida.bookstore.repository.impl.BookRepositoryImpl.FIND_BY_PUBLIC_ID_SELECT;
+import static com.saida.bookstore.repository.impl.BookRepositoryImpl.FIND_FIRST_PAGE_SELECT;
+import static com.saida.bookstore.repository.impl.BookRepositoryImpl.FIND_PAGE_AFTER_SELECT;
+import static com.saida.bookstore.repository.impl.BookRepositoryImpl.INSERT_BOOK;
+import static com.saida.bookstore.repository.impl.BookRepositoryImpl.PAGE_AFTER_FILTER;
+import static com.saida.bookstore.repository.impl.BookRepositoryImpl.PAGE_VERSION_SELECT;
+import static com.saida.bookstore.repository.impl.BookRepositoryImpl.UPDATE_BOOK;
+
+/**
+ * Реализация {@link ReactiveBookRepository} на R2DBC с теми же запросами, что и {@link BookRepositoryImpl}.
+ * Ошибки драйвера переводятся DatabaseClient в исключения Spring, в том числе {@link DuplicateKeyException}.
+ */
+@Repository
+@Profile("reactive")
+@RequiredArgsConstructor
+public class R2dbcBookRepository implements ReactiveBookRepository {
+
+    private final DatabaseClient databaseClient;
+
+    @Override
+    public Mono<BookEntity> findById(UUID publicId) {
+        return databaseClient.sql(FIND_BY_PUBLIC_ID_SELECT)
+                .bind("publicId", publicId)
+                .map(R2dbcBookRepository::mapRow)
+                .one();
+    }
+
+    @Override
+    public Flux<BookEntity> findPage(BookCursor after, int limit) {
+        if (after == null) {
+            return databaseClient.sql(FIND_FIRST_PAGE_SELECT)
+                    .bind("limit", limit)
+                    .map(R2dbcBookRepository::mapRow)
+                    .all();
+        }
+        return databaseClient.sql(FIND_PAGE_AFTER_SELECT)
+                .bind("createdAt", after.createdAt())
+                .bind("id", after.id())
+                .bind("limit", limit)
+                .map(R2dbcBookRepository::mapRow)
+                .all();
+    }
+
+    @Override
+    public Mono<BookPageVersion> findPageVersion(BookCursor after, int limit) {
+        DatabaseClient.GenericExecuteSpec spec = databaseClient
+                .sql(PAGE_VERSION_SELECT.formatted(after != null ? PAGE_AFTER_FILTER : ""))
+                .bind("limit", limit);
+        if (after != null) {
+            spec = spec.bind("createdAt", after.createdAt()).bind("id", after.id());
+        }
+        return spec.map(row -> new BookPageVersion(
+                        row.get("count", Long.class),
+                        // sum(bigint) в PostgreSQL имеет тип numeric
+                        row.get("id_sum", BigDecimal.class).longValueExact(),
+                        row.get("last_updated_at", LocalDateTime.class)))
+                .one();
+    }
+
+    @Override
+    public Flux<BookEntity> findAll() {
+        return databaseClient.sql(EXPORT_SELECT)
+                .filter(statement -> statement.fetchSize(EXPORT_FETCH_SIZE))
+                .map(R2dbcBookRepository::mapRow)
+                .all();
+    }
+
+    @Override
+    public Mono<BookEntity> save(BookEntity book) {
+        return databaseClient.sql(INSERT_BOOK)
+                .bind("publicId", UUID.randomUUID())
+                .bind("title", book.getTitle())
+                .bind("author", book.getAuthor())
+                .bind("isbn", book.getIsbn())
+                .bind("price", book.getPrice())
+                .bind("publicationYear", book.getPublicationYear())
+                .bind("createdAt", LocalDateTime.now())
+                .map(R2dbcBookRepository::mapRow)
+                .one()
+                .switchIfEmpty(Mono.error(() ->
+                        new DuplicateKeyException("Book with ISBN '" + book.getIsbn() + "' already exists")));
+    }
+
+    @Override
+    public Mono<BookEntity> update(BookEntity book) {
+        return databaseClient.sql(UPDATE_BOOK)
+                .bind("publicId", book.getPublicId())
+                .bind("title", book.getTitle())
+                .bind("author", book.getAuthor())
+                .bind("isbn", book.getIsbn())
+                .bind("price", book.getPrice())
+                .bind("publicationYear", book.getPublicationYear())
+                .bind("updatedAt", LocalDateTime.now())
+                .map(R2dbcBookRepository::mapRow)
+                .one();
+    }
+
+    @Override
+    public Mono<Boolean> deleteById(UUID publicId) {
+        return databaseClient.sql(DELETE_BOOK)
+                .bind("publicId", publicId)
+                .fetch()
+                .rowsUpdated()
+                .map(affectedRows -> affectedRows > 0);
+    }
+
+    private static BookEntity mapRow(Readable row) {
+        return BookEntity.builder()
+                .id(row.get("id", Long.class))
+                .publicId(row.get("public_id", UUID.class))
+                .title(row.get("title", String.class))
+                .author(row.get("author", String.class))
+                .isbn(row.get("isbn", String.class))
+                .price(row.get("price", BigDecimal.class))
+                .publicationYear(row.get("publication_year", Integer.class))
+                .createdAt(row.get("created_at", LocalDateTime.class))
+                .updatedAt(row.get("updated_at", LocalDateTime.class))
+                .version(row.get("version", Long.class))
+                .build();
+    }
+}
@@ -0,0 +1,33 @@
+package com.saida.bookstore.service;
+
+import com.saida.bookstore.dto.BookChangePage;
+import com.saida.bookstore.exception.ChangeOffsetExpiredException;
+import com.saida.bookstore.exception.InvalidBookDataException;
+
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Лента изменений книг для потребителей, которые поддерживают собственную копию каталога
+ * (кэши, поисковый индекс) инкрементально вместо периодической полной перезагрузки.
+ * <p>
+ * Порядок работы потребителя: запросить текущее смещение без since, загрузить каталог целиком,
+ * затем запрашивать изменения после полученного смещения.
+ */
+public interface BookChangeService {
+
+    /**
+     * Возвращает изменения после смещения, а если их нет — ждёт новых не дольше таймаута long-poll.
+     *
+     * @param since смещение последнего полученного изменения; null — вернуть текущее смещение без изменений
+     * @param limit максимальное количество изменений, null для значения по умолчанию; ограничивается сверху
+     * @return порция изменений; пустая, если за время ожидания изменений не появилось
+     * @throws ChangeOffsetExpiredException если изменения после since уже удалены по сроку хранения
+     * @throws InvalidBookDataException     если смещение или размер порции невалидны
+     */
+    CompletableFuture<BookChangePage> awaitChanges(Long since, Integer limit);
+
+    /**
+     * Отдаёт новые изменения ожидающим запросам. Вызывается релеем после каждой публикации.
+     */
+    void notifyWaiters();
+}
@@ -0,0 +1,25 @@
+package com.saida.bookstore.service;
+
+import com.saida.bookstore.dto.BookImportFormat;
+import com.saida.bookstore.dto.BookImportReport;
+
+import java.io.InputStream;
+
+/**
+ * Сервис массовой загрузки книг из файлов поставщиков.
+ */
+public interface BookImportService {
+
+    /**
+     * Импортирует книги из потока.
+     * Строки разбираются, нормализуются и валидируются по одной и сразу передаются в базу,
+     * поэтому потребление памяти не зависит от размера входных данных.
+     * Невалидные строки не прерывают импорт и попадают в отчёт.
+     *
+     * @param input    входные данные в кодировке UTF-8
+     * @param format   формат входных данных
+     * @param failFast сообщать для строки только первую найденную ошибку валидации
+     * @return отчёт об импорте
+     */
+    BookImportReport importBooks(InputStream input, BookImportFormat format, boolean failFast);
+}
@@ -1,10 +1,21 @@
 package com.saida.bookstore.service;
 
+import com.saida.bookstore.dto.BookBatchResult;
 import com.saida.bookstore.dto.BookDto;
+import com.saida.bookstore.dto.BookLookupResult;
+import com.saida.bookstore.dto.BookPageDto;
+import com.saida.bookstore.dto.BookPageVersion;
+import com.saida.bookstore.dto.BookSearchCriteria;
+import com.saida.bookstore.dto.BookStats;
 import com.saida.bookstore.exception.BookAlreadyExistsException;
 import com.saida.bookstore.exception.BookNotFoundException;
+import com.saida.bookstore.exception.BookVersionMismatchException;
+import com.saida.bookstore.exception.InvalidBookDataException;
 import com.saida.bookstore.exception.ValidationException;
+import com.saida.bookstore.repository.BookRowWriter;
 
+import java.math.BigDecimal;
+import java.util.Collection;
 import java.util.List;
 import java.util.UUID;
 
@@ -24,11 +35,71 @@ public interface BookService {
     BookDto getBookById(UUID publicId);
 
     /**
-     * Возвращает все книги из системы.
+     * Находит книги по спискам publicId и ISBN за одно обращение к базе.
+     * Книги, уже лежащие в кэше, берутся из него; найденные в базе добавляются в кэш.
      *
-     * @return список всех DTO книг, пустой список если книги не найдены
+     * @param publicIds публичные идентификаторы, может быть null
+     * @param isbns     ISBN-10 или ISBN-13 в любом допустимом написании, может быть null
+     * @return результаты в порядке запроса, ненайденные ключи присутствуют без книги
+     * @throws InvalidBookDataException если ключей больше допустимого
      */
-    List<BookDto> getAllBooks();
+    BookLookupResult lookupBooks(List<UUID> publicIds, List<String> isbns);
+
+    /**
+     * Пишет книги страницы, начиная с самых новых, прямо из строк результата запроса, без сущностей и DTO.
+     * Курсор и размер страницы проверяются до первой записи.
+     *
+     * @param cursor непрозрачный курсор из предыдущей страницы, null для первой страницы
+     * @param limit  размер страницы, null для размера по умолчанию; ограничивается сверху
+     * @param writer запись строки книги в ответ
+     * @return курсор следующей страницы или null, если страница последняя
+     * @throws InvalidBookDataException если курсор или размер страницы невалидны
+     */
+    String writeAllBooks(String cursor, Integer limit, BookRowWriter writer);
+
+    /**
+     * Возвращает версию страницы, которую записал бы {@link #writeAllBooks(String, Integer, BookRowWriter)}
+     * с теми же параметрами.
+     * Используется для ETag: совпадение версий позволяет ответить 304 без чтения и сериализации страницы.
+     *
+     * @param cursor непрозрачный курсор из предыдущей страницы, null для первой страницы
+     * @param limit  размер страницы, null для размера по умолчанию; ограничивается сверху
+     * @return версия страницы
+     * @throws InvalidBookDataException если курсор или размер страницы невалидны
+     */
+    BookPageVersion getAllBooksVersion(String cursor, Integer limit);
+
+    /**
+     * Ищет книги по названию и автору с учётом опечаток и фильтрует по автору, году и цене.
+     * Результаты упорядочены по релевантности и отдаются постранично.
+     *
+     * @param criteria условия поиска; пустые строки считаются незаданными
+     * @param cursor   непрозрачный курсор из предыдущей страницы поиска, null для первой страницы
+     * @param limit    размер страницы, null для размера по умолчанию; ограничивается сверху
+     * @return страница найденных книг и курсор следующей страницы (null, если страница последняя)
+     * @throws InvalidBookDataException если курсор, размер страницы или диапазоны фильтров невалидны
+     */
+    BookPageDto searchBooks(BookSearchCriteria criteria, String cursor, Integer limit);
+
+    /**
+     * Возвращает количество книг и минимальную, максимальную и среднюю цену, сгруппированные по измерениям.
+     * Статистика считается в базе одним агрегирующим запросом и кэшируется на короткое время,
+     * поэтому изменения каталога отражаются в ней с задержкой до bookstore.stats.cache-ttl.
+     *
+     * @param groupBy     имена измерений: author, publicationYear, price; null или пустой — итог по каталогу
+     * @param priceBucket ширина интервала цены для измерения price, null для ширины по умолчанию
+     * @return статистика по группам
+     * @throws InvalidBookDataException если измерение неизвестно или повторяется, либо ширина интервала не положительна
+     */
+    BookStats getStats(List<String> groupBy, BigDecimal priceBucket);
+
+    /**
+     * Последовательно пишет все книги каталога прямо из строк результата запроса.
+     * Книги читаются из базы порциями и не накапливаются в памяти.
+     *
+     * @param writer запись строки книги в ответ
+     */
+    void exportBooks(BookRowWriter writer);
 
     /**
      * Создает новую книгу.
@@ -40,17 +111,33 @@ public interface BookService {
      */
     BookDto saveBook(BookDto bookDto);
 
+    /**
+     * Создает пакет книг.
+     * Каждая книга валидируется отдельно, невалидные книги и книги с занятым ISBN
+     * не прерывают обработку остальных.
+     *
+     * @param books данные книг для создания
+     * @return результаты по каждой книге в порядке исходного списка
+     * @throws InvalidBookDataException если пакет превышает допустимый размер
+     */
+    List<BookBatchResult> saveBooks(List<BookDto> books);
+
     /**
      * Обновляет существующую книгу.
+     * <p>
+     * С ожидаемыми версиями обновление условное (оптимистичная блокировка): книга меняется, только если
+     * её текущая версия входит в список. Так параллельные правки не затирают друг друга молча.
      *
-     * @param publicId публичный идентификатор обновляемой книги
-     * @param bookDto  новые данные книги
-     * @return обновленная DTO книги
-     * @throws BookNotFoundException      если книга с указанным publicId не найдена
-     * @throws BookAlreadyExistsException если новый ISBN уже используется другой книгой
-     * @throws ValidationException        если новые данные книги невалидны
+     * @param publicId         публичный идентификатор обновляемой книги
+     * @param bookDto          новые данные книги
+     * @param expectedVersions версии книги, которые видел клиент, или null для безусловного обновления
+     * @return обновленная DTO книги с новой версией
+     * @throws BookNotFoundException        если книга с указанным publicId не найдена
+     * @throws BookVersionMismatchException если версия книги не входит в ожидаемые
+     * @throws BookAlreadyExistsException   если новый ISBN уже используется другой книгой
+     * @throws ValidationException          если новые данные книги невалидны
      */
-    BookDto updateBook(UUID publicId, BookDto bookDto);
+    BookDto updateBook(UUID publicId, BookDto bookDto, Collection<Long> expectedVersions);
 
     /**
      * Удаляет книгу по публичному идентификатору.
@@ -0,0 +1,79 @@
+package com.saida.bookstore.service;
+
+import com.saida.bookstore.dto.BookDto;
+import com.saida.bookstore.dto.BookPageDto;
+import com.saida.bookstore.dto.BookPageVersion;
+import com.saida.bookstore.exception.BookAlreadyExistsException;
+import com.saida.bookstore.exception.BookNotFoundException;
+import com.saida.bookstore.exception.InvalidBookDataException;
+import com.saida.bookstore.exception.ValidationException;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.UUID;
+
+/**
+ * Неблокирующий аналог {@link BookService} для профиля reactive.
+ * Ошибки передаются сигналом onError с теми же исключениями, что и в блокирующем сервисе.
+ */
+public interface ReactiveBookService {
+
+    /**
+     * Находит книгу по публичному идентификатору.
+     *
+     * @param publicId уникальный публичный идентификатор книги
+     * @return DTO книги или {@link BookNotFoundException}
+     */
+    Mono<BookDto> getBookById(UUID publicId);
+
+    /**
+     * Возвращает страницу книг, начиная с самых новых.
+     *
+     * @param cursor непрозрачный курсор из предыдущей страницы, null для первой страницы
+     * @param limit  размер страницы, null для размера по умолчанию; ограничивается сверху
+     * @return страница книг или {@link InvalidBookDataException}, если курсор или размер страницы невалидны
+     */
+    Mono<BookPageDto> getAllBooks(String cursor, Integer limit);
+
+    /**
+     * Возвращает версию страницы, которую вернул бы {@link #getAllBooks(String, Integer)} с теми же параметрами.
+     *
+     * @param cursor непрозрачный курсор из предыдущей страницы, null для первой страницы
+     * @param limit  размер страницы, null для размера по умолчанию; ограничивается сверху
+     * @return версия страницы или {@link InvalidBookDataException}
+     */
+    Mono<BookPageVersion> getAllBooksVersion(String cursor, Integer limit);
+
+    /**
+     * Отдаёт все книги каталога с учётом запроса подписчика.
+     *
+     * @return книги каталога
+     */
+    Flux<BookDto> exportBooks();
+
+    /**
+     * Создает новую книгу.
+     *
+     * @param bookDto данные книги для создания
+     * @return созданная книга, {@link ValidationException} или {@link BookAlreadyExistsException}
+     */
+    Mono<BookDto> saveBook(BookDto bookDto);
+
+    /**
+     * Обновляет существующую книгу.
+     *
+     * @param publicId публичный идентификатор обновляемой книги
+     * @param bookDto  новые данные книги
+     * @return обновлённая книга, {@link ValidationException}, {@link BookNotFoundException}
+     * или {@link BookAlreadyExistsException}
+     */
+    Mono<BookDto> updateBook(UUID publicId, BookDto bookDto);
+
+    /**
+     * Удаляет книгу по публичному идентификатору.
+     *
+     * @param publicId публичный идентификатор удаляемой книги
+     * @return пустой Mono или {@link BookNotFoundException}
+     */
+    Mono<Void> deleteBookById(UUID publicId);
+}
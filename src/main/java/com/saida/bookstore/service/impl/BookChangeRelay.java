@@ -0,0 +1,89 @@
+package com.saida.bookstore.service.impl;
+
+import com.saida.bookstore.repository.BookChangeRepository;
+import com.saida.bookstore.service.BookChangeService;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+/**
+ * Публикует изменения книг из outbox в ленту и удаляет изменения старше срока хранения.
+ * <p>
+ * Релей запускается в каждом экземпляре приложения, но публикует только тот, кто захватил
+ * advisory-блокировку: так смещения назначаются строго по порядку. Остальные экземпляры лишь
+ * будят свои ожидающие long-poll запросы, когда смещение растёт.
+ */
+@Slf4j
+@Component
+@Profile("!reactive")
+public class BookChangeRelay {
+
+    private final BookChangeRepository bookChangeRepository;
+    private final BookChangeService bookChangeService;
+    private final TransactionTemplate transactionTemplate;
+    private final int batchSize;
+    private final int maxBatchesPerRun;
+    private final Duration retention;
+    private final Counter relayedCounter;
+
+    public BookChangeRelay(BookChangeRepository bookChangeRepository,
+                           BookChangeService bookChangeService,
+                           TransactionTemplate transactionTemplate,
+                           MeterRegistry meterRegistry,
+                           @Value("${bookstore.changes.batch-size:1000}") int batchSize,
+                           @Value("${bookstore.changes.max-batches-per-run:10}") int maxBatchesPerRun,
+                           @Value("${bookstore.changes.retention:7d}") Duration retention) {
+        this.bookChangeRepository = bookChangeRepository;
+        this.bookChangeService = bookChangeService;
+        this.transactionTemplate = transactionTemplate;
+        this.batchSize = batchSize;
+        this.maxBatchesPerRun = maxBatchesPerRun;
+        this.retention = retention;
+        this.relayedCounter = Counter.builder("bookstore.changes.relayed")
+                .description("Book changes published from the outbox")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(fixedDelayString = "${bookstore.changes.relay-interval:200ms}")
+    public void relay() {
+        try {
+            // Каждая порция — отдельная короткая транзакция; крупный импорт публикуется за несколько запусков
+            for (int batch = 0; batch < maxBatchesPerRun; batch++) {
+                Integer relayed = transactionTemplate.execute(status -> bookChangeRepository.tryLockRelay()
+                        ? bookChangeRepository.relay(batchSize)
+                        : 0);
+                if (relayed == null || relayed == 0) {
+                    break;
+                }
+                relayedCounter.increment(relayed);
+                log.debug("Relayed {} book changes", relayed);
+                if (relayed < batchSize) {
+                    break;
+                }
+            }
+            bookChangeService.notifyWaiters();
+        } catch (RuntimeException e) {
+            log.warn("Book change relay failed: {}", e.getMessage());
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${bookstore.changes.purge-interval:1h}")
+    public void purgeExpired() {
+        try {
+            int deleted = bookChangeRepository.deleteExpired(LocalDateTime.now().minus(retention));
+            if (deleted > 0) {
+                log.info("Deleted {} book changes older than {}", deleted, retention);
+            }
+        } catch (RuntimeException e) {
+            log.warn("Book change purge failed: {}", e.getMessage());
+        }
+    }
+}
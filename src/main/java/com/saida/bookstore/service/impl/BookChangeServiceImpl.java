@@ -0,0 +1,143 @@
+package com.saida.bookstore.service.impl;
+
+import com.saida.bookstore.dto.BookChange;
+import com.saida.bookstore.dto.BookChangePage;
+import com.saida.bookstore.entity.BookChangeEntity;
+import com.saida.bookstore.exception.ChangeOffsetExpiredException;
+import com.saida.bookstore.exception.InvalidBookDataException;
+import com.saida.bookstore.mapper.BookMapper;
+import com.saida.bookstore.repository.BookChangeRepository;
+import com.saida.bookstore.service.BookChangeService;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+
+@Slf4j
+@Service
+@Profile("!reactive")
+public class BookChangeServiceImpl implements BookChangeService {
+
+    private static final int DEFAULT_LIMIT = 100;
+    private static final int MAX_LIMIT = 1000;
+
+    private final BookChangeRepository bookChangeRepository;
+    private final BookMapper bookMapper;
+    private final Duration pollTimeout;
+
+    private final Queue<Waiter> waiters = new ConcurrentLinkedQueue<>();
+    private volatile long latestOffset;
+
+    public BookChangeServiceImpl(BookChangeRepository bookChangeRepository,
+                                 BookMapper bookMapper,
+                                 MeterRegistry meterRegistry,
+                                 @Value("${bookstore.changes.poll-timeout:30s}") Duration pollTimeout) {
+        this.bookChangeRepository = bookChangeRepository;
+        this.bookMapper = bookMapper;
+        this.pollTimeout = pollTimeout;
+        Gauge.builder("bookstore.changes.waiting", waiters, Queue::size)
+                .description("Long-poll requests waiting for book changes")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public CompletableFuture<BookChangePage> awaitChanges(Long since, Integer limit) {
+        int pageSize = resolveLimit(limit);
+        if (since == null) {
+            return CompletableFuture.completedFuture(new BookChangePage(List.of(),
+                    bookChangeRepository.findLatestOffset()));
+        }
+        if (since < 0) {
+            throw new InvalidBookDataException("Change offset must not be negative");
+        }
+
+        BookChangePage page = getChanges(since, pageSize);
+        if (!page.changes().isEmpty()) {
+            return CompletableFuture.completedFuture(page);
+        }
+
+        Waiter waiter = new Waiter(since, pageSize, new CompletableFuture<>());
+        waiters.add(waiter);
+        waiter.future()
+                .completeOnTimeout(page, pollTimeout.toMillis(), TimeUnit.MILLISECONDS)
+                .whenComplete((result, error) -> waiters.remove(waiter));
+        // Релей мог опубликовать изменения между чтением и постановкой в очередь и уже не увидеть этот запрос
+        if (latestOffset > since) {
+            dispatch(List.of(waiter));
+        }
+        return waiter.future();
+    }
+
+    @Override
+    public void notifyWaiters() {
+        if (waiters.isEmpty()) {
+            return;
+        }
+        latestOffset = bookChangeRepository.findLatestOffset();
+        List<Waiter> ready = waiters.stream()
+                .filter(waiter -> waiter.since() < latestOffset)
+                .toList();
+        dispatch(ready);
+    }
+
+    private void dispatch(List<Waiter> ready) {
+        // Потребители обычно ждут с одного и того же смещения: одна выборка на каждую пару (since, limit)
+        Map<Waiter.Key, BookChangePage> pages = new HashMap<>();
+        for (Waiter waiter : ready) {
+            try {
+                waiter.future().complete(pages.computeIfAbsent(waiter.key(),
+                        key -> getChanges(key.since(), key.limit())));
+            } catch (RuntimeException e) {
+                log.warn("Failed to deliver book changes after offset {}: {}", waiter.since(), e.getMessage());
+                waiter.future().completeExceptionally(e);
+            }
+        }
+    }
+
+    private BookChangePage getChanges(long since, int limit) {
+        List<BookChangeEntity> entities = bookChangeRepository.findAfter(since, limit);
+        if (entities.isEmpty()) {
+            return new BookChangePage(List.of(), since);
+        }
+        // Смещения идут без пропусков, поэтому разрыв означает, что часть изменений удалена по сроку хранения
+        if (entities.get(0).getOffset() > since + 1) {
+            throw new ChangeOffsetExpiredException("Changes after offset " + since
+                    + " have expired, reload the catalog and start from the current offset");
+        }
+        List<BookChange> changes = entities.stream()
+                .map(bookMapper::toDto)
+                .toList();
+        return new BookChangePage(changes, changes.get(changes.size() - 1).offset());
+    }
+
+    private static int resolveLimit(Integer limit) {
+        if (limit == null) {
+            return DEFAULT_LIMIT;
+        }
+        if (limit < 1) {
+            throw new InvalidBookDataException("Change limit must be positive");
+        }
+        return Math.min(limit, MAX_LIMIT);
+    }
+
+    private record Waiter(long since, int limit, CompletableFuture<BookChangePage> future) {
+
+        Key key() {
+            return new Key(since, limit);
+        }
+
+        private record Key(long since, int limit) {
+        }
+    }
+}
@@ -0,0 +1,202 @@
+package com.saida.bookstore.service.impl;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.saida.bookstore.api.request.BookRequest;
+import com.saida.bookstore.config.TransactionTimeouts;
+import com.saida.bookstore.dto.BookDto;
+import com.saida.bookstore.dto.BookImportError;
+import com.saida.bookstore.dto.BookImportFormat;
+import com.saida.bookstore.dto.BookImportReport;
+import com.saida.bookstore.dto.BookImportResult;
+import com.saida.bookstore.entity.BookEntity;
+import com.saida.bookstore.exception.InvalidBookDataException;
+import com.saida.bookstore.mapper.BookMapper;
+import com.saida.bookstore.repository.BookImportRepository;
+import com.saida.bookstore.service.BookImportService;
+import com.saida.bookstore.util.CsvUtils;
+import com.saida.bookstore.util.IsbnUtils;
+import com.saida.bookstore.validator.CompositeBookValidator;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicInteger;
+
+@Slf4j
+@Service
+@Profile("!reactive")
+public class BookImportServiceImpl implements BookImportService {
+
+    private static final int MAX_REPORTED_ERRORS = 100;
+    private static final List<String> CSV_COLUMNS = List.of("title", "author", "isbn", "price", "publicationYear");
+
+    private final BookImportRepository bookImportRepository;
+    private final BookMapper bookMapper;
+    private final CompositeBookValidator compositeBookValidator;
+    private final ObjectMapper objectMapper;
+
+    private final Counter acceptedRows;
+    private final Counter rejectedRows;
+    private final Counter insertedRows;
+    private final AtomicInteger activeImports;
+
+    public BookImportServiceImpl(BookImportRepository bookImportRepository,
+                                 BookMapper bookMapper,
+                                 CompositeBookValidator compositeBookValidator,
+                                 ObjectMapper objectMapper,
+                                 MeterRegistry meterRegistry) {
+        this.bookImportRepository = bookImportRepository;
+        this.bookMapper = bookMapper;
+        this.compositeBookValidator = compositeBookValidator;
+        this.objectMapper = objectMapper;
+        this.acceptedRows = importRowsCounter(meterRegistry, "accepted");
+        this.rejectedRows = importRowsCounter(meterRegistry, "rejected");
+        this.insertedRows = importRowsCounter(meterRegistry, "inserted");
+        this.activeImports = meterRegistry.gauge("bookstore.import.active", new AtomicInteger());
+    }
+
+    private static Counter importRowsCounter(MeterRegistry meterRegistry, String result) {
+        return Counter.builder("bookstore.import.rows")
+                .description("Rows processed by the bulk book import")
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+
+    @Override
+    @Transactional(timeoutString = TransactionTimeouts.IMPORT)
+    public BookImportReport importBooks(InputStream input, BookImportFormat format, boolean failFast) {
+        log.info("Starting {} book import", format);
+        activeImports.incrementAndGet();
+
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8))) {
+            ImportSession session = new ImportSession(format, failFast);
+            if (format == BookImportFormat.CSV) {
+                session.readCsvHeader(reader.readLine());
+            }
+
+            BookImportResult result = bookImportRepository.copyBooks(reader.lines()
+                    .map(session::toEntity)
+                    .filter(Objects::nonNull));
+            insertedRows.increment(result.inserted());
+
+            BookImportReport report = new BookImportReport(result.staged(), session.rejected,
+                    result.inserted(), result.staged() - result.inserted(), session.errors);
+            log.info("Finished book import: {} accepted, {} rejected, {} inserted",
+                    report.accepted(), report.rejected(), report.inserted());
+            return report;
+        } catch (IOException | UncheckedIOException e) {
+            throw new InvalidBookDataException("Failed to read import data: " + e.getMessage());
+        } finally {
+            activeImports.decrementAndGet();
+        }
+    }
+
+    /**
+     * Состояние одного импорта: номер строки, колонки CSV и ограниченный список ошибок.
+     */
+    private final class ImportSession {
+
+        private final BookImportFormat format;
+        private final boolean failFast;
+        private final List<BookImportError> errors = new ArrayList<>();
+        private int[] columnIndexes;
+        private long lineNumber;
+        private long rejected;
+
+        private ImportSession(BookImportFormat format, boolean failFast) {
+            this.format = format;
+            this.failFast = failFast;
+        }
+
+        private void readCsvHeader(String header) {
+            lineNumber++;
+            if (header == null) {
+                throw new InvalidBookDataException("CSV header is missing");
+            }
+            List<String> names = CsvUtils.parseLine(header).stream()
+                    .map(String::trim)
+                    .toList();
+            columnIndexes = new int[CSV_COLUMNS.size()];
+            for (int i = 0; i < CSV_COLUMNS.size(); i++) {
+                columnIndexes[i] = names.indexOf(CSV_COLUMNS.get(i));
+                if (columnIndexes[i] < 0) {
+                    throw new InvalidBookDataException("CSV header must contain column: " + CSV_COLUMNS.get(i));
+                }
+            }
+        }
+
+        private BookEntity toEntity(String line) {
+            lineNumber++;
+            if (line.isBlank()) {
+                return null;
+            }
+
+            BookDto bookDto;
+            try {
+                bookDto = format == BookImportFormat.CSV ? parseCsv(line) : parseNdjson(line);
+            } catch (IllegalArgumentException | JsonProcessingException e) {
+                reject(List.of("Malformed row: " + e.getMessage()));
+                return null;
+            }
+
+            List<String> validationErrors = compositeBookValidator.collectErrors(bookDto, failFast);
+            if (!validationErrors.isEmpty()) {
+                reject(validationErrors);
+                return null;
+            }
+
+            acceptedRows.increment();
+            BookEntity entity = bookMapper.toEntity(bookDto);
+            entity.setIsbn(IsbnUtils.canonicalize(bookDto.isbn()));
+            return entity;
+        }
+
+        private BookDto parseCsv(String line) {
+            List<String> fields = CsvUtils.parseLine(line);
+            String[] values = new String[columnIndexes.length];
+            for (int i = 0; i < columnIndexes.length; i++) {
+                if (columnIndexes[i] >= fields.size()) {
+                    throw new IllegalArgumentException("expected " + CSV_COLUMNS.size() + " columns");
+                }
+                values[i] = fields.get(columnIndexes[i]);
+            }
+            return new BookDto(
+                    null,
+                    values[0],
+                    values[1],
+                    values[2],
+                    values[3].isBlank() ? null : new BigDecimal(values[3].trim()),
+                    values[4].isBlank() ? null : Integer.valueOf(values[4].trim()),
+                    null,
+                    null,
+                    null
+            );
+        }
+
+        private BookDto parseNdjson(String line) throws JsonProcessingException {
+            return bookMapper.toDto(objectMapper.readValue(line, BookRequest.class));
+        }
+
+        private void reject(List<String> messages) {
+            rejected++;
+            rejectedRows.increment();
+            if (errors.size() < MAX_REPORTED_ERRORS) {
+                errors.add(new BookImportError(lineNumber, messages));
+            }
+        }
+    }
+}
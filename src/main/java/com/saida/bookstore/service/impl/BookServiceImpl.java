@@ -1,30 +1,76 @@
 package com.saida.bookstore.service.impl;
 
+import com.saida.bookstore.config.CacheConfig;
+import com.saida.bookstore.config.ReplicaRoutingContext;
+import com.saida.bookstore.config.TransactionTimeouts;
+import com.saida.bookstore.dto.BookBatchResult;
+import com.saida.bookstore.dto.BookCursor;
 import com.saida.bookstore.dto.BookDto;
+import com.saida.bookstore.dto.BookLookupResult;
+import com.saida.bookstore.dto.BookPageDto;
+import com.saida.bookstore.dto.BookPageVersion;
+import com.saida.bookstore.dto.BookSearchCriteria;
+import com.saida.bookstore.dto.BookSearchCursor;
+import com.saida.bookstore.dto.BookSearchHit;
+import com.saida.bookstore.dto.BookStats;
+import com.saida.bookstore.dto.BookStatsDimension;
 import com.saida.bookstore.entity.BookEntity;
 import com.saida.bookstore.exception.BookAlreadyExistsException;
 import com.saida.bookstore.exception.BookNotFoundException;
+import com.saida.bookstore.exception.BookVersionMismatchException;
+import com.saida.bookstore.exception.InvalidBookDataException;
 import com.saida.bookstore.mapper.BookMapper;
 import com.saida.bookstore.repository.BookRepository;
+import com.saida.bookstore.repository.BookRowWriter;
 import com.saida.bookstore.service.BookService;
+import com.saida.bookstore.util.CursorUtils;
+import com.saida.bookstore.util.IsbnUtils;
 import com.saida.bookstore.validator.CompositeBookValidator;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.context.annotation.Profile;
+import org.springframework.dao.DuplicateKeyException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
 
 @Slf4j
 @Service
+@Profile("!reactive")
 @RequiredArgsConstructor
 public class BookServiceImpl implements BookService {
 
+    private static final int DEFAULT_PAGE_SIZE = 20;
+    private static final int MAX_PAGE_SIZE = 100;
+    private static final int MAX_BATCH_SIZE = 10_000;
+    private static final int MAX_LOOKUP_SIZE = 1000;
+    private static final BigDecimal DEFAULT_PRICE_BUCKET = BigDecimal.TEN;
+
     private final BookRepository bookRepository;
     private final BookMapper bookMapper;
     private final CompositeBookValidator compositeBookValidator;
+    private final CacheManager cacheManager;
 
     @Override
+    @Cacheable(cacheNames = CacheConfig.BOOKS_CACHE, key = "#publicId",
+            unless = "T(com.saida.bookstore.config.ReplicaRoutingContext).isReplicaRead()")
+    @Transactional(readOnly = true, timeoutString = TransactionTimeouts.READ)
     public BookDto getBookById(UUID publicId) {
         log.debug("Finding book by publicId: {}", publicId);
 
@@ -35,72 +81,305 @@ public class BookServiceImpl implements BookService {
     }
 
     @Override
-    public List<BookDto> getAllBooks() {
-        return bookRepository.findAll()
-                .stream()
-                .map(bookMapper::toDto)
+    @Transactional(readOnly = true, timeoutString = TransactionTimeouts.READ)
+    public BookLookupResult lookupBooks(List<UUID> publicIds, List<String> isbns) {
+        List<UUID> requestedIds = publicIds == null ? List.of() : publicIds;
+        List<String> requestedIsbns = isbns == null ? List.of() : isbns;
+        if (requestedIds.size() + requestedIsbns.size() > MAX_LOOKUP_SIZE) {
+            throw new InvalidBookDataException("Lookup must not exceed " + MAX_LOOKUP_SIZE + " keys");
+        }
+        log.debug("Looking up {} publicIds and {} ISBNs", requestedIds.size(), requestedIsbns.size());
+
+        Cache cache = cacheManager.getCache(CacheConfig.BOOKS_CACHE);
+        Map<UUID, BookDto> booksByPublicId = new HashMap<>();
+        Set<UUID> missingIds = new HashSet<>();
+        for (UUID publicId : requestedIds) {
+            if (publicId == null || booksByPublicId.containsKey(publicId)) {
+                continue;
+            }
+            BookDto cached = cache != null ? cache.get(publicId, BookDto.class) : null;
+            if (cached != null) {
+                booksByPublicId.put(publicId, cached);
+            } else {
+                missingIds.add(publicId);
+            }
+        }
+
+        // Невалидный ISBN заведомо не найдётся, в запрос он не попадает
+        String[] canonicalIsbns = new String[requestedIsbns.size()];
+        Set<String> isbnKeys = new HashSet<>();
+        for (int i = 0; i < canonicalIsbns.length; i++) {
+            canonicalIsbns[i] = IsbnUtils.canonicalize(requestedIsbns.get(i));
+            if (canonicalIsbns[i] != null) {
+                isbnKeys.add(canonicalIsbns[i]);
+            }
+        }
+
+        Map<String, BookDto> booksByIsbn = new HashMap<>();
+        if (!missingIds.isEmpty() || !isbnKeys.isEmpty()) {
+            List<BookEntity> entities = bookRepository.findAllByKeys(missingIds, isbnKeys);
+            // Кэш общий для всех клиентов, поэтому заполняется только чтением с основного сервера
+            boolean cacheable = cache != null && !ReplicaRoutingContext.isReplicaRead();
+            for (BookEntity entity : entities) {
+                BookDto dto = bookMapper.toDto(entity);
+                booksByPublicId.put(dto.publicId(), dto);
+                booksByIsbn.put(dto.isbn(), dto);
+                if (cacheable) {
+                    cache.put(dto.publicId(), dto);
+                }
+            }
+        }
+
+        List<BookLookupResult.Item> byPublicId = new ArrayList<>(requestedIds.size());
+        for (UUID publicId : requestedIds) {
+            byPublicId.add(new BookLookupResult.Item(Objects.toString(publicId, null),
+                    publicId == null ? null : booksByPublicId.get(publicId)));
+        }
+        List<BookLookupResult.Item> byIsbn = new ArrayList<>(requestedIsbns.size());
+        for (int i = 0; i < canonicalIsbns.length; i++) {
+            byIsbn.add(new BookLookupResult.Item(requestedIsbns.get(i),
+                    canonicalIsbns[i] == null ? null : booksByIsbn.get(canonicalIsbns[i])));
+        }
+        return new BookLookupResult(byPublicId, byIsbn);
+    }
+
+    @Override
+    @Transactional(readOnly = true, timeoutString = TransactionTimeouts.READ)
+    public String writeAllBooks(String cursor, Integer limit, BookRowWriter writer) {
+        int pageSize = resolvePageSize(limit);
+        BookCursor after = cursor == null || cursor.isBlank() ? null : CursorUtils.decode(cursor);
+
+        BookCursor next = bookRepository.writePage(after, pageSize, writer);
+        return next != null ? CursorUtils.encode(next) : null;
+    }
+
+    @Override
+    @Transactional(readOnly = true, timeoutString = TransactionTimeouts.READ)
+    public BookPageVersion getAllBooksVersion(String cursor, Integer limit) {
+        int pageSize = resolvePageSize(limit);
+        BookCursor after = cursor == null || cursor.isBlank() ? null : CursorUtils.decode(cursor);
+
+        // Тот же диапазон, что и в writeAllBooks: лишняя строка определяет nextCursor и тоже входит в версию
+        return bookRepository.findPageVersion(after, pageSize + 1);
+    }
+
+    @Override
+    @Transactional(readOnly = true, timeoutString = TransactionTimeouts.SEARCH)
+    public BookPageDto searchBooks(BookSearchCriteria criteria, String cursor, Integer limit) {
+        int pageSize = resolvePageSize(limit);
+        BookSearchCriteria normalized = normalizeCriteria(criteria);
+        BookSearchCursor after = cursor == null || cursor.isBlank() ? null : CursorUtils.decodeSearch(cursor);
+        log.debug("Searching books by {}", normalized);
+
+        List<BookSearchHit> hits = bookRepository.search(normalized, after, pageSize + 1);
+
+        String nextCursor = null;
+        if (hits.size() > pageSize) {
+            hits = hits.subList(0, pageSize);
+            BookSearchHit last = hits.get(pageSize - 1);
+            nextCursor = CursorUtils.encode(new BookSearchCursor(last.rank(), last.book().getId()));
+        }
+
+        List<BookDto> items = hits.stream()
+                .map(hit -> bookMapper.toDto(hit.book()))
                 .toList();
+        return new BookPageDto(items, nextCursor);
+    }
+
+    private static BookSearchCriteria normalizeCriteria(BookSearchCriteria criteria) {
+        if (criteria.yearFrom() != null && criteria.yearTo() != null && criteria.yearFrom() > criteria.yearTo()) {
+            throw new InvalidBookDataException("yearFrom must not be greater than yearTo");
+        }
+        if (criteria.priceMin() != null && criteria.priceMax() != null
+                && criteria.priceMin().compareTo(criteria.priceMax()) > 0) {
+            throw new InvalidBookDataException("priceMin must not be greater than priceMax");
+        }
+        return new BookSearchCriteria(
+                blankToNull(criteria.query()),
+                blankToNull(criteria.author()),
+                criteria.yearFrom(),
+                criteria.yearTo(),
+                criteria.priceMin(),
+                criteria.priceMax()
+        );
+    }
+
+    private static String blankToNull(String value) {
+        return value == null || value.isBlank() ? null : value.strip();
+    }
+
+    @Override
+    @Cacheable(cacheNames = CacheConfig.STATS_CACHE, sync = true)
+    @Transactional(readOnly = true, timeoutString = TransactionTimeouts.STATS)
+    public BookStats getStats(List<String> groupBy, BigDecimal priceBucket) {
+        List<BookStatsDimension> dimensions = new ArrayList<>();
+        if (groupBy != null) {
+            for (String name : groupBy) {
+                BookStatsDimension dimension = BookStatsDimension.fromParamName(name == null ? null : name.strip());
+                if (dimension == null) {
+                    throw new InvalidBookDataException("Unknown stats dimension: " + name);
+                }
+                if (dimensions.contains(dimension)) {
+                    throw new InvalidBookDataException("Stats dimension is repeated: " + name);
+                }
+                dimensions.add(dimension);
+            }
+        }
+
+        BigDecimal bucket = null;
+        if (dimensions.contains(BookStatsDimension.PRICE)) {
+            bucket = priceBucket != null ? priceBucket : DEFAULT_PRICE_BUCKET;
+            if (bucket.signum() <= 0) {
+                throw new InvalidBookDataException("Price bucket must be positive");
+            }
+        }
+        log.debug("Aggregating book stats by {}", dimensions);
+
+        return new BookStats(List.copyOf(dimensions), bucket, bookRepository.aggregate(dimensions, bucket));
+    }
+
+    @Override
+    @Transactional(readOnly = true, timeoutString = TransactionTimeouts.EXPORT)
+    public void exportBooks(BookRowWriter writer) {
+        bookRepository.writeAll(writer);
     }
 
     @Override
+    @Transactional(timeoutString = TransactionTimeouts.WRITE)
     public BookDto saveBook(BookDto bookDto) {
         log.debug("Creating new book with title: {}", bookDto.title());
 
         compositeBookValidator.validate(bookDto);
 
-        if (bookRepository.existsByIsbn(bookDto.isbn())) {
-            throw new BookAlreadyExistsException("Book with ISBN '" + bookDto.isbn() + "' already exists");
-        }
-
         BookEntity entity = bookMapper.toEntity(bookDto);
-        BookEntity savedEntity = bookRepository.save(entity);
+        entity.setIsbn(IsbnUtils.canonicalize(bookDto.isbn()));
+        BookEntity savedEntity;
+        try {
+            savedEntity = bookRepository.save(entity);
+        } catch (DuplicateKeyException e) {
+            throw new BookAlreadyExistsException("Book with ISBN '" + entity.getIsbn() + "' already exists");
+        }
 
         log.info("Successfully created book with publicId: {}", savedEntity.getPublicId());
         return bookMapper.toDto(savedEntity);
     }
 
     @Override
-    public BookDto updateBook(UUID publicId, BookDto bookDto) {
-        log.debug("Updating book with publicId: {}", publicId);
+    @Transactional(timeoutString = TransactionTimeouts.BATCH)
+    public List<BookBatchResult> saveBooks(List<BookDto> books) {
+        if (books.size() > MAX_BATCH_SIZE) {
+            throw new InvalidBookDataException("Batch must not exceed " + MAX_BATCH_SIZE + " books");
+        }
+        log.debug("Creating batch of {} books", books.size());
 
-        compositeBookValidator.validate(bookDto);
+        BookBatchResult[] results = new BookBatchResult[books.size()];
+        Map<String, Integer> indexByIsbn = new HashMap<>();
+        List<BookEntity> candidates = new ArrayList<>(books.size());
 
-        BookEntity existingEntity = bookRepository.findById(publicId)
-                .orElseThrow(() -> new BookNotFoundException("Book not found with publicId: " + publicId));
+        for (int i = 0; i < books.size(); i++) {
+            BookDto bookDto = books.get(i);
+            List<String> errors = compositeBookValidator.collectErrors(bookDto, false);
+            if (!errors.isEmpty()) {
+                results[i] = BookBatchResult.failed(i, errors);
+                continue;
+            }
+            // ISBN-10 и ISBN-13 одной книги сводятся к одному ключу
+            String isbn = IsbnUtils.canonicalize(bookDto.isbn());
+            if (indexByIsbn.putIfAbsent(isbn, i) != null) {
+                results[i] = BookBatchResult.failed(i,
+                        List.of("ISBN '" + isbn + "' is duplicated within the batch"));
+                continue;
+            }
+            BookEntity entity = bookMapper.toEntity(bookDto);
+            entity.setIsbn(isbn);
+            candidates.add(entity);
+        }
 
-        // Проверяем, не используется ли ISBN другой книгой
-        if (!existingEntity.getIsbn().equals(bookDto.isbn()) &&
-                bookRepository.existsByIsbn(bookDto.isbn())) {
-            throw new BookAlreadyExistsException("ISBN '" + bookDto.isbn() + "' is already used by another book");
+        for (BookEntity saved : bookRepository.saveAll(candidates)) {
+            int index = indexByIsbn.remove(saved.getIsbn());
+            results[index] = BookBatchResult.created(index, bookMapper.toDto(saved));
         }
+        // Оставшиеся ISBN пропущены базой из-за конфликта уникальности
+        indexByIsbn.forEach((isbn, index) -> results[index] = BookBatchResult.failed(index,
+                List.of("Book with ISBN '" + isbn + "' already exists")));
+
+        log.info("Created {} of {} books in batch", books.size() - countFailed(results), books.size());
+        return Arrays.asList(results);
+    }
+
+    private static long countFailed(BookBatchResult[] results) {
+        return Arrays.stream(results)
+                .filter(result -> result.status() == BookBatchResult.Status.FAILED)
+                .count();
+    }
+
+    @Override
+    @CacheEvict(cacheNames = {CacheConfig.BOOKS_CACHE, CacheConfig.ENCODED_BOOKS_CACHE}, key = "#publicId")
+    @Transactional(timeoutString = TransactionTimeouts.WRITE)
+    public BookDto updateBook(UUID publicId, BookDto bookDto, Collection<Long> expectedVersions) {
+        log.debug("Updating book with publicId: {}, expected versions: {}", publicId, expectedVersions);
+
+        compositeBookValidator.validate(bookDto);
 
         BookEntity entity = BookEntity.builder()
-                .id(existingEntity.getId())
                 .publicId(publicId)
                 .title(bookDto.title())
                 .author(bookDto.author())
-                .isbn(bookDto.isbn())
+                .isbn(IsbnUtils.canonicalize(bookDto.isbn()))
                 .price(bookDto.price())
                 .publicationYear(bookDto.publicationYear())
-                .createdAt(existingEntity.getCreatedAt())
                 .build();
 
-        BookEntity updatedEntity = bookRepository.save(entity);
+        BookEntity updatedEntity;
+        try {
+            // Пустой список — If-Match без подходящих ETag: ни одна версия не совпадёт, запрос в базу не нужен
+            Optional<BookEntity> updated = expectedVersions != null && expectedVersions.isEmpty()
+                    ? Optional.empty()
+                    : bookRepository.update(entity, expectedVersions);
+            updatedEntity = updated.orElseThrow(() -> updateFailure(publicId, expectedVersions));
+        } catch (DuplicateKeyException e) {
+            // ISBN занят другой книгой: нарушено ограничение уникальности
+            throw new BookAlreadyExistsException("ISBN '" + entity.getIsbn() + "' is already used by another book");
+        }
 
         log.info("Successfully updated book with publicId: {}", publicId);
         return bookMapper.toDto(updatedEntity);
     }
 
+    // Строка не обновилась: при условном обновлении нужно отличить удалённую книгу от изменённой
+    private RuntimeException updateFailure(UUID publicId, Collection<Long> expectedVersions) {
+        if (expectedVersions != null && bookRepository.findById(publicId).isPresent()) {
+            // Версию клиент мог прочитать из устаревшего кэша другого экземпляра: следующее чтение пойдёт в базу
+            Cache cache = cacheManager.getCache(CacheConfig.BOOKS_CACHE);
+            if (cache != null) {
+                cache.evict(publicId);
+            }
+            return new BookVersionMismatchException("Book with publicId " + publicId
+                    + " has been modified, expected version: " + expectedVersions);
+        }
+        return new BookNotFoundException("Book not found with publicId: " + publicId);
+    }
+
+    // Используется и в ReactiveBookServiceImpl, чтобы ограничения страниц совпадали в обоих стеках
+    static int resolvePageSize(Integer limit) {
+        if (limit == null) {
+            return DEFAULT_PAGE_SIZE;
+        }
+        if (limit < 1) {
+            throw new InvalidBookDataException("Page size must be positive");
+        }
+        return Math.min(limit, MAX_PAGE_SIZE);
+    }
+
     @Override
+    @CacheEvict(cacheNames = {CacheConfig.BOOKS_CACHE, CacheConfig.ENCODED_BOOKS_CACHE}, key = "#publicId")
+    @Transactional(timeoutString = TransactionTimeouts.WRITE)
     public void deleteBookById(UUID publicId) {
         log.debug("Deleting book with publicId: {}", publicId);
 
-        // Проверяем существование книги перед удалением
-        if (bookRepository.findById(publicId).isEmpty()) {
+        if (!bookRepository.deleteById(publicId)) {
             throw new BookNotFoundException("Book not found with publicId: " + publicId);
         }
-
-        bookRepository.deleteById(publicId);
         log.info("Successfully deleted book with publicId: {}", publicId);
     }
 }
\ No newline at end of file
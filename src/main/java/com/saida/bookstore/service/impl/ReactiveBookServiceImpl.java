@@ -0,0 +1,140 @@
+package com.saida.bookstore.service.impl;
+
+import com.saida.bookstore.dto.BookCursor;
+import com.saida.bookstore.dto.BookDto;
+import com.saida.bookstore.dto.BookPageDto;
+import com.saida.bookstore.dto.BookPageVersion;
+import com.saida.bookstore.entity.BookEntity;
+import com.saida.bookstore.exception.BookAlreadyExistsException;
+import com.saida.bookstore.exception.BookNotFoundException;
+import com.saida.bookstore.mapper.BookMapper;
+import com.saida.bookstore.repository.ReactiveBookRepository;
+import com.saida.bookstore.service.ReactiveBookService;
+import com.saida.bookstore.util.CursorUtils;
+import com.saida.bookstore.util.IsbnUtils;
+import com.saida.bookstore.validator.CompositeBookValidator;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.annotation.Profile;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Реализация {@link ReactiveBookService}. Валидация и маппинг выполняются синхронно —
+ * это чистые вычисления без ввода-вывода, поэтому event loop они не блокируют.
+ */
+@Slf4j
+@Service
+@Profile("reactive")
+@RequiredArgsConstructor
+public class ReactiveBookServiceImpl implements ReactiveBookService {
+
+    private final ReactiveBookRepository bookRepository;
+    private final BookMapper bookMapper;
+    private final CompositeBookValidator compositeBookValidator;
+
+    @Override
+    public Mono<BookDto> getBookById(UUID publicId) {
+        log.debug("Finding book by publicId: {}", publicId);
+        return bookRepository.findById(publicId)
+                .switchIfEmpty(Mono.error(() -> new BookNotFoundException("Book not found with publicId: " + publicId)))
+                .map(bookMapper::toDto);
+    }
+
+    @Override
+    public Mono<BookPageDto> getAllBooks(String cursor, Integer limit) {
+        return Mono.defer(() -> {
+            int pageSize = BookServiceImpl.resolvePageSize(limit);
+            BookCursor after = cursor == null || cursor.isBlank() ? null : CursorUtils.decode(cursor);
+
+            // Запрашиваем на одну строку больше, чтобы понять, есть ли следующая страница
+            return bookRepository.findPage(after, pageSize + 1)
+                    .collectList()
+                    .map(entities -> toPage(entities, pageSize));
+        });
+    }
+
+    private BookPageDto toPage(List<BookEntity> entities, int pageSize) {
+        String nextCursor = null;
+        if (entities.size() > pageSize) {
+            entities = entities.subList(0, pageSize);
+            BookEntity last = entities.get(pageSize - 1);
+            nextCursor = CursorUtils.encode(new BookCursor(last.getCreatedAt(), last.getId()));
+        }
+        List<BookDto> items = entities.stream()
+                .map(bookMapper::toDto)
+                .toList();
+        return new BookPageDto(items, nextCursor);
+    }
+
+    @Override
+    public Mono<BookPageVersion> getAllBooksVersion(String cursor, Integer limit) {
+        return Mono.defer(() -> {
+            int pageSize = BookServiceImpl.resolvePageSize(limit);
+            BookCursor after = cursor == null || cursor.isBlank() ? null : CursorUtils.decode(cursor);
+            return bookRepository.findPageVersion(after, pageSize + 1);
+        });
+    }
+
+    @Override
+    public Flux<BookDto> exportBooks() {
+        return bookRepository.findAll().map(bookMapper::toDto);
+    }
+
+    @Override
+    public Mono<BookDto> saveBook(BookDto bookDto) {
+        return Mono.defer(() -> {
+            log.debug("Creating new book with title: {}", bookDto.title());
+            compositeBookValidator.validate(bookDto);
+
+            BookEntity entity = bookMapper.toEntity(bookDto);
+            entity.setIsbn(IsbnUtils.canonicalize(bookDto.isbn()));
+            return bookRepository.save(entity)
+                    .onErrorMap(DuplicateKeyException.class, e -> new BookAlreadyExistsException(
+                            "Book with ISBN '" + entity.getIsbn() + "' already exists"));
+        }).map(saved -> {
+            log.info("Successfully created book with publicId: {}", saved.getPublicId());
+            return bookMapper.toDto(saved);
+        });
+    }
+
+    @Override
+    public Mono<BookDto> updateBook(UUID publicId, BookDto bookDto) {
+        return Mono.defer(() -> {
+            log.debug("Updating book with publicId: {}", publicId);
+            compositeBookValidator.validate(bookDto);
+
+            BookEntity entity = BookEntity.builder()
+                    .publicId(publicId)
+                    .title(bookDto.title())
+                    .author(bookDto.author())
+                    .isbn(IsbnUtils.canonicalize(bookDto.isbn()))
+                    .price(bookDto.price())
+                    .publicationYear(bookDto.publicationYear())
+                    .build();
+            return bookRepository.update(entity)
+                    // ISBN занят другой книгой: нарушено ограничение уникальности
+                    .onErrorMap(DuplicateKeyException.class, e -> new BookAlreadyExistsException(
+                            "ISBN '" + entity.getIsbn() + "' is already used by another book"));
+        }).switchIfEmpty(Mono.error(() -> new BookNotFoundException("Book not found with publicId: " + publicId)))
+                .map(updated -> {
+                    log.info("Successfully updated book with publicId: {}", publicId);
+                    return bookMapper.toDto(updated);
+                });
+    }
+
+    @Override
+    public Mono<Void> deleteBookById(UUID publicId) {
+        log.debug("Deleting book with publicId: {}", publicId);
+        return bookRepository.deleteById(publicId)
+                .flatMap(deleted -> deleted
+                        ? Mono.<Void>empty()
+                        : Mono.error(new BookNotFoundException("Book not found with publicId: " + publicId)))
+                .doOnSuccess(ignored -> log.info("Successfully deleted book with publicId: {}", publicId));
+    }
+}
@@ -0,0 +1,58 @@
+package com.saida.bookstore.util;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Утилитный класс для разбора строк CSV (RFC 4180).
+ * Поддерживает поля в кавычках и экранирование кавычек удвоением.
+ * Переводы строк внутри полей не поддерживаются.
+ */
+public final class CsvUtils {
+
+    private static final char DELIMITER = ',';
+    private static final char QUOTE = '"';
+
+    private CsvUtils() {
+        // Утилитный класс
+    }
+
+    /**
+     * Разбивает строку CSV на поля.
+     *
+     * @param line строка CSV без завершающего перевода строки
+     * @return значения полей в порядке следования
+     * @throws IllegalArgumentException если кавычка не закрыта
+     */
+    public static List<String> parseLine(String line) {
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c != QUOTE) {
+                    field.append(c);
+                } else if (i + 1 < line.length() && line.charAt(i + 1) == QUOTE) {
+                    field.append(QUOTE);
+                    i++;
+                } else {
+                    quoted = false;
+                }
+            } else if (c == QUOTE) {
+                quoted = true;
+            } else if (c == DELIMITER) {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else {
+                field.append(c);
+            }
+        }
+        if (quoted) {
+            throw new IllegalArgumentException("Unterminated quoted field");
+        }
+        fields.add(field.toString());
+        return fields;
+    }
+}
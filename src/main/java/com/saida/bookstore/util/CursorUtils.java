@@ -0,0 +1,101 @@
+package com.saida.bookstore.util;
+
+import com.saida.bookstore.dto.BookCursor;
+import com.saida.bookstore.dto.BookSearchCursor;
+import com.saida.bookstore.exception.InvalidBookDataException;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+/**
+ * Утилитный класс для кодирования курсоров постраничной выборки.
+ * Курсор передаётся клиенту как непрозрачная base64url строка.
+ */
+public final class CursorUtils {
+
+    private static final char SEPARATOR = '|';
+
+    private CursorUtils() {
+        // Утилитный класс
+    }
+
+    /**
+     * Кодирует позицию в выборке в непрозрачный токен.
+     *
+     * @param cursor позиция последней книги на странице
+     * @return base64url строка без паддинга
+     */
+    public static String encode(BookCursor cursor) {
+        return encodeRaw(cursor.createdAt().toString() + SEPARATOR + cursor.id());
+    }
+
+    /**
+     * Кодирует позицию в результатах поиска в непрозрачный токен.
+     *
+     * @param cursor позиция последней книги на странице поиска
+     * @return base64url строка без паддинга
+     */
+    public static String encode(BookSearchCursor cursor) {
+        // Float.toString даёт кратчайшее представление, которое однозначно восстанавливается
+        return encodeRaw(Float.toString(cursor.rank()) + SEPARATOR + cursor.id());
+    }
+
+    /**
+     * Декодирует токен, полученный от клиента.
+     *
+     * @param token токен из параметра запроса
+     * @return позиция в выборке
+     * @throws InvalidBookDataException если токен повреждён или подделан
+     */
+    public static BookCursor decode(String token) {
+        try {
+            String raw = decodeRaw(token);
+            int separatorIndex = separatorIndex(raw, token);
+            return new BookCursor(
+                    LocalDateTime.parse(raw.substring(0, separatorIndex)),
+                    Long.parseLong(raw.substring(separatorIndex + 1))
+            );
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            throw new InvalidBookDataException("Invalid cursor: " + token);
+        }
+    }
+
+    /**
+     * Декодирует токен страницы поиска, полученный от клиента.
+     *
+     * @param token токен из параметра запроса
+     * @return позиция в результатах поиска
+     * @throws InvalidBookDataException если токен повреждён или подделан
+     */
+    public static BookSearchCursor decodeSearch(String token) {
+        try {
+            String raw = decodeRaw(token);
+            int separatorIndex = separatorIndex(raw, token);
+            float rank = Float.parseFloat(raw.substring(0, separatorIndex));
+            if (!Float.isFinite(rank)) {
+                throw new InvalidBookDataException("Invalid cursor: " + token);
+            }
+            return new BookSearchCursor(rank, Long.parseLong(raw.substring(separatorIndex + 1)));
+        } catch (IllegalArgumentException e) {
+            throw new InvalidBookDataException("Invalid cursor: " + token);
+        }
+    }
+
+    private static String encodeRaw(String raw) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static String decodeRaw(String token) {
+        return new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+    }
+
+    private static int separatorIndex(String raw, String token) {
+        int separatorIndex = raw.lastIndexOf(SEPARATOR);
+        if (separatorIndex < 0) {
+            throw new InvalidBookDataException("Invalid cursor: " + token);
+        }
+        return separatorIndex;
+    }
+}
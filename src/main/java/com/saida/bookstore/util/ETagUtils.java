@@ -0,0 +1,109 @@
+package com.saida.bookstore.util;
+
+import com.saida.bookstore.dto.BookDto;
+import com.saida.bookstore.dto.BookPageVersion;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Утилитный класс для построения валидаторов HTTP-кэширования.
+ * ETag книги строится из номера версии строки, ETag страницы — из updated_at её книг, а не из хэша тела ответа,
+ * поэтому для проверки If-None-Match JSON сериализовать не нужно.
+ * Тот же ETag книги клиент передаёт в If-Match для условного обновления.
+ */
+public final class ETagUtils {
+
+    private static final LocalDateTime EPOCH = LocalDateTime.of(1970, 1, 1, 0, 0);
+
+    private ETagUtils() {
+        // Утилитный класс
+    }
+
+    /**
+     * Строит сильный ETag книги по её версии.
+     *
+     * @param book книга с заполненной версией
+     * @return ETag в кавычках
+     */
+    public static String of(BookDto book) {
+        return "\"" + book.version() + '"';
+    }
+
+    /**
+     * Извлекает версии книги из заголовка If-Match. Представления книги в других форматах и в gzip
+     * отличаются суффиксом ETag, но версия у них общая, поэтому подходит ETag любого из них.
+     * Слабые ETag пропускаются: If-Match сравнивает ETag строго.
+     *
+     * @param ifMatch значение заголовка If-Match
+     * @return версии из заголовка, возможно пустой список, или null, если заголовка нет или он равен *
+     */
+    public static List<Long> parseVersions(String ifMatch) {
+        if (ifMatch == null || ifMatch.isBlank()) {
+            return null;
+        }
+        List<Long> versions = new ArrayList<>();
+        for (String etag : ifMatch.split(",")) {
+            etag = etag.trim();
+            if (etag.equals("*")) {
+                return null;
+            }
+            if (etag.length() < 3 || etag.charAt(0) != '"' || etag.charAt(etag.length() - 1) != '"') {
+                continue;
+            }
+            int end = 1;
+            while (end < etag.length() - 1 && Character.isDigit(etag.charAt(end))) {
+                end++;
+            }
+            // Версия — число целиком или до суффикса представления, например "5-cbor"
+            if (end > 1 && end <= 19 && (etag.charAt(end) == '"' || etag.charAt(end) == '-')) {
+                versions.add(Long.parseLong(etag, 1, end, 10));
+            }
+        }
+        return versions;
+    }
+
+    /**
+     * Строит сильный ETag страницы книг.
+     *
+     * @param version версия страницы
+     * @return ETag в кавычках
+     */
+    public static String of(BookPageVersion version) {
+        LocalDateTime lastUpdatedAt = version.lastUpdatedAt() != null ? version.lastUpdatedAt() : EPOCH;
+        return "\"" + Long.toHexString(version.count())
+                + '-' + Long.toHexString(version.idSum())
+                + '-' + Long.toHexString(micros(lastUpdatedAt)) + '"';
+    }
+
+    /**
+     * Добавляет к ETag имя представления. Одна и та же страница в JSON, CBOR и протобуфе —
+     * разные представления, и сильные ETag у них должны различаться.
+     *
+     * @param etag           ETag в кавычках
+     * @param representation имя представления, например cbor
+     * @return ETag в кавычках
+     */
+    public static String forRepresentation(String etag, String representation) {
+        return etag.substring(0, etag.length() - 1) + '-' + representation + '"';
+    }
+
+    /**
+     * Переводит время последнего изменения книги в значение заголовка Last-Modified.
+     * Время в базе хранится без зоны в часовом поясе приложения.
+     *
+     * @param book книга с заполненным updatedAt
+     * @return миллисекунды от начала эпохи
+     */
+    public static long lastModified(BookDto book) {
+        return book.updatedAt().atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+
+    private static long micros(LocalDateTime dateTime) {
+        // PostgreSQL хранит TIMESTAMP с точностью до микросекунд, поэтому более мелкие доли не учитываются
+        return ChronoUnit.MICROS.between(EPOCH, dateTime);
+    }
+}
@@ -1,38 +1,85 @@
 package com.saida.bookstore.util;
 
-import org.apache.logging.log4j.util.Strings;
-
 /**
  * Утилитный класс для валидации ISBN.
- * Содержит методы для проверки формата и нормализации ISBN номеров.
+ * Содержит методы для проверки формата и контрольной суммы, нормализации и приведения ISBN к ISBN-13.
+ * <p>
+ * Все проверки выполняются за один проход по символам строки, без регулярных выражений и
+ * промежуточных строк. Дефисы и пробелы считаются разделителями и пропускаются.
+ * <p>
+ * Примеры валидных ISBN:
+ * - ISBN-10: "0306406152", "0-306-40615-2", "080442957X"
+ * - ISBN-13: "9780306406157", "978-0-306-40615-7"; ISBN-13 начинается с префикса 978 или 979
  */
 public final class IsbnUtils {
 
+    public static final int ISBN_10_LENGTH = 10;
+    public static final int ISBN_13_LENGTH = 13;
+
     /**
-     * Регулярное выражение для проверки форматов ISBN-10 и ISBN-13.
-     * <p>
-     * Примеры валидных ISBN:
-     * - ISBN-10: "1234567890", "123456789X"
-     * - ISBN-13: "9781234567890", "1234567890123"
+     * Результат проверки ISBN.
      */
-    public static final String ISBN_PATTERN = "^(?:\\d{9}[\\dXx]|\\d{13})$";
+    public enum Check {
+        /** Формат и контрольная сумма корректны. */
+        VALID,
+        /** Строка не является ISBN-10 или ISBN-13 с префиксом 978 или 979. */
+        INVALID_FORMAT,
+        /** Формат корректен, но контрольная цифра не совпадает. */
+        INVALID_CHECKSUM
+    }
+
+    /** Сумма взвешенных цифр префикса "978" по правилу ISBN-13: 9*1 + 7*3 + 8*1. */
+    private static final int ISBN_978_PREFIX_SUM = 38;
+
+    /** Префиксы ISBN-13; так же их проверяет миграция 012-canonical-isbn13-normalized. */
+    private static final int ISBN_13_PREFIX_978 = 978;
+    private static final int ISBN_13_PREFIX_979 = 979;
+    private static final int ISBN_13_PREFIX_LENGTH = 3;
+
+    private static final int MALFORMED = -1;
+    private static final int BAD_CHECKSUM = -2;
 
     private IsbnUtils() {
         // Утилитный класс
     }
 
     /**
-     * Проверяет, соответствует ли строка формату ISBN-10 или ISBN-13.
+     * Проверяет формат и контрольную сумму ISBN.
+     *
+     * @param isbn строка для проверки, допускаются дефисы и пробелы
+     * @return результат проверки; для null — {@link Check#INVALID_FORMAT}
+     */
+    public static Check check(String isbn) {
+        int result = scan(isbn);
+        if (result == MALFORMED) {
+            return Check.INVALID_FORMAT;
+        }
+        return result == BAD_CHECKSUM ? Check.INVALID_CHECKSUM : Check.VALID;
+    }
+
+    /**
+     * Проверяет, соответствует ли строка формату ISBN-10 или ISBN-13 (без проверки контрольной суммы).
      *
      * @param isbn строка для проверки
      * @return true если строка соответствует формату ISBN, false в противном случае
      */
     public static boolean isValidFormat(String isbn) {
-        return isbn != null && isbn.matches(ISBN_PATTERN);
+        return scan(isbn) != MALFORMED;
+    }
+
+    /**
+     * Проверяет формат и контрольную сумму ISBN-10 (mod 11) или ISBN-13 (mod 10).
+     *
+     * @param isbn строка для проверки
+     * @return true если ISBN корректен
+     */
+    public static boolean isValid(String isbn) {
+        return scan(isbn) > 0;
     }
 
     /**
-     * Нормализует ISBN: удаляет дефисы и преобразует в верхний регистр.
+     * Нормализует ISBN: удаляет дефисы и пробелы, приводит 'x' к верхнему регистру.
+     * Если строка уже нормализована, возвращается тот же экземпляр без копирования.
      *
      * @param isbn ISBN строка для нормализации
      * @return нормализованная ISBN строка или null если входная строка null
@@ -41,6 +88,130 @@ public final class IsbnUtils {
         if (isbn == null) {
             return null;
         }
-        return isbn.replace("-", Strings.EMPTY).toUpperCase();
+        int length = isbn.length();
+        int i = 0;
+        while (i < length && !needsNormalization(isbn.charAt(i))) {
+            i++;
+        }
+        if (i == length) {
+            return isbn;
+        }
+
+        char[] chars = new char[length];
+        isbn.getChars(0, i, chars, 0);
+        int size = i;
+        for (; i < length; i++) {
+            char c = isbn.charAt(i);
+            if (isSeparator(c)) {
+                continue;
+            }
+            chars[size++] = c == 'x' ? 'X' : c;
+        }
+        return new String(chars, 0, size);
+    }
+
+    /**
+     * Приводит корректный ISBN к каноническому виду — ISBN-13 без разделителей.
+     * ISBN-10 переводится в ISBN-13 с префиксом 978 и пересчитанной контрольной цифрой,
+     * поэтому обе формы одной книги попадают под одно ограничение уникальности.
+     *
+     * @param isbn ISBN-10 или ISBN-13, допускаются дефисы и пробелы
+     * @return ISBN-13 или null, если ISBN некорректен
+     */
+    public static String canonicalize(String isbn) {
+        int result = scan(isbn);
+        if (result == ISBN_13_LENGTH && isbn.length() == ISBN_13_LENGTH) {
+            return isbn;
+        }
+        if (result < 0) {
+            return null;
+        }
+
+        char[] chars = new char[ISBN_13_LENGTH];
+        int size = 0;
+        if (result == ISBN_10_LENGTH) {
+            chars[size++] = '9';
+            chars[size++] = '7';
+            chars[size++] = '8';
+        }
+        // Для ISBN-10 копируем девять цифр без контрольной, для ISBN-13 — все цифры
+        int end = result == ISBN_10_LENGTH ? ISBN_13_LENGTH - 1 : ISBN_13_LENGTH;
+        int sum = ISBN_978_PREFIX_SUM;
+        for (int i = 0; size < end; i++) {
+            char c = isbn.charAt(i);
+            if (c >= '0' && c <= '9') {
+                sum += (size % 2 == 0 ? 1 : 3) * (c - '0');
+                chars[size++] = c;
+            }
+        }
+        if (result == ISBN_10_LENGTH) {
+            chars[size] = (char) ('0' + (10 - sum % 10) % 10);
+        }
+        return new String(chars);
+    }
+
+    /**
+     * Один проход по строке: проверяет формат и считает обе контрольные суммы.
+     *
+     * @return количество цифр (10 или 13), {@link #MALFORMED} или {@link #BAD_CHECKSUM}
+     */
+    private static int scan(String isbn) {
+        if (isbn == null) {
+            return MALFORMED;
+        }
+        int count = 0;
+        int sum10 = 0;
+        int sum13 = 0;
+        int prefix = 0;
+        boolean checkX = false;
+
+        for (int i = 0; i < isbn.length(); i++) {
+            char c = isbn.charAt(i);
+            if (isSeparator(c)) {
+                continue;
+            }
+            if (checkX || count == ISBN_13_LENGTH) {
+                return MALFORMED;
+            }
+
+            int digit;
+            if (c >= '0' && c <= '9') {
+                digit = c - '0';
+            } else if ((c == 'X' || c == 'x') && count == ISBN_10_LENGTH - 1) {
+                // 'X' допустим только как контрольная цифра ISBN-10 и означает 10
+                digit = 10;
+                checkX = true;
+            } else {
+                return MALFORMED;
+            }
+
+            if (count < ISBN_10_LENGTH) {
+                sum10 += (ISBN_10_LENGTH - count) * digit;
+            }
+            if (count < ISBN_13_PREFIX_LENGTH) {
+                prefix = prefix * 10 + digit;
+            }
+            sum13 += (count % 2 == 0 ? 1 : 3) * digit;
+            count++;
+        }
+
+        if (count == ISBN_10_LENGTH) {
+            return sum10 % 11 == 0 ? ISBN_10_LENGTH : BAD_CHECKSUM;
+        }
+        if (count == ISBN_13_LENGTH) {
+            if (prefix != ISBN_13_PREFIX_978 && prefix != ISBN_13_PREFIX_979) {
+                return MALFORMED;
+            }
+            return sum13 % 10 == 0 ? ISBN_13_LENGTH : BAD_CHECKSUM;
+        }
+        return MALFORMED;
+    }
+
+    private static boolean isSeparator(char c) {
+        return c == '-' || c == ' ';
+    }
+
+    private static boolean needsNormalization(char c) {
+        return isSeparator(c) || c == 'x';
     }
-}
\ No newline at end of file
+}
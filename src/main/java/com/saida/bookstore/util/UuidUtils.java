@@ -0,0 +1,83 @@
+package com.saida.bookstore.util;
+
+import java.util.UUID;
+
+/**
+ * Утилитный класс для двоичного представления UUID: 16 байт, старшая половина первой, big-endian.
+ * Так UUID кодируют CBOR-сериализатор Jackson и протобуф-схема книг.
+ */
+public final class UuidUtils {
+
+    public static final int BYTES = 16;
+
+    private static final int TEXT_LENGTH = 36;
+
+    private UuidUtils() {
+        // Утилитный класс
+    }
+
+    /**
+     * Переводит текстовый UUID вида 123e4567-e89b-12d3-a456-426614174000 в 16 байт без создания {@link UUID}.
+     *
+     * @param uuid UUID в каноническом текстовом виде, в любом регистре
+     * @return 16 байт UUID
+     * @throws IllegalArgumentException если строка не является UUID в каноническом виде
+     */
+    public static byte[] toBytes(String uuid) {
+        if (uuid.length() != TEXT_LENGTH) {
+            throw new IllegalArgumentException("Invalid UUID: " + uuid);
+        }
+        byte[] bytes = new byte[BYTES];
+        int position = 0;
+        for (int i = 0; i < BYTES; i++) {
+            // Дефисы стоят перед 5-м, 7-м, 9-м и 11-м байтами
+            if (position == 8 || position == 13 || position == 18 || position == 23) {
+                if (uuid.charAt(position) != '-') {
+                    throw new IllegalArgumentException("Invalid UUID: " + uuid);
+                }
+                position++;
+            }
+            int high = Character.digit(uuid.charAt(position++), 16);
+            int low = Character.digit(uuid.charAt(position++), 16);
+            if (high < 0 || low < 0) {
+                throw new IllegalArgumentException("Invalid UUID: " + uuid);
+            }
+            bytes[i] = (byte) (high << 4 | low);
+        }
+        return bytes;
+    }
+
+    public static byte[] toBytes(UUID uuid) {
+        byte[] bytes = new byte[BYTES];
+        writeLong(bytes, 0, uuid.getMostSignificantBits());
+        writeLong(bytes, 8, uuid.getLeastSignificantBits());
+        return bytes;
+    }
+
+    /**
+     * Собирает UUID из 16 байт.
+     *
+     * @throws IllegalArgumentException если длина не равна 16
+     */
+    public static UUID fromBytes(byte[] bytes) {
+        if (bytes.length != BYTES) {
+            throw new IllegalArgumentException("UUID must be " + BYTES + " bytes, got " + bytes.length);
+        }
+        return new UUID(readLong(bytes, 0), readLong(bytes, 8));
+    }
+
+    private static void writeLong(byte[] bytes, int offset, long value) {
+        for (int i = 7; i >= 0; i--) {
+            bytes[offset + i] = (byte) value;
+            value >>>= 8;
+        }
+    }
+
+    private static long readLong(byte[] bytes, int offset) {
+        long value = 0;
+        for (int i = 0; i < 8; i++) {
+            value = value << 8 | (bytes[offset + i] & 0xFF);
+        }
+        return value;
+    }
+}
@@ -4,6 +4,23 @@ import com.saida.bookstore.dto.BookDto;
 
 import java.util.List;
 
+/**
+ * Проверка одного аспекта книги.
+ * <p>
+ * Реализации вызываются на каждую книгу при записи и импорте, поэтому для корректных данных
+ * должны возвращать общий неизменяемый {@link #NO_ERRORS}, а сообщения об ошибках —
+ * заранее подготовленными константами или формировать их только при обнаружении ошибки.
+ */
 public interface BookValidator {
+
+    /**
+     * Общий пустой результат для корректных данных.
+     */
+    List<String> NO_ERRORS = List.of();
+
+    /**
+     * @param bookDto проверяемая книга
+     * @return неизменяемый список ошибок или {@link #NO_ERRORS}
+     */
     List<String> validate(BookDto bookDto);
-}
\ No newline at end of file
+}
@@ -2,24 +2,74 @@ package com.saida.bookstore.validator;
 
 import com.saida.bookstore.dto.BookDto;
 import com.saida.bookstore.exception.ValidationException;
-import lombok.RequiredArgsConstructor;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import org.springframework.stereotype.Component;
 
+import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.TimeUnit;
 
+/**
+ * Применяет все {@link BookValidator} к книге.
+ * <p>
+ * Для корректной книги не выделяет память: валидаторы перебираются по массиву, а список
+ * ошибок создаётся только при первой ошибке. Время проверки публикуется в bookstore.validation.
+ */
 @Component
-@RequiredArgsConstructor
 public class CompositeBookValidator {
 
-    private final List<BookValidator> validators;
+    private final BookValidator[] validators;
+    private final Timer timer;
+
+    public CompositeBookValidator(List<BookValidator> validators, MeterRegistry meterRegistry) {
+        this.validators = validators.toArray(BookValidator[]::new);
+        this.timer = Timer.builder("bookstore.validation")
+                .description("Time spent validating a book")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+    }
 
     public void validate(BookDto bookDto) {
-        List<String> errors = validators.stream()
-                .flatMap(validator -> validator.validate(bookDto).stream())
-                .toList();
+        List<String> errors = collectErrors(bookDto, false);
 
         if (!errors.isEmpty()) {
             throw new ValidationException("Book data validation failed", errors);
         }
     }
-}
\ No newline at end of file
+
+    /**
+     * Собирает ошибки валидации без выброса исключения — для пакетных путей, где некорректная
+     * книга не прерывает обработку остальных.
+     *
+     * @param bookDto  проверяемая книга
+     * @param failFast остановиться на первом валидаторе, нашедшем ошибку
+     * @return список ошибок или общий пустой {@link BookValidator#NO_ERRORS}
+     */
+    public List<String> collectErrors(BookDto bookDto, boolean failFast) {
+        long start = System.nanoTime();
+        try {
+            return runValidators(bookDto, failFast);
+        } finally {
+            timer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    private List<String> runValidators(BookDto bookDto, boolean failFast) {
+        List<String> errors = BookValidator.NO_ERRORS;
+        for (BookValidator validator : validators) {
+            List<String> result = validator.validate(bookDto);
+            if (result.isEmpty()) {
+                continue;
+            }
+            if (failFast) {
+                return result;
+            }
+            if (errors.isEmpty()) {
+                errors = new ArrayList<>(result.size() + 1);
+            }
+            errors.addAll(result);
+        }
+        return errors;
+    }
+}
@@ -4,22 +4,26 @@ import com.saida.bookstore.dto.BookDto;
 import com.saida.bookstore.validator.BookValidator;
 import org.springframework.stereotype.Component;
 
-import java.util.ArrayList;
 import java.util.List;
 
 @Component
 public class BookAuthorValidator implements BookValidator {
 
+    private static final int MAX_AUTHOR_LENGTH = 255;
+
+    private static final List<String> AUTHOR_EMPTY = List.of("Author must not be empty");
+    private static final List<String> AUTHOR_TOO_LONG =
+            List.of("Author must not exceed " + MAX_AUTHOR_LENGTH + " characters");
+
     @Override
     public List<String> validate(BookDto bookDto) {
-        List<String> errors = new ArrayList<>();
-
-        if (bookDto.author() == null || bookDto.author().trim().isEmpty()) {
-            errors.add("Author must not be empty");
-        } else if (bookDto.author().length() > 255) {
-            errors.add("Author must not exceed 255 characters");
+        String author = bookDto.author();
+        if (author == null || author.isBlank()) {
+            return AUTHOR_EMPTY;
         }
-
-        return errors;
+        if (author.length() > MAX_AUTHOR_LENGTH) {
+            return AUTHOR_TOO_LONG;
+        }
+        return NO_ERRORS;
     }
-}
\ No newline at end of file
+}
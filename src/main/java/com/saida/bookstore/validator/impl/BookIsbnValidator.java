@@ -5,7 +5,6 @@ import com.saida.bookstore.util.IsbnUtils;
 import com.saida.bookstore.validator.BookValidator;
 import org.springframework.stereotype.Component;
 
-import java.util.ArrayList;
 import java.util.List;
 
 @Component
@@ -13,22 +12,26 @@ public class BookIsbnValidator implements BookValidator {
 
     private static final int MAX_ISBN_LEN = 20;
 
+    private static final List<String> ISBN_EMPTY = List.of("ISBN must not be empty");
+    private static final List<String> ISBN_TOO_LONG =
+            List.of("ISBN must not exceed " + MAX_ISBN_LEN + " characters");
+    private static final List<String> ISBN_INVALID_FORMAT =
+            List.of("Invalid ISBN format. Examples: '0306406152' or '9780306406157'");
+    private static final List<String> ISBN_INVALID_CHECKSUM = List.of("Invalid ISBN checksum");
+
     @Override
     public List<String> validate(BookDto bookDto) {
-        List<String> errors = new ArrayList<>();
-
-        if (bookDto.isbn() == null || bookDto.isbn().trim().isEmpty()) {
-            errors.add("ISBN must not be empty");
-        } else {
-            String normalizedIsbn = IsbnUtils.normalize(bookDto.isbn());
-
-            if (normalizedIsbn.length() > MAX_ISBN_LEN) {
-                errors.add(String.format("ISBN must not exceed %d characters", MAX_ISBN_LEN));
-            } else if (!IsbnUtils.isValidFormat(normalizedIsbn)) {
-                errors.add("Invalid ISBN format. Examples: '1234567890' or '9781234567890'");
-            }
+        String isbn = bookDto.isbn();
+        if (isbn == null || isbn.isBlank()) {
+            return ISBN_EMPTY;
         }
-
-        return errors;
+        if (isbn.length() > MAX_ISBN_LEN) {
+            return ISBN_TOO_LONG;
+        }
+        return switch (IsbnUtils.check(isbn)) {
+            case VALID -> NO_ERRORS;
+            case INVALID_FORMAT -> ISBN_INVALID_FORMAT;
+            case INVALID_CHECKSUM -> ISBN_INVALID_CHECKSUM;
+        };
     }
-}
\ No newline at end of file
+}
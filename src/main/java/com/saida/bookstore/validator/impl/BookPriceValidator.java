@@ -5,26 +5,36 @@ import com.saida.bookstore.validator.BookValidator;
 import org.springframework.stereotype.Component;
 
 import java.math.BigDecimal;
-import java.util.ArrayList;
 import java.util.List;
 
 @Component
 public class BookPriceValidator implements BookValidator {
 
     private static final int MAX_SCALE_SIZE = 2;
+    // Наибольшее значение столбца price DECIMAL(10, 2)
+    private static final BigDecimal MAX_PRICE = new BigDecimal("99999999.99");
+
+    private static final List<String> PRICE_NULL = List.of("Price must not be null");
+    private static final List<String> PRICE_NOT_POSITIVE = List.of("Price must be greater than 0");
+    private static final List<String> PRICE_TOO_LARGE = List.of("Price must not exceed " + MAX_PRICE);
+    private static final List<String> PRICE_SCALE_TOO_LARGE =
+            List.of("Price must have at most " + MAX_SCALE_SIZE + " decimal places");
 
     @Override
     public List<String> validate(BookDto bookDto) {
-        List<String> errors = new ArrayList<>();
-
-        if (bookDto.price() == null) {
-            errors.add("Price must not be null");
-        } else if (bookDto.price().compareTo(BigDecimal.ZERO) <= 0) {
-            errors.add("Price must be greater than 0");
-        } else if (bookDto.price().scale() > MAX_SCALE_SIZE) {
-            errors.add("Price must have at most 2 decimal places");
+        BigDecimal price = bookDto.price();
+        if (price == null) {
+            return PRICE_NULL;
         }
-
-        return errors;
+        if (price.signum() <= 0) {
+            return PRICE_NOT_POSITIVE;
+        }
+        if (price.compareTo(MAX_PRICE) > 0) {
+            return PRICE_TOO_LARGE;
+        }
+        if (price.scale() > MAX_SCALE_SIZE) {
+            return PRICE_SCALE_TOO_LARGE;
+        }
+        return NO_ERRORS;
     }
-}
\ No newline at end of file
+}
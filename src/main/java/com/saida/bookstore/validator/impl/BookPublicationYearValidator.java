@@ -5,28 +5,42 @@ import com.saida.bookstore.validator.BookValidator;
 import org.springframework.stereotype.Component;
 
 import java.time.Year;
-import java.util.ArrayList;
 import java.util.List;
 
 @Component
 public class BookPublicationYearValidator implements BookValidator {
 
-    private static final int MIN_PUBLICATION_YEAR = 1500;
+    // Как в ограничении chk_book_publication_year (publication_year > 1500): иначе строка прошла бы проверку,
+    // а пакетная вставка или COPY упали бы целиком
+    private static final int MIN_PUBLICATION_YEAR = 1501;
 
-    @Override
-    public List<String> validate(BookDto bookDto) {
-        List<String> errors = new ArrayList<>();
+    private static final List<String> YEAR_NULL = List.of("Publication year must not be null");
+    private static final List<String> YEAR_TOO_EARLY =
+            List.of("Publication year must be at least " + MIN_PUBLICATION_YEAR);
 
-        int currentYear = Year.now().getValue();
+    /**
+     * Текущий год, закэшированный, чтобы не обращаться к часам на каждую книгу.
+     * Перечитывается только когда год издания больше закэшированного значения —
+     * это покрывает смену года без перезапуска приложения.
+     */
+    private volatile int currentYear = Year.now().getValue();
 
-        if (bookDto.publicationYear() == null) {
-            errors.add("Publication year must not be null");
-        } else if (bookDto.publicationYear() < MIN_PUBLICATION_YEAR) {
-            errors.add(String.format("Publication year must be at least %s", MIN_PUBLICATION_YEAR));
-        } else if (bookDto.publicationYear() > currentYear) {
-            errors.add(String.format("Publication year must not exceed current year %s", currentYear));
+    @Override
+    public List<String> validate(BookDto bookDto) {
+        Integer publicationYear = bookDto.publicationYear();
+        if (publicationYear == null) {
+            return YEAR_NULL;
         }
-
-        return errors;
+        if (publicationYear < MIN_PUBLICATION_YEAR) {
+            return YEAR_TOO_EARLY;
+        }
+        if (publicationYear > currentYear) {
+            int year = Year.now().getValue();
+            currentYear = year;
+            if (publicationYear > year) {
+                return List.of("Publication year must not exceed current year " + year);
+            }
+        }
+        return NO_ERRORS;
     }
-}
\ No newline at end of file
+}
@@ -4,7 +4,6 @@ import com.saida.bookstore.dto.BookDto;
 import com.saida.bookstore.validator.BookValidator;
 import org.springframework.stereotype.Component;
 
-import java.util.ArrayList;
 import java.util.List;
 
 @Component
@@ -12,18 +11,19 @@ public class BookTitleValidator implements BookValidator {
 
     private static final int MAX_TITLE_LENGTH = 255;
 
+    private static final List<String> TITLE_EMPTY = List.of("Title must not be empty");
+    private static final List<String> TITLE_TOO_LONG =
+            List.of("Title must not exceed " + MAX_TITLE_LENGTH + " characters");
+
     @Override
     public List<String> validate(BookDto bookDto) {
-        List<String> errors = new ArrayList<>();
-
-        if (bookDto.title() == null || bookDto.title().trim().isEmpty()) {
-            errors.add("Title must not be empty");
-        } else {
-            if (bookDto.title().length() > MAX_TITLE_LENGTH) {
-                errors.add(String.format("Title must not exceed %d characters", MAX_TITLE_LENGTH));
-            }
+        String title = bookDto.title();
+        if (title == null || title.isBlank()) {
+            return TITLE_EMPTY;
         }
-
-        return errors;
+        if (title.length() > MAX_TITLE_LENGTH) {
+            return TITLE_TOO_LONG;
+        }
+        return NO_ERRORS;
     }
-}
\ No newline at end of file
+}
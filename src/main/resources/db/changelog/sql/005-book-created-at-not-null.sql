@@ -0,0 +1,7 @@
+--liquibase formatted sql
+--changeset saida:005-book-created-at-not-null
+-- Курсорная пагинация сортирует по (created_at, id), поэтому created_at не может быть NULL
+UPDATE book SET created_at = CURRENT_TIMESTAMP WHERE created_at IS NULL;
+ALTER TABLE book ALTER COLUMN created_at SET NOT NULL;
+
+--rollback ALTER TABLE book ALTER COLUMN created_at DROP NOT NULL;
@@ -0,0 +1,8 @@
+--liquibase formatted sql
+--changeset saida:006-public-id-uuid
+-- Индекс ограничения UNIQUE уже покрывает поиск по public_id, отдельный индекс только замедляет запись
+DROP INDEX idx_book_public_id;
+ALTER TABLE book ALTER COLUMN public_id TYPE UUID USING public_id::uuid;
+
+--rollback ALTER TABLE book ALTER COLUMN public_id TYPE VARCHAR(36) USING public_id::text;
+--rollback CREATE INDEX idx_book_public_id ON book (public_id);
@@ -0,0 +1,19 @@
+--liquibase formatted sql
+--changeset saida:007-canonical-isbn13
+-- ISBN-10 с корректной контрольной суммой переводятся в ISBN-13 (префикс 978),
+-- чтобы уникальный индекс по isbn не пропускал одну книгу в двух формах.
+-- Если ISBN-13 этой книги уже есть в таблице, строка остаётся как есть.
+UPDATE book b
+SET isbn = c.isbn13
+FROM (SELECT id,
+             '978' || left(isbn, 9) ||
+             ((10 - (38 + (SELECT sum(substr(isbn, i, 1)::int * CASE WHEN i % 2 = 0 THEN 1 ELSE 3 END)
+                           FROM generate_series(1, 9) AS i)) % 10) % 10)::text AS isbn13
+      FROM book
+      WHERE isbn ~ '^[0-9]{9}[0-9X]$'
+        AND (SELECT sum((11 - i) * CASE WHEN substr(isbn, i, 1) = 'X' THEN 10 ELSE substr(isbn, i, 1)::int END)
+             FROM generate_series(1, 10) AS i) % 11 = 0) c
+WHERE b.id = c.id
+  AND NOT EXISTS (SELECT 1 FROM book d WHERE d.isbn = c.isbn13);
+
+--rollback empty
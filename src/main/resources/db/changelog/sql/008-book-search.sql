@@ -0,0 +1,19 @@
+--liquibase formatted sql
+--changeset saida:008-book-search
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+
+-- Конфигурация 'simple': каталог многоязычный, стемминг одного языка испортил бы остальные
+ALTER TABLE book
+    ADD COLUMN search_vector TSVECTOR GENERATED ALWAYS AS (
+        setweight(to_tsvector('simple', title), 'A') ||
+        setweight(to_tsvector('simple', author), 'B')
+    ) STORED;
+
+CREATE INDEX idx_book_search_vector ON book USING GIN (search_vector);
+CREATE INDEX idx_book_title_trgm ON book USING GIN (title gin_trgm_ops);
+CREATE INDEX idx_book_author_trgm ON book USING GIN (author gin_trgm_ops);
+
+--rollback DROP INDEX idx_book_author_trgm;
+--rollback DROP INDEX idx_book_title_trgm;
+--rollback DROP INDEX idx_book_search_vector;
+--rollback ALTER TABLE book DROP COLUMN search_vector;
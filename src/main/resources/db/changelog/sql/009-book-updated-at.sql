@@ -0,0 +1,8 @@
+--liquibase formatted sql
+--changeset saida:009-book-updated-at
+-- Версия строки для ETag и Last-Modified: меняется при каждом обновлении книги
+ALTER TABLE book ADD COLUMN updated_at TIMESTAMP;
+UPDATE book SET updated_at = created_at;
+ALTER TABLE book ALTER COLUMN updated_at SET NOT NULL;
+
+--rollback ALTER TABLE book DROP COLUMN updated_at;
@@ -0,0 +1,44 @@
+--liquibase formatted sql
+--changeset saida:010-book-changes
+-- Outbox: строки пишет триггер в той же транзакции, что и изменение книги
+CREATE TABLE book_outbox (
+    id BIGSERIAL PRIMARY KEY,
+    change_type VARCHAR(7) NOT NULL,
+    public_id UUID NOT NULL,
+    changed_at TIMESTAMP NOT NULL DEFAULT LOCALTIMESTAMP
+);
+
+-- Опубликованные изменения: смещения без пропусков назначает релей в порядке публикации
+CREATE TABLE book_change (
+    change_offset BIGINT PRIMARY KEY,
+    change_type VARCHAR(7) NOT NULL,
+    public_id UUID NOT NULL,
+    changed_at TIMESTAMP NOT NULL,
+    published_at TIMESTAMP NOT NULL
+);
+
+CREATE INDEX idx_book_change_published_at ON book_change (published_at);
+
+--rollback DROP TABLE book_change;
+--rollback DROP TABLE book_outbox;
+
+--changeset saida:010-book-changes-trigger splitStatements:false
+CREATE FUNCTION book_outbox_capture() RETURNS TRIGGER AS $$
+BEGIN
+    IF TG_OP = 'DELETE' THEN
+        INSERT INTO book_outbox (change_type, public_id) VALUES ('DELETED', OLD.public_id);
+        RETURN OLD;
+    END IF;
+    INSERT INTO book_outbox (change_type, public_id)
+    VALUES (CASE TG_OP WHEN 'INSERT' THEN 'CREATED' ELSE 'UPDATED' END, NEW.public_id);
+    RETURN NEW;
+END;
+$$ LANGUAGE plpgsql;
+
+-- Триггер покрывает все пути записи: одиночные и пакетные вставки, импорт, обновление и удаление
+CREATE TRIGGER book_outbox_capture
+    AFTER INSERT OR UPDATE OR DELETE ON book
+    FOR EACH ROW EXECUTE FUNCTION book_outbox_capture();
+
+--rollback DROP TRIGGER book_outbox_capture ON book;
+--rollback DROP FUNCTION book_outbox_capture();
@@ -0,0 +1,7 @@
+--liquibase formatted sql
+--changeset saida:011-book-version
+-- Версия строки для оптимистичной блокировки: каждое обновление увеличивает её на 1.
+-- Значение по умолчанию задаётся без перезаписи таблицы (PostgreSQL 11+)
+ALTER TABLE book ADD COLUMN version BIGINT NOT NULL DEFAULT 0;
+
+--rollback ALTER TABLE book DROP COLUMN version;
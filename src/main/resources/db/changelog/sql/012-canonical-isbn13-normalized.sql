@@ -0,0 +1,74 @@
+--liquibase formatted sql
+--changeset saida:012-canonical-isbn13-normalized
+--validCheckSum: 9:05f793b3df72b605dac165aa6e606f13
+-- Сумма первой версии, где комментарий ниже не упоминал префикс ISBN-13; SQL с тех пор не менялся
+-- 007 переводил в ISBN-13 только ISBN-10 без разделителей. До него валидатор сохранял ISBN как есть,
+-- поэтому в таблице остались значения вида 0-306-40615-2, 978-0-306-40615-7 и 080442957x:
+-- уникальный индекс не ловит их дубли в каноническом виде, а поиск по ISBN их не находит.
+-- Здесь из ISBN убираются дефисы и пробелы, буква X приводится к верхнему регистру, и ISBN-10 или ISBN-13
+-- с префиксом 978 или 979 (как в IsbnUtils) с корректной контрольной суммой переводится в 13 цифр.
+-- Строки, которые не удалось перевести, остаются как есть
+-- и записываются в book_isbn_conflict для ручного разбора:
+--   INVALID   — ISBN не распознан или контрольная сумма неверна;
+--   DUPLICATE — канонический ISBN уже занят книгой duplicate_of_id.
+CREATE TABLE book_isbn_conflict (
+    book_id         BIGINT      PRIMARY KEY REFERENCES book (id) ON DELETE CASCADE,
+    isbn            VARCHAR(20) NOT NULL,
+    canonical_isbn  VARCHAR(13),
+    reason          VARCHAR(16) NOT NULL,
+    duplicate_of_id BIGINT      REFERENCES book (id) ON DELETE CASCADE,
+    detected_at     TIMESTAMP   NOT NULL DEFAULT LOCALTIMESTAMP
+);
+
+CREATE TEMPORARY TABLE book_isbn_canonical ON COMMIT DROP AS
+SELECT n.id,
+       n.isbn,
+       CASE
+           WHEN n.digits ~ '^[0-9]{9}[0-9X]$' THEN
+               CASE
+                   WHEN (SELECT sum((11 - i) * CASE WHEN substr(n.digits, i, 1) = 'X' THEN 10
+                                                    ELSE substr(n.digits, i, 1)::int END)
+                         FROM generate_series(1, 10) AS i) % 11 = 0
+                       THEN '978' || left(n.digits, 9) ||
+                            ((10 - (38 + (SELECT sum(substr(n.digits, i, 1)::int * CASE WHEN i % 2 = 0 THEN 1 ELSE 3 END)
+                                          FROM generate_series(1, 9) AS i)) % 10) % 10)::text
+               END
+           WHEN n.digits ~ '^97[89][0-9]{10}$' THEN
+               CASE
+                   WHEN (SELECT sum(substr(n.digits, i, 1)::int * CASE WHEN i % 2 = 0 THEN 3 ELSE 1 END)
+                         FROM generate_series(1, 13) AS i) % 10 = 0
+                       THEN n.digits
+               END
+       END AS canonical_isbn
+FROM (SELECT id, isbn, upper(translate(isbn, '- ', '')) AS digits
+      FROM book
+      WHERE isbn !~ '^[0-9]{13}$') n;
+
+INSERT INTO book_isbn_conflict (book_id, isbn, canonical_isbn, reason)
+SELECT id, isbn, canonical_isbn, 'INVALID'
+FROM book_isbn_canonical
+WHERE canonical_isbn IS NULL;
+
+-- Канонический ISBN достаётся книге, у которой он уже записан, иначе переводимой строке с наименьшим id
+INSERT INTO book_isbn_conflict (book_id, isbn, canonical_isbn, reason, duplicate_of_id)
+SELECT c.id, c.isbn, c.canonical_isbn, 'DUPLICATE',
+       coalesce((SELECT b.id FROM book b WHERE b.isbn = c.canonical_isbn),
+                (SELECT min(o.id) FROM book_isbn_canonical o WHERE o.canonical_isbn = c.canonical_isbn))
+FROM book_isbn_canonical c
+WHERE c.canonical_isbn IS NOT NULL
+  AND (EXISTS (SELECT 1 FROM book b WHERE b.isbn = c.canonical_isbn)
+       OR EXISTS (SELECT 1 FROM book_isbn_canonical o
+                  WHERE o.canonical_isbn = c.canonical_isbn AND o.id < c.id));
+
+-- Версия и время изменения растут, чтобы ETag и Last-Modified книги и страниц каталога сменились
+-- и клиенты не получали 304 на закэшированную книгу со старым ISBN
+UPDATE book b
+SET isbn = c.canonical_isbn,
+    version = b.version + 1,
+    updated_at = GREATEST(LOCALTIMESTAMP, b.updated_at + INTERVAL '1 microsecond')
+FROM book_isbn_canonical c
+WHERE b.id = c.id
+  AND c.canonical_isbn IS NOT NULL
+  AND NOT EXISTS (SELECT 1 FROM book_isbn_conflict x WHERE x.book_id = c.id);
+
+--rollback DROP TABLE book_isbn_conflict;
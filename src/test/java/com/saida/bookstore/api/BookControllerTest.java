@@ -1,38 +1,84 @@
 package com.saida.bookstore.api;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.saida.bookstore.api.codec.BookProtobufCodec;
+import com.saida.bookstore.api.codec.EncodedBookCache;
+import com.saida.bookstore.api.codec.ResponseCompressor;
+import com.saida.bookstore.api.request.BookLookupRequest;
 import com.saida.bookstore.api.request.BookRequest;
+import com.saida.bookstore.api.response.BookBatchItemResponse;
+import com.saida.bookstore.api.response.BookChangePageResponse;
+import com.saida.bookstore.api.response.BookChangeResponse;
+import com.saida.bookstore.api.response.BookLookupResponse;
+import com.saida.bookstore.api.response.BookPageResponse;
 import com.saida.bookstore.api.response.BookResponse;
+import com.saida.bookstore.api.response.BookStatsResponse;
+import com.saida.bookstore.config.CacheConfig;
+import com.saida.bookstore.dto.BookBatchResult;
+import com.saida.bookstore.dto.BookChange;
+import com.saida.bookstore.dto.BookChangePage;
+import com.saida.bookstore.dto.BookChangeType;
 import com.saida.bookstore.dto.BookDto;
+import com.saida.bookstore.dto.BookLookupResult;
+import com.saida.bookstore.dto.BookPageDto;
+import com.saida.bookstore.dto.BookPageVersion;
+import com.saida.bookstore.dto.BookSearchCriteria;
+import com.saida.bookstore.dto.BookStats;
+import com.saida.bookstore.dto.BookStatsDimension;
 import com.saida.bookstore.mapper.BookMapper;
+import com.saida.bookstore.repository.BookRowWriter;
+import com.saida.bookstore.service.BookChangeService;
 import com.saida.bookstore.service.BookService;
+import com.saida.bookstore.util.ETagUtils;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.quality.Strictness;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.util.unit.DataSize;
 
+import java.io.ByteArrayInputStream;
 import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.sql.ResultSet;
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.zip.GZIPInputStream;
 
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.ArgumentMatchers.any;
+
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.doNothing;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
+import static org.mockito.Mockito.withSettings;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @ExtendWith(MockitoExtension.class)
@@ -46,10 +92,21 @@ class BookControllerTest {
     @Mock
     private BookMapper bookMapper;
 
+    @Mock
+    private BookChangeService bookChangeService;
+
     @InjectMocks
     private BookController bookController;
 
-    private final ObjectMapper objectMapper = new ObjectMapper();
+    @Spy
+    private ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+
+    @Spy
+    private ResponseCompressor responseCompressor = new ResponseCompressor(DataSize.ofBytes(256));
+
+    @Spy
+    private EncodedBookCache encodedBookCache = new EncodedBookCache(
+            new ConcurrentMapCacheManager(CacheConfig.ENCODED_BOOKS_CACHE), objectMapper, responseCompressor);
 
     private final UUID PUBLIC_ID = UUID.fromString("123e4567-e89b-12d3-a456-426614174000");
     private final String ISBN = "978-3-16-148410-0";
@@ -57,6 +114,8 @@ class BookControllerTest {
     private final String AUTHOR = "Test Author";
     private final BigDecimal PRICE = new BigDecimal("29.99");
     private final int PUBLICATION_YEAR = 2023;
+    private final LocalDateTime UPDATED_AT = LocalDateTime.of(2024, 1, 15, 10, 30, 0, 123_456_000);
+    private final BookPageVersion PAGE_VERSION = new BookPageVersion(3, 42, UPDATED_AT);
 
     @BeforeEach
     public void setup() {
@@ -88,30 +147,423 @@ class BookControllerTest {
     }
 
     @Test
-    void getAllBooks_WhenBooksExist_ShouldReturnBookList() throws Exception {
+    void getBookById_WhenBookExists_ShouldReturnValidators() throws Exception {
         // Given
-        BookDto bookDto1 = createBookDto();
-        BookDto bookDto2 = new BookDto(UUID.randomUUID(), "Another Book", "Another Author",
-                "978-1-23-456789-0", new BigDecimal("39.99"), 2024, LocalDateTime.now());
+        BookDto bookDto = createBookDto();
 
-        BookResponse response1 = createBookResponse();
-        BookResponse response2 = new BookResponse(bookDto2.publicId(), bookDto2.title(), bookDto2.author(),
-                bookDto2.isbn(), bookDto2.price(), bookDto2.publicationYear(), bookDto2.createdAt());
+        when(bookService.getBookById(PUBLIC_ID)).thenReturn(bookDto);
+        when(bookMapper.toResponse(bookDto)).thenReturn(createBookResponse());
+
+        // When & Then
+        mockMvc.perform(get("/book/{publicId}", PUBLIC_ID))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", ETagUtils.of(bookDto)))
+                .andExpect(header().dateValue("Last-Modified", ETagUtils.lastModified(bookDto) / 1000 * 1000))
+                .andExpect(header().string("Cache-Control", "no-cache"));
+    }
+
+    @Test
+    void getBookById_WhenRequestedAgain_ShouldServeEncodedBytesWithoutMapper() throws Exception {
+        // Given
+        BookDto bookDto = createBookDto();
+
+        when(bookService.getBookById(PUBLIC_ID)).thenReturn(bookDto);
+        when(bookMapper.toResponse(bookDto)).thenReturn(createBookResponse());
+
+        // When
+        String first = mockMvc.perform(get("/book/{publicId}", PUBLIC_ID))
+                .andReturn().getResponse().getContentAsString();
+        String second = mockMvc.perform(get("/book/{publicId}", PUBLIC_ID))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+
+        // Then
+        assertThat(second).isEqualTo(first);
+        verify(bookMapper, times(1)).toResponse(bookDto);
+    }
+
+    @Test
+    void getBookById_WhenBookUpdated_ShouldEncodeNewVersion() throws Exception {
+        // Given
+        BookDto staleDto = createBookDto();
+        BookDto bookDto = new BookDto(PUBLIC_ID, "New Title", AUTHOR, ISBN, PRICE, PUBLICATION_YEAR,
+                staleDto.createdAt(), UPDATED_AT.plusNanos(1_000), 2L);
 
-        when(bookService.getAllBooks()).thenReturn(List.of(bookDto1, bookDto2));
-        when(bookMapper.toResponse(bookDto1)).thenReturn(response1);
-        when(bookMapper.toResponse(bookDto2)).thenReturn(response2);
+        when(bookService.getBookById(PUBLIC_ID)).thenReturn(staleDto, bookDto);
+        when(bookMapper.toResponse(staleDto)).thenReturn(createBookResponse());
+        when(bookMapper.toResponse(bookDto)).thenReturn(new BookResponse(PUBLIC_ID, "New Title", AUTHOR, ISBN,
+                PRICE, PUBLICATION_YEAR, bookDto.createdAt(), bookDto.updatedAt()));
+
+        // When
+        mockMvc.perform(get("/book/{publicId}", PUBLIC_ID));
+
+        // Then
+        mockMvc.perform(get("/book/{publicId}", PUBLIC_ID))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.title").value("New Title"));
+    }
+
+    @Test
+    void getBookById_WhenGzipAcceptedAndBookLarge_ShouldReturnCompressedBody() throws Exception {
+        // Given
+        BookDto bookDto = createBookDto();
+        // Тело больше порога сжатия в 256 байт
+        BookResponse bookResponse = new BookResponse(PUBLIC_ID, "Test Book Title ".repeat(16).trim(), AUTHOR,
+                ISBN, PRICE, PUBLICATION_YEAR, UPDATED_AT, UPDATED_AT);
+
+        when(bookService.getBookById(PUBLIC_ID)).thenReturn(bookDto);
+        when(bookMapper.toResponse(bookDto)).thenReturn(bookResponse);
+
+        // When
+        String identity = mockMvc.perform(get("/book/{publicId}", PUBLIC_ID))
+                .andReturn().getResponse().getContentAsString();
+        byte[] compressed = mockMvc.perform(get("/book/{publicId}", PUBLIC_ID).header("Accept-Encoding", "gzip, br"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Content-Encoding", "gzip"))
+                .andExpect(header().string("ETag", ETagUtils.forRepresentation(ETagUtils.of(bookDto), "gzip")))
+                .andExpect(header().string("Vary", "Accept, Accept-Encoding"))
+                .andReturn().getResponse().getContentAsByteArray();
+
+        // Then
+        assertThat(gunzip(compressed)).isEqualTo(identity);
+    }
+
+    @Test
+    void getBookById_WhenGzipAcceptedAndBookSmall_ShouldReturnBodyAsIs() throws Exception {
+        // Given
+        BookDto bookDto = createBookDto();
+
+        when(bookService.getBookById(PUBLIC_ID)).thenReturn(bookDto);
+        when(bookMapper.toResponse(bookDto)).thenReturn(createBookResponse());
 
         // When & Then
-        mockMvc.perform(get("/book"))
+        mockMvc.perform(get("/book/{publicId}", PUBLIC_ID).header("Accept-Encoding", "gzip"))
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist("Content-Encoding"))
+                .andExpect(jsonPath("$.title").value(TITLE));
+    }
+
+    @Test
+    void getBookById_WhenProtobufAccepted_ShouldReturnProtobufBook() throws Exception {
+        // Given
+        BookDto bookDto = createBookDto();
+        BookResponse bookResponse = new BookResponse(PUBLIC_ID, TITLE, AUTHOR, ISBN, PRICE, PUBLICATION_YEAR,
+                UPDATED_AT, UPDATED_AT);
+
+        when(bookService.getBookById(PUBLIC_ID)).thenReturn(bookDto);
+        when(bookMapper.toResponse(bookDto)).thenReturn(bookResponse);
+
+        // When
+        byte[] body = mockMvc.perform(get("/book/{publicId}", PUBLIC_ID).accept(BookProtobufCodec.MEDIA_TYPE))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(BookProtobufCodec.MEDIA_TYPE))
+                .andReturn().getResponse().getContentAsByteArray();
+
+        // Then
+        assertThat(BookProtobufCodec.decodeBook(body)).isEqualTo(bookResponse);
+    }
+
+    @Test
+    void getBookById_WhenETagMatches_ShouldReturnNotModifiedWithoutBody() throws Exception {
+        // Given
+        BookDto bookDto = createBookDto();
+
+        when(bookService.getBookById(PUBLIC_ID)).thenReturn(bookDto);
+
+        // When & Then
+        mockMvc.perform(get("/book/{publicId}", PUBLIC_ID).header("If-None-Match", ETagUtils.of(bookDto)))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string("ETag", ETagUtils.of(bookDto)))
+                .andExpect(content().string(""));
+
+        verify(bookMapper, never()).toResponse(any(BookDto.class));
+    }
+
+    @Test
+    void getBookById_WhenBookUpdatedSinceETag_ShouldReturnBook() throws Exception {
+        // Given
+        BookDto staleDto = createBookDto();
+        BookDto bookDto = new BookDto(PUBLIC_ID, TITLE, AUTHOR, ISBN, PRICE, PUBLICATION_YEAR,
+                staleDto.createdAt(), UPDATED_AT.plusNanos(1_000), 2L);
+
+        when(bookService.getBookById(PUBLIC_ID)).thenReturn(bookDto);
+        when(bookMapper.toResponse(bookDto)).thenReturn(createBookResponse());
+
+        // When & Then
+        mockMvc.perform(get("/book/{publicId}", PUBLIC_ID).header("If-None-Match", ETagUtils.of(staleDto)))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", ETagUtils.of(bookDto)));
+    }
+
+    @Test
+    void getAllBooks_WhenBooksExist_ShouldReturnBookPage() throws Exception {
+        // Given
+        BookResponse response1 = createBookResponse();
+        BookResponse response2 = new BookResponse(UUID.randomUUID(), "Another Book", "Another Author",
+                "978-1-23-456789-0", new BigDecimal("39.99"), 2024, LocalDateTime.now(), null);
+
+        when(bookService.getAllBooksVersion("cursor", 2)).thenReturn(PAGE_VERSION);
+        doAnswer(invocation -> {
+            BookRowWriter writer = invocation.getArgument(2);
+            writer.write(resultSet(response1));
+            writer.write(resultSet(response2));
+            return "next-cursor";
+        }).when(bookService).writeAllBooks(eq("cursor"), eq(2), any());
+
+        // When
+        String body = mockMvc.perform(get("/book").param("cursor", "cursor").param("limit", "2"))
                 .andExpect(status().isOk())
                 .andExpect(content().contentType(MediaType.APPLICATION_JSON))
-                .andExpect(jsonPath("$.length()").value(2))
-                .andExpect(jsonPath("$[0].title").value(TITLE))
-                .andExpect(jsonPath("$[1].title").value("Another Book"));
+                .andExpect(header().string("ETag", ETagUtils.of(PAGE_VERSION)))
+                .andExpect(header().string("Vary", "Accept, Accept-Encoding"))
+                .andReturn()
+                .getResponse()
+                .getContentAsString();
+
+        // Then
+        assertThat(objectMapper.readValue(body, BookPageResponse.class))
+                .isEqualTo(new BookPageResponse(List.of(response1, response2), "next-cursor"));
+        verifyNoInteractions(bookMapper);
+    }
+
+    @Test
+    void getAllBooks_WhenCborAccepted_ShouldReturnCborPage() throws Exception {
+        // Given
+        BookResponse response = createBookResponse();
+
+        when(bookService.getAllBooksVersion(null, null)).thenReturn(PAGE_VERSION);
+        doAnswer(invocation -> {
+            BookRowWriter writer = invocation.getArgument(2);
+            writer.write(resultSet(response));
+            return null;
+        }).when(bookService).writeAllBooks(eq(null), eq(null), any());
+
+        // When
+        byte[] body = mockMvc.perform(get("/book").accept("application/cbor, application/json;q=0.5"))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_CBOR))
+                .andExpect(header().string("ETag", ETagUtils.forRepresentation(ETagUtils.of(PAGE_VERSION), "cbor")))
+                .andReturn()
+                .getResponse()
+                .getContentAsByteArray();
+
+        // Then
+        ObjectMapper cborMapper = new ObjectMapper(new CBORFactory()).findAndRegisterModules();
+        assertThat(cborMapper.readValue(body, BookPageResponse.class))
+                .isEqualTo(new BookPageResponse(List.of(response), null));
+    }
+
+    @Test
+    void getAllBooks_WhenProtobufPreferred_ShouldReturnProtobufPage() throws Exception {
+        // Given
+        // Протобуф передаёт даты с точностью до микросекунд
+        BookResponse response = new BookResponse(PUBLIC_ID, TITLE, AUTHOR, ISBN, PRICE, PUBLICATION_YEAR,
+                UPDATED_AT, UPDATED_AT);
+
+        when(bookService.getAllBooksVersion(null, null)).thenReturn(PAGE_VERSION);
+        doAnswer(invocation -> {
+            BookRowWriter writer = invocation.getArgument(2);
+            writer.write(resultSet(response));
+            return "next-cursor";
+        }).when(bookService).writeAllBooks(eq(null), eq(null), any());
+
+        // When
+        byte[] body = mockMvc.perform(get("/book").accept("application/json;q=0.5, application/x-protobuf"))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(BookProtobufCodec.MEDIA_TYPE))
+                .andExpect(header().string("ETag",
+                        ETagUtils.forRepresentation(ETagUtils.of(PAGE_VERSION), "x-protobuf")))
+                .andReturn()
+                .getResponse()
+                .getContentAsByteArray();
+
+        // Then
+        assertThat(BookProtobufCodec.decodePage(body))
+                .isEqualTo(new BookPageResponse(List.of(response), "next-cursor"));
+    }
+
+    @Test
+    void getAllBooks_WhenFormatNotSupported_ShouldReturnNotAcceptable() throws Exception {
+        // When & Then
+        mockMvc.perform(get("/book").accept(MediaType.APPLICATION_XML))
+                .andExpect(status().isNotAcceptable());
+
+        verifyNoInteractions(bookService);
+    }
+
+    @Test
+    void getAllBooks_WhenGzipAcceptedAndPageLarge_ShouldReturnCompressedPage() throws Exception {
+        // Given
+        BookResponse response = createBookResponse();
+
+        when(bookService.getAllBooksVersion(null, null)).thenReturn(PAGE_VERSION);
+        doAnswer(invocation -> {
+            BookRowWriter writer = invocation.getArgument(2);
+            for (int i = 0; i < 5; i++) {
+                writer.write(resultSet(response));
+            }
+            return null;
+        }).when(bookService).writeAllBooks(eq(null), eq(null), any());
+
+        // When
+        byte[] body = mockMvc.perform(get("/book").header("Accept-Encoding", "gzip"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Content-Encoding", "gzip"))
+                .andExpect(header().string("ETag", ETagUtils.forRepresentation(ETagUtils.of(PAGE_VERSION), "gzip")))
+                .andReturn()
+                .getResponse()
+                .getContentAsByteArray();
+
+        // Then
+        assertThat(objectMapper.readValue(gunzip(body), BookPageResponse.class).items()).hasSize(5);
+    }
+
+    @Test
+    void getAllBooks_WhenGzipAcceptedAndPageSmall_ShouldReturnPageAsIs() throws Exception {
+        // Given
+        when(bookService.getAllBooksVersion(null, null)).thenReturn(PAGE_VERSION);
+
+        // When & Then
+        mockMvc.perform(get("/book").header("Accept-Encoding", "gzip"))
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist("Content-Encoding"))
+                .andExpect(content().json("{\"items\":[],\"nextCursor\":null}", true));
+    }
+
+    @Test
+    void getAllBooks_WhenETagMatches_ShouldReturnNotModifiedWithoutLoadingPage() throws Exception {
+        // Given
+        when(bookService.getAllBooksVersion(null, null)).thenReturn(PAGE_VERSION);
+
+        // When & Then
+        mockMvc.perform(get("/book").header("If-None-Match", ETagUtils.of(PAGE_VERSION)))
+                .andExpect(status().isNotModified())
+                .andExpect(content().string(""));
+
+        verify(bookService, never()).writeAllBooks(any(), any(), any());
+    }
+
+    @Test
+    void getAllBooks_WhenPageChanged_ShouldReturnNewETag() throws Exception {
+        // Given
+        BookPageVersion changed = new BookPageVersion(3, 43, UPDATED_AT);
+
+        when(bookService.getAllBooksVersion(null, null)).thenReturn(changed);
+
+        // When & Then
+        mockMvc.perform(get("/book").header("If-None-Match", ETagUtils.of(PAGE_VERSION)))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", ETagUtils.of(changed)))
+                .andExpect(content().json("{\"items\":[],\"nextCursor\":null}", true));
+    }
+
+    @Test
+    void lookupBooks_WhenKeysGiven_ShouldReturnItemsWithMisses() throws Exception {
+        // Given
+        UUID unknownId = UUID.fromString("00000000-0000-0000-0000-000000000000");
+        BookDto bookDto = createBookDto();
+        BookResponse bookResponse = createBookResponse();
+        BookLookupResult result = new BookLookupResult(
+                List.of(new BookLookupResult.Item(PUBLIC_ID.toString(), bookDto),
+                        new BookLookupResult.Item(unknownId.toString(), null)),
+                List.of(new BookLookupResult.Item("bad", null)));
+
+        when(bookService.lookupBooks(List.of(PUBLIC_ID, unknownId), List.of("bad"))).thenReturn(result);
+        when(bookMapper.toResponse(result)).thenReturn(new BookLookupResponse(
+                List.of(new BookLookupResponse.Item(PUBLIC_ID.toString(), true, bookResponse),
+                        new BookLookupResponse.Item(unknownId.toString(), false, null)),
+                List.of(new BookLookupResponse.Item("bad", false, null))));
+
+        // When & Then
+        mockMvc.perform(post("/book/lookup")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(
+                                new BookLookupRequest(List.of(PUBLIC_ID, unknownId), List.of("bad")))))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.publicIds[0].found").value(true))
+                .andExpect(jsonPath("$.publicIds[0].book.title").value(TITLE))
+                .andExpect(jsonPath("$.publicIds[1].found").value(false))
+                .andExpect(jsonPath("$.publicIds[1].book").doesNotExist())
+                .andExpect(jsonPath("$.isbns[0].key").value("bad"));
+    }
 
-        verify(bookService).getAllBooks();
-        verify(bookMapper, times(2)).toResponse(any(BookDto.class));
+    @Test
+    void searchBooks_WhenParamsGiven_ShouldPassCriteriaToService() throws Exception {
+        // Given
+        BookSearchCriteria criteria = new BookSearchCriteria("clean code", "Martin", 2000, 2010,
+                new BigDecimal("10"), new BigDecimal("50"));
+        BookPageDto page = new BookPageDto(List.of(createBookDto()), null);
+
+        when(bookService.searchBooks(criteria, null, 5)).thenReturn(page);
+        when(bookMapper.toResponse(page)).thenReturn(new BookPageResponse(List.of(createBookResponse()), null));
+
+        // When & Then
+        mockMvc.perform(get("/book/search")
+                        .param("q", "clean code")
+                        .param("author", "Martin")
+                        .param("yearFrom", "2000")
+                        .param("yearTo", "2010")
+                        .param("priceMin", "10")
+                        .param("priceMax", "50")
+                        .param("limit", "5"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items.length()").value(1))
+                .andExpect(jsonPath("$.items[0].title").value(TITLE));
+
+        verify(bookService).searchBooks(criteria, null, 5);
+    }
+
+    @Test
+    void getStats_WhenGroupByGiven_ShouldReturnGroups() throws Exception {
+        // Given
+        BookStats stats = new BookStats(List.of(BookStatsDimension.AUTHOR, BookStatsDimension.PRICE),
+                BigDecimal.TEN, List.of());
+        BookStatsResponse response = new BookStatsResponse(List.of("author", "price"), BigDecimal.TEN,
+                List.of(new BookStatsResponse.Group(AUTHOR, null, new BigDecimal("20"), new BigDecimal("30"), 1,
+                        PRICE, PRICE, PRICE)));
+
+        when(bookService.getStats(List.of("author", "price"), new BigDecimal("10"))).thenReturn(stats);
+        when(bookMapper.toResponse(stats)).thenReturn(response);
+
+        // When & Then
+        mockMvc.perform(get("/book/stats").param("groupBy", "author,price").param("priceBucket", "10"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.groupBy[0]").value("author"))
+                .andExpect(jsonPath("$.groups[0].author").value(AUTHOR))
+                .andExpect(jsonPath("$.groups[0].publicationYear").doesNotExist())
+                .andExpect(jsonPath("$.groups[0].priceFrom").value(20))
+                .andExpect(jsonPath("$.groups[0].count").value(1));
+    }
+
+    @Test
+    void exportBooks_WhenBooksExist_ShouldStreamNdjson() throws Exception {
+        // Given
+        BookResponse bookResponse = createBookResponse();
+
+        doAnswer(invocation -> {
+            BookRowWriter writer = invocation.getArgument(0);
+            writer.write(resultSet(bookResponse));
+            writer.write(resultSet(bookResponse));
+            return null;
+        }).when(bookService).exportBooks(any());
+
+        // When
+        MvcResult asyncResult = mockMvc.perform(get("/book/export"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        // Then
+        String body = mockMvc.perform(asyncDispatch(asyncResult))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_NDJSON))
+                .andReturn()
+                .getResponse()
+                .getContentAsString();
+
+        String[] lines = body.split("\n");
+        assertThat(lines).hasSize(2);
+        assertThat(objectMapper.readValue(lines[0], BookResponse.class)).isEqualTo(bookResponse);
+        assertThat(objectMapper.readValue(lines[1], BookResponse.class)).isEqualTo(bookResponse);
     }
 
     @Test
@@ -139,6 +591,38 @@ class BookControllerTest {
         verify(bookMapper).toResponse(bookDto);
     }
 
+    @Test
+    void saveBooks_WhenBatchRequest_ShouldReturnResultPerItem() throws Exception {
+        // Given
+        BookRequest bookRequest = createBookRequest();
+        BookDto bookDto = createBookDto();
+        List<BookBatchResult> results = List.of(
+                BookBatchResult.created(0, bookDto),
+                BookBatchResult.failed(1, List.of("Book with ISBN '" + ISBN + "' already exists")));
+        List<BookBatchItemResponse> responses = List.of(
+                new BookBatchItemResponse(0, BookBatchItemResponse.Status.CREATED, createBookResponse(), null),
+                new BookBatchItemResponse(1, BookBatchItemResponse.Status.FAILED, null,
+                        List.of("Book with ISBN '" + ISBN + "' already exists")));
+
+        when(bookMapper.toDto(bookRequest)).thenReturn(bookDto);
+        when(bookService.saveBooks(List.of(bookDto, bookDto))).thenReturn(results);
+        when(bookMapper.toBatchResponse(results)).thenReturn(responses);
+
+        // When & Then
+        mockMvc.perform(post("/book/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(List.of(bookRequest, bookRequest))))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(2))
+                .andExpect(jsonPath("$[0].status").value("CREATED"))
+                .andExpect(jsonPath("$[0].book.publicId").value(PUBLIC_ID.toString()))
+                .andExpect(jsonPath("$[1].status").value("FAILED"))
+                .andExpect(jsonPath("$[1].book").doesNotExist())
+                .andExpect(jsonPath("$[1].errors[0]").value("Book with ISBN '" + ISBN + "' already exists"));
+
+        verify(bookService).saveBooks(List.of(bookDto, bookDto));
+    }
+
     @Test
     void updateBook_WhenValidRequest_ShouldUpdateBook() throws Exception {
         // Given
@@ -147,7 +631,7 @@ class BookControllerTest {
         BookResponse bookResponse = createBookResponse();
 
         when(bookMapper.toDto(bookRequest)).thenReturn(bookDto);
-        when(bookService.updateBook(eq(PUBLIC_ID), eq(bookDto))).thenReturn(bookDto);
+        when(bookService.updateBook(eq(PUBLIC_ID), eq(bookDto), isNull())).thenReturn(bookDto);
         when(bookMapper.toResponse(bookDto)).thenReturn(bookResponse);
 
         // When & Then
@@ -157,13 +641,60 @@ class BookControllerTest {
                 .andExpect(status().isOk())
                 .andExpect(content().contentType(MediaType.APPLICATION_JSON))
                 .andExpect(jsonPath("$.publicId").value(PUBLIC_ID.toString()))
-                .andExpect(jsonPath("$.title").value(TITLE));
+                .andExpect(jsonPath("$.title").value(TITLE))
+                .andExpect(header().string("ETag", ETagUtils.of(bookDto)));
 
         verify(bookMapper).toDto(bookRequest);
-        verify(bookService).updateBook(PUBLIC_ID, bookDto);
+        verify(bookService).updateBook(PUBLIC_ID, bookDto, null);
         verify(bookMapper).toResponse(bookDto);
     }
 
+    @Test
+    void updateBook_WhenIfMatchGiven_ShouldPassExpectedVersions() throws Exception {
+        // Given
+        BookRequest bookRequest = createBookRequest();
+        BookDto bookDto = createBookDto();
+        BookDto updatedDto = new BookDto(PUBLIC_ID, TITLE, AUTHOR, ISBN, PRICE, PUBLICATION_YEAR,
+                bookDto.createdAt(), UPDATED_AT, 8L);
+
+        when(bookMapper.toDto(bookRequest)).thenReturn(bookDto);
+        when(bookService.updateBook(PUBLIC_ID, bookDto, List.of(7L, 6L))).thenReturn(updatedDto);
+        when(bookMapper.toResponse(updatedDto)).thenReturn(createBookResponse());
+
+        // When & Then
+        mockMvc.perform(put("/book/{publicId}", PUBLIC_ID)
+                        .header("If-Match", "\"7-cbor-gzip\", W/\"5\", \"6\"")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(bookRequest)))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "\"8\""));
+    }
+
+    @Test
+    void getChanges_WhenChangesAvailable_ShouldReturnChangesAsynchronously() throws Exception {
+        // Given
+        BookDto bookDto = createBookDto();
+        BookChangePage page = new BookChangePage(
+                List.of(new BookChange(8, BookChangeType.UPDATED, PUBLIC_ID, UPDATED_AT, bookDto)), 8);
+        BookChangePageResponse response = new BookChangePageResponse(
+                List.of(new BookChangeResponse(8, BookChangeType.UPDATED, PUBLIC_ID, UPDATED_AT,
+                        createBookResponse())), 8);
+        when(bookChangeService.awaitChanges(7L, null)).thenReturn(CompletableFuture.completedFuture(page));
+        when(bookMapper.toResponse(page)).thenReturn(response);
+
+        // When
+        MvcResult asyncResult = mockMvc.perform(get("/book/changes").param("since", "7"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        // Then
+        mockMvc.perform(asyncDispatch(asyncResult))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.nextOffset").value(8))
+                .andExpect(jsonPath("$.changes[0].type").value("UPDATED"))
+                .andExpect(jsonPath("$.changes[0].book.publicId").value(PUBLIC_ID.toString()));
+    }
+
     @Test
     void deleteBook_WhenBookExists_ShouldReturnNoContent() throws Exception {
         // Given
@@ -181,10 +712,32 @@ class BookControllerTest {
     }
 
     private BookDto createBookDto() {
-        return new BookDto(PUBLIC_ID, TITLE, AUTHOR, ISBN, PRICE, PUBLICATION_YEAR, LocalDateTime.now());
+        return new BookDto(PUBLIC_ID, TITLE, AUTHOR, ISBN, PRICE, PUBLICATION_YEAR, LocalDateTime.now(), UPDATED_AT, 1L);
     }
 
     private BookResponse createBookResponse() {
-        return new BookResponse(PUBLIC_ID, TITLE, AUTHOR, ISBN, PRICE, PUBLICATION_YEAR, LocalDateTime.now());
+        return new BookResponse(PUBLIC_ID, TITLE, AUTHOR, ISBN, PRICE, PUBLICATION_YEAR, LocalDateTime.now(),
+                UPDATED_AT);
+    }
+
+    // Строка результата запроса в том виде, в каком её отдаёт драйвер PostgreSQL
+    private static ResultSet resultSet(BookResponse book) throws Exception {
+        ResultSet rs = mock(ResultSet.class, withSettings().strictness(Strictness.LENIENT));
+        when(rs.getString("public_id")).thenReturn(book.publicId().toString());
+        when(rs.getString("title")).thenReturn(book.title());
+        when(rs.getString("author")).thenReturn(book.author());
+        when(rs.getString("isbn")).thenReturn(book.isbn());
+        when(rs.getString("price")).thenReturn(book.price().toString());
+        when(rs.getBigDecimal("price")).thenReturn(book.price());
+        when(rs.getInt("publication_year")).thenReturn(book.publicationYear());
+        when(rs.getObject("created_at", LocalDateTime.class)).thenReturn(book.createdAt());
+        when(rs.getObject("updated_at", LocalDateTime.class)).thenReturn(book.updatedAt());
+        return rs;
+    }
+
+    private static String gunzip(byte[] body) throws Exception {
+        try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(body))) {
+            return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        }
     }
-}
\ No newline at end of file
+}
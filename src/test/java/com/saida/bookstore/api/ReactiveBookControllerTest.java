@@ -0,0 +1,182 @@
+package com.saida.bookstore.api;
+
+import com.saida.bookstore.api.advice.ReactiveExceptionHandler;
+import com.saida.bookstore.api.response.BookPageResponse;
+import com.saida.bookstore.api.response.BookResponse;
+import com.saida.bookstore.dto.BookDto;
+import com.saida.bookstore.dto.BookPageDto;
+import com.saida.bookstore.dto.BookPageVersion;
+import com.saida.bookstore.exception.BookNotFoundException;
+import com.saida.bookstore.mapper.BookMapper;
+import com.saida.bookstore.service.ReactiveBookService;
+import com.saida.bookstore.util.ETagUtils;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class ReactiveBookControllerTest {
+
+    private WebTestClient webTestClient;
+
+    @Mock
+    private ReactiveBookService bookService;
+
+    @Mock
+    private BookMapper bookMapper;
+
+    @InjectMocks
+    private ReactiveBookController bookController;
+
+    private final UUID PUBLIC_ID = UUID.fromString("123e4567-e89b-12d3-a456-426614174000");
+    private final String ISBN = "978-3-16-148410-0";
+    private final String TITLE = "Test Book";
+    private final String AUTHOR = "Test Author";
+    private final BigDecimal PRICE = new BigDecimal("29.99");
+    private final int PUBLICATION_YEAR = 2023;
+    private final LocalDateTime UPDATED_AT = LocalDateTime.of(2024, 1, 15, 10, 30, 0, 123_456_000);
+    private final BookPageVersion PAGE_VERSION = new BookPageVersion(3, 42, UPDATED_AT);
+
+    @BeforeEach
+    public void setup() {
+        webTestClient = WebTestClient.bindToController(bookController)
+                .controllerAdvice(new ReactiveExceptionHandler())
+                .build();
+    }
+
+    @Test
+    void getBookById_WhenBookExists_ShouldReturnBookWithETag() {
+        // Given
+        BookDto bookDto = createBookDto();
+
+        when(bookService.getBookById(PUBLIC_ID)).thenReturn(Mono.just(bookDto));
+        when(bookMapper.toResponse(bookDto)).thenReturn(createBookResponse());
+
+        // When & Then
+        webTestClient.get().uri("/book/{publicId}", PUBLIC_ID)
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().valueEquals("ETag", ETagUtils.of(bookDto))
+                .expectBody()
+                .jsonPath("$.publicId").isEqualTo(PUBLIC_ID.toString())
+                .jsonPath("$.title").isEqualTo(TITLE);
+    }
+
+    @Test
+    void getBookById_WhenETagMatches_ShouldReturnNotModified() {
+        // Given
+        BookDto bookDto = createBookDto();
+        when(bookService.getBookById(PUBLIC_ID)).thenReturn(Mono.just(bookDto));
+
+        // When & Then
+        webTestClient.get().uri("/book/{publicId}", PUBLIC_ID)
+                .header("If-None-Match", ETagUtils.of(bookDto))
+                .exchange()
+                .expectStatus().isNotModified()
+                .expectBody().isEmpty();
+
+        verify(bookMapper, never()).toResponse(any(BookDto.class));
+    }
+
+    @Test
+    void getBookById_WhenBookNotExists_ShouldReturnNotFound() {
+        // Given
+        when(bookService.getBookById(PUBLIC_ID))
+                .thenReturn(Mono.error(new BookNotFoundException("Book not found with publicId: " + PUBLIC_ID)));
+
+        // When & Then
+        webTestClient.get().uri("/book/{publicId}", PUBLIC_ID)
+                .exchange()
+                .expectStatus().isNotFound()
+                .expectBody()
+                .jsonPath("$.error").isEqualTo("Book Not Found")
+                .jsonPath("$.path").isEqualTo("uri=/book/" + PUBLIC_ID);
+    }
+
+    @Test
+    void getAllBooks_WhenETagMatches_ShouldNotLoadPage() {
+        // Given
+        when(bookService.getAllBooksVersion(null, null)).thenReturn(Mono.just(PAGE_VERSION));
+
+        // When & Then
+        webTestClient.get().uri("/book")
+                .header("If-None-Match", ETagUtils.of(PAGE_VERSION))
+                .exchange()
+                .expectStatus().isNotModified();
+
+        verify(bookService, never()).getAllBooks(any(), any());
+    }
+
+    @Test
+    void getAllBooks_WhenBooksExist_ShouldReturnBookPage() {
+        // Given
+        BookPageDto page = new BookPageDto(List.of(createBookDto()), "next-cursor");
+
+        when(bookService.getAllBooksVersion("cursor", 1)).thenReturn(Mono.just(PAGE_VERSION));
+        when(bookService.getAllBooks("cursor", 1)).thenReturn(Mono.just(page));
+        when(bookMapper.toResponse(page))
+                .thenReturn(new BookPageResponse(List.of(createBookResponse()), "next-cursor"));
+
+        // When & Then
+        webTestClient.get().uri("/book?cursor=cursor&limit=1")
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().valueEquals("ETag", ETagUtils.of(PAGE_VERSION))
+                .expectBody()
+                .jsonPath("$.items.length()").isEqualTo(1)
+                .jsonPath("$.nextCursor").isEqualTo("next-cursor");
+    }
+
+    @Test
+    void exportBooks_WhenBooksExist_ShouldStreamNdjson() {
+        // Given
+        BookDto bookDto = createBookDto();
+        when(bookService.exportBooks()).thenReturn(Flux.just(bookDto, bookDto));
+        when(bookMapper.toResponse(bookDto)).thenReturn(createBookResponse());
+
+        // When & Then
+        webTestClient.get().uri("/book/export")
+                .accept(MediaType.APPLICATION_NDJSON)
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().contentTypeCompatibleWith(MediaType.APPLICATION_NDJSON)
+                .expectBodyList(BookResponse.class).hasSize(2);
+    }
+
+    @Test
+    void deleteBook_WhenBookExists_ShouldReturnNoContent() {
+        // Given
+        when(bookService.deleteBookById(PUBLIC_ID)).thenReturn(Mono.empty());
+
+        // When & Then
+        webTestClient.delete().uri("/book/{publicId}", PUBLIC_ID)
+                .exchange()
+                .expectStatus().isNoContent();
+    }
+
+    private BookDto createBookDto() {
+        return new BookDto(PUBLIC_ID, TITLE, AUTHOR, ISBN, PRICE, PUBLICATION_YEAR, LocalDateTime.now(), UPDATED_AT, 1L);
+    }
+
+    private BookResponse createBookResponse() {
+        return new BookResponse(PUBLIC_ID, TITLE, AUTHOR, ISBN, PRICE, PUBLICATION_YEAR, LocalDateTime.now(),
+                UPDATED_AT);
+    }
+}
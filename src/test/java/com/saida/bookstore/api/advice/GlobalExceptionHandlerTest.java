@@ -0,0 +1,74 @@
+package com.saida.bookstore.api.advice;
+
+import com.saida.bookstore.dto.ErrorResponse;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.transaction.CannotCreateTransactionException;
+import org.springframework.transaction.TransactionTimedOutException;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.context.request.WebRequest;
+
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class GlobalExceptionHandlerTest {
+
+    private final GlobalExceptionHandler handler = new GlobalExceptionHandler();
+    private final WebRequest request = new ServletWebRequest(new MockHttpServletRequest("GET", "/book"));
+
+    @Test
+    void handleGenericException_WhenQueryTimedOut_ShouldReturnServiceUnavailable() {
+        // Given
+        Exception ex = new RuntimeException("Error while fetching books page",
+                new QueryTimeoutException("canceling statement", new SQLException("canceling statement", "57014")));
+
+        // When
+        ResponseEntity<ErrorResponse> response = handler.handleGenericException(ex, request);
+
+        // Then
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.SERVICE_UNAVAILABLE);
+        assertThat(response.getHeaders().getFirst(HttpHeaders.RETRY_AFTER)).isEqualTo("1");
+        assertThat(response.getBody().getMessage()).contains("did not respond in time");
+    }
+
+    @Test
+    void handleGenericException_WhenTransactionTimedOut_ShouldReturnServiceUnavailable() {
+        // When
+        ResponseEntity<ErrorResponse> response = handler.handleGenericException(
+                new TransactionTimedOutException("Transaction timed out"), request);
+
+        // Then
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.SERVICE_UNAVAILABLE);
+    }
+
+    @Test
+    void handleGenericException_WhenNoConnection_ShouldReturnServiceUnavailable() {
+        // Given
+        Exception poolExhausted = new CannotCreateTransactionException("Could not open JDBC Connection",
+                new SQLTransientConnectionException("Connection is not available"));
+        Exception databaseDown = new CannotCreateTransactionException("Could not open JDBC Connection",
+                new SQLException("Connection refused"));
+
+        // When & Then
+        assertThat(handler.handleGenericException(poolExhausted, request).getBody().getMessage())
+                .contains("overloaded");
+        assertThat(handler.handleGenericException(databaseDown, request).getStatusCode())
+                .isEqualTo(HttpStatus.SERVICE_UNAVAILABLE);
+    }
+
+    @Test
+    void handleGenericException_WhenUnexpected_ShouldReturnInternalServerError() {
+        // When
+        ResponseEntity<ErrorResponse> response = handler.handleGenericException(
+                new IllegalStateException("boom"), request);
+
+        // Then
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.INTERNAL_SERVER_ERROR);
+    }
+}
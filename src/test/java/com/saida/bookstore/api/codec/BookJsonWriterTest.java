@@ -0,0 +1,124 @@
+package com.saida.bookstore.api.codec;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.saida.bookstore.api.response.BookResponse;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.ByteArrayOutputStream;
+import java.io.StringWriter;
+import java.math.BigDecimal;
+import java.sql.ResultSet;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class BookJsonWriterTest {
+
+    // Те же настройки, что у ObjectMapper приложения в Spring Boot: даты строками ISO-8601
+    private final ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json()
+            .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+            .build();
+    private final ObjectMapper cborMapper = Jackson2ObjectMapperBuilder.json()
+            .factory(new CBORFactory())
+            .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+            .build();
+
+    @Test
+    void write_WhenAllColumnsPresent_ShouldMatchBookResponseSerialization() throws Exception {
+        // Given
+        BookResponse expected = new BookResponse(UUID.fromString("0f8fad5b-d9cb-469f-a165-70867728950e"),
+                "Effective \"Java\"", "Joshua Bloch", "9780134685991", new BigDecimal("45.90"), 2018,
+                LocalDateTime.of(2024, 1, 15, 10, 30, 0, 123_450_000),
+                LocalDateTime.of(2024, 2, 1, 0, 0));
+        ResultSet rs = resultSet(expected);
+
+        // When
+        String json = write(rs);
+
+        // Then
+        assertThat(json).isEqualTo(objectMapper.writeValueAsString(expected));
+    }
+
+    @Test
+    void write_WhenNullableColumnsMissing_ShouldWriteNulls() throws Exception {
+        // Given
+        BookResponse expected = new BookResponse(UUID.randomUUID(), "Title", "Author", "9780306406157",
+                null, null, LocalDateTime.of(2024, 1, 15, 10, 30, 5), null);
+        ResultSet rs = resultSet(expected);
+        when(rs.wasNull()).thenReturn(true);
+
+        // When
+        String json = write(rs);
+
+        // Then
+        assertThat(json).isEqualTo(objectMapper.writeValueAsString(expected));
+        assertThat(objectMapper.readValue(json, BookResponse.class)).isEqualTo(expected);
+    }
+
+    @Test
+    void write_WhenCborGenerator_ShouldMatchBookResponseSerialization() throws Exception {
+        // Given
+        BookResponse expected = new BookResponse(UUID.fromString("0f8fad5b-d9cb-469f-a165-70867728950e"),
+                "Effective Java", "Joshua Bloch", "9780134685991", new BigDecimal("45.90"), 2018,
+                LocalDateTime.of(2024, 1, 15, 10, 30, 0, 123_450_000), null);
+        ResultSet rs = resultSet(expected);
+
+        // When
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (JsonGenerator generator = cborMapper.createGenerator(out)) {
+            BookJsonWriter.INSTANCE.write(rs, generator);
+        }
+
+        // Then
+        assertThat(out.toByteArray()).isEqualTo(cborMapper.writeValueAsBytes(expected));
+        assertThat(cborMapper.readValue(out.toByteArray(), BookResponse.class)).isEqualTo(expected);
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"2024-01-15T10:30", "2024-01-15T10:30:00.000000001", "2024-12-31T23:59:59.999999",
+            "2024-06-01T08:05:09.1", "0999-01-01T00:00:00.5", "+10000-01-01T00:00"})
+    void write_WhenDateTimeGiven_ShouldFormatLikeJackson(String dateTime) throws Exception {
+        // Given
+        LocalDateTime value = LocalDateTime.parse(dateTime);
+        BookResponse expected = new BookResponse(UUID.randomUUID(), "Title", "Author", "9780306406157",
+                new BigDecimal("1.00"), 2000, value, value);
+
+        // When
+        String json = write(resultSet(expected));
+
+        // Then
+        assertThat(json).isEqualTo(objectMapper.writeValueAsString(expected));
+    }
+
+    private String write(ResultSet rs) throws Exception {
+        StringWriter out = new StringWriter();
+        try (JsonGenerator generator = objectMapper.createGenerator(out)) {
+            BookJsonWriter.INSTANCE.write(rs, generator);
+        }
+        return out.toString();
+    }
+
+    // Драйвер PostgreSQL отдаёт uuid и numeric текстом в том же виде, что UUID и BigDecimal
+    private static ResultSet resultSet(BookResponse book) throws Exception {
+        ResultSet rs = mock(ResultSet.class);
+        when(rs.getString("public_id")).thenReturn(book.publicId().toString());
+        when(rs.getString("title")).thenReturn(book.title());
+        when(rs.getString("author")).thenReturn(book.author());
+        when(rs.getString("isbn")).thenReturn(book.isbn());
+        when(rs.getString("price")).thenReturn(book.price() != null ? book.price().toString() : null);
+        when(rs.getBigDecimal("price")).thenReturn(book.price());
+        when(rs.getInt("publication_year")).thenReturn(book.publicationYear() != null ? book.publicationYear() : 0);
+        when(rs.getObject("created_at", LocalDateTime.class)).thenReturn(book.createdAt());
+        when(rs.getObject("updated_at", LocalDateTime.class)).thenReturn(book.updatedAt());
+        return rs;
+    }
+}
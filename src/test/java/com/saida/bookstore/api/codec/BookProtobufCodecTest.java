@@ -0,0 +1,132 @@
+package com.saida.bookstore.api.codec;
+
+import com.saida.bookstore.api.response.BookPageResponse;
+import com.saida.bookstore.api.response.BookResponse;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.sql.ResultSet;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class BookProtobufCodecTest {
+
+    private static final BookResponse BOOK = new BookResponse(
+            UUID.fromString("0f8fad5b-d9cb-469f-a165-70867728950e"), "Effective Java", "Joshua Bloch",
+            "9780134685991", new BigDecimal("45.90"), 2018,
+            LocalDateTime.of(2024, 1, 15, 10, 30, 0, 123_456_000), LocalDateTime.of(2024, 2, 1, 0, 0));
+
+    @Test
+    void encode_WhenBookGiven_ShouldDecodeToSameBook() {
+        // When
+        byte[] bytes = BookProtobufCodec.encode(BOOK);
+
+        // Then
+        assertThat(BookProtobufCodec.decodeBook(bytes)).isEqualTo(BOOK);
+    }
+
+    @Test
+    void encode_WhenBookGiven_ShouldWriteUuidAsRawBytesAndPriceAsCents() {
+        // Given
+        BookResponse book = new BookResponse(BOOK.publicId(), null, null, null, new BigDecimal("45.90"),
+                null, null, null);
+
+        // When
+        byte[] bytes = BookProtobufCodec.encode(book);
+
+        // Then
+        // Поле 1 (bytes) длиной 16, затем поле 5 (sint64): 4590 в zigzag — 9180
+        assertThat(HexFormat.of().formatHex(bytes))
+                .isEqualTo("0a100f8fad5bd9cb469fa16570867728950e" + "28dc47");
+    }
+
+    @Test
+    void encode_WhenOptionalFieldsMissing_ShouldDecodeNulls() {
+        // Given
+        BookResponse book = new BookResponse(UUID.randomUUID(), "Книга", "Автор", "9780306406157",
+                new BigDecimal("-0.01"), null, LocalDateTime.of(1969, 12, 31, 23, 59, 59, 999_999_000), null);
+
+        // When
+        BookResponse decoded = BookProtobufCodec.decodeBook(BookProtobufCodec.encode(book));
+
+        // Then
+        assertThat(decoded).isEqualTo(book);
+    }
+
+    @Test
+    void encode_WhenPageGiven_ShouldDecodeToSamePage() {
+        // Given
+        BookResponse another = new BookResponse(UUID.randomUUID(), "Another Book", "Another Author",
+                "9780306406157", new BigDecimal("10.00"), 2024, LocalDateTime.of(2024, 3, 1, 12, 0), null);
+        BookPageResponse page = new BookPageResponse(List.of(BOOK, another), "next-cursor");
+
+        // When
+        byte[] bytes = BookProtobufCodec.encode(page);
+
+        // Then
+        assertThat(BookProtobufCodec.decodePage(bytes)).isEqualTo(page);
+    }
+
+    @Test
+    void pageWriter_WhenRowsWritten_ShouldMatchEncodedPage() throws Exception {
+        // Given
+        BookResponse withoutYear = new BookResponse(UUID.randomUUID(), "Title", "Author", "9780306406157",
+                null, null, LocalDateTime.of(2024, 1, 15, 10, 30, 5), null);
+        ResultSet rowWithoutYear = resultSet(withoutYear);
+        when(rowWithoutYear.wasNull()).thenReturn(true);
+        BookProtobufCodec.PageWriter pageWriter = new BookProtobufCodec.PageWriter();
+
+        // When
+        pageWriter.write(resultSet(BOOK));
+        pageWriter.write(rowWithoutYear);
+        byte[] bytes = pageWriter.finish(null);
+
+        // Then
+        assertThat(bytes).isEqualTo(BookProtobufCodec.encode(new BookPageResponse(List.of(BOOK, withoutYear), null)));
+    }
+
+    @Test
+    void decodeBook_WhenUnknownFieldsPresent_ShouldSkipThem() {
+        // Given
+        byte[] book = BookProtobufCodec.encode(BOOK);
+        // Поле 15 (varint) и поле 16 (fixed32) из будущей версии схемы
+        byte[] unknown = HexFormat.of().parseHex("7801" + "850101020304");
+        byte[] bytes = Arrays.copyOf(unknown, unknown.length + book.length);
+        System.arraycopy(book, 0, bytes, unknown.length, book.length);
+
+        // When & Then
+        assertThat(BookProtobufCodec.decodeBook(bytes)).isEqualTo(BOOK);
+    }
+
+    @Test
+    void decodeBook_WhenMessageTruncated_ShouldThrowException() {
+        // Given
+        byte[] book = BookProtobufCodec.encode(BOOK);
+
+        // When & Then
+        assertThatThrownBy(() -> BookProtobufCodec.decodeBook(Arrays.copyOf(book, book.length - 3)))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("Malformed protobuf message");
+    }
+
+    private static ResultSet resultSet(BookResponse book) throws Exception {
+        ResultSet rs = mock(ResultSet.class);
+        when(rs.getString("public_id")).thenReturn(book.publicId().toString());
+        when(rs.getString("title")).thenReturn(book.title());
+        when(rs.getString("author")).thenReturn(book.author());
+        when(rs.getString("isbn")).thenReturn(book.isbn());
+        when(rs.getBigDecimal("price")).thenReturn(book.price());
+        when(rs.getInt("publication_year")).thenReturn(book.publicationYear() != null ? book.publicationYear() : 0);
+        when(rs.getObject("created_at", LocalDateTime.class)).thenReturn(book.createdAt());
+        when(rs.getObject("updated_at", LocalDateTime.class)).thenReturn(book.updatedAt());
+        return rs;
+    }
+}
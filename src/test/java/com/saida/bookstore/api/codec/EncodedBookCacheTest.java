@@ -0,0 +1,51 @@
+package com.saida.bookstore.api.codec;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.saida.bookstore.api.response.BookResponse;
+import com.saida.bookstore.config.CacheConfig;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.http.MediaType;
+import org.springframework.util.unit.DataSize;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class EncodedBookCacheTest {
+
+    private static final UUID PUBLIC_ID = UUID.fromString("0f8fad5b-d9cb-469f-a165-70867728950e");
+
+    private final EncodedBookCache encodedBookCache = new EncodedBookCache(
+            new ConcurrentMapCacheManager(CacheConfig.ENCODED_BOOKS_CACHE),
+            new ObjectMapper().findAndRegisterModules(),
+            new ResponseCompressor(DataSize.ofKilobytes(1)));
+
+    @Test
+    void get_WhenBodyBelowThreshold_ShouldNotStoreGzip() {
+        // When
+        EncodedBookCache.EncodedBody body = encodedBookCache.get(PUBLIC_ID, "\"1\"", MediaType.APPLICATION_JSON,
+                () -> book("Effective Java"));
+
+        // Then
+        assertThat(body.identity()).hasSizeLessThan(1024);
+        assertThat(body.gzip()).isNull();
+    }
+
+    @Test
+    void get_WhenBodyAboveThreshold_ShouldStoreGzip() {
+        // When
+        EncodedBookCache.EncodedBody body = encodedBookCache.get(PUBLIC_ID, "\"1\"", MediaType.APPLICATION_JSON,
+                () -> book("Effective Java ".repeat(100)));
+
+        // Then
+        assertThat(body.gzip()).isNotNull().hasSizeLessThan(body.identity().length);
+    }
+
+    private static BookResponse book(String title) {
+        return new BookResponse(PUBLIC_ID, title, "Joshua Bloch", "9780134685991", new BigDecimal("45.90"), 2018,
+                LocalDateTime.of(2024, 1, 15, 10, 30), LocalDateTime.of(2024, 2, 1, 0, 0));
+    }
+}
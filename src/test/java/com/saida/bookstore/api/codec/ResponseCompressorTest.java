@@ -0,0 +1,54 @@
+package com.saida.bookstore.api.codec;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.util.unit.DataSize;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.GZIPInputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ResponseCompressorTest {
+
+    private final ResponseCompressor responseCompressor = new ResponseCompressor(DataSize.ofBytes(100));
+
+    @ParameterizedTest
+    @ValueSource(strings = {"gzip", "gzip, deflate, br", "br;q=1.0, GZIP;q=0.5", "*", "x-gzip", "deflate, *;q=0.1"})
+    void acceptsGzip_WhenGzipAccepted_ShouldReturnTrue(String acceptEncoding) {
+        assertThat(ResponseCompressor.acceptsGzip(acceptEncoding)).isTrue();
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"", "identity", "br, deflate", "gzip;q=0", "gzip;q=0.0, *", "*;q=0"})
+    void acceptsGzip_WhenGzipNotAccepted_ShouldReturnFalse(String acceptEncoding) {
+        assertThat(ResponseCompressor.acceptsGzip(acceptEncoding)).isFalse();
+    }
+
+    @Test
+    void acceptsGzip_WhenHeaderMissing_ShouldReturnFalse() {
+        assertThat(ResponseCompressor.acceptsGzip(null)).isFalse();
+    }
+
+    @Test
+    void compress_WhenBodyAboveThreshold_ShouldReturnGzip() throws Exception {
+        // Given
+        String body = "{\"title\":\"Effective Java\"}".repeat(10);
+
+        // When
+        byte[] compressed = responseCompressor.compress(body.getBytes(StandardCharsets.UTF_8));
+
+        // Then
+        assertThat(compressed).isNotNull().hasSizeLessThan(body.length());
+        try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(compressed))) {
+            assertThat(new String(in.readAllBytes(), StandardCharsets.UTF_8)).isEqualTo(body);
+        }
+    }
+
+    @Test
+    void compress_WhenBodyBelowThreshold_ShouldReturnNull() {
+        assertThat(responseCompressor.compress(new byte[99])).isNull();
+    }
+}
@@ -0,0 +1,92 @@
+package com.saida.bookstore.config;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class BulkheadDataSourceTest {
+
+    @Mock
+    private DataSource targetDataSource;
+
+    @Mock
+    private Connection targetConnection;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private BulkheadDataSource dataSource;
+
+    @BeforeEach
+    void setUp() {
+        dataSource = new BulkheadDataSource(targetDataSource, 1, Duration.ofMillis(50), meterRegistry);
+    }
+
+    @Test
+    void getConnection_WhenAllPermitsTaken_ShouldRejectAfterMaxWait() throws SQLException {
+        // Given
+        when(targetDataSource.getConnection()).thenReturn(targetConnection);
+        dataSource.getConnection();
+
+        // When & Then
+        assertThatThrownBy(() -> dataSource.getConnection())
+                .isInstanceOf(SQLTransientConnectionException.class);
+        assertThat(meterRegistry.get("bookstore.datasource.bulkhead.rejected").counter().count()).isEqualTo(1);
+        assertThat(meterRegistry.get("bookstore.datasource.bulkhead.wait").timer().count()).isEqualTo(2);
+    }
+
+    @Test
+    void close_WhenCalledTwice_ShouldReleasePermitOnce() throws SQLException {
+        // Given
+        when(targetDataSource.getConnection()).thenReturn(targetConnection);
+        Connection connection = dataSource.getConnection();
+
+        // When
+        connection.close();
+        connection.close();
+
+        // Then
+        verify(targetConnection, times(2)).close();
+        assertThat(meterRegistry.get("bookstore.datasource.bulkhead.available").gauge().value()).isEqualTo(1);
+        dataSource.getConnection();
+        assertThat(meterRegistry.get("bookstore.datasource.bulkhead.available").gauge().value()).isZero();
+    }
+
+    @Test
+    void getConnection_WhenPoolFails_ShouldReleasePermit() throws SQLException {
+        // Given
+        when(targetDataSource.getConnection()).thenThrow(new SQLException("pool is down"));
+
+        // When & Then
+        assertThatThrownBy(() -> dataSource.getConnection()).hasMessage("pool is down");
+        assertThat(meterRegistry.get("bookstore.datasource.bulkhead.available").gauge().value()).isEqualTo(1);
+    }
+
+    @Test
+    void connection_ShouldDelegateCallsToTarget() throws SQLException {
+        // Given
+        when(targetDataSource.getConnection()).thenReturn(targetConnection);
+        when(targetConnection.getAutoCommit()).thenReturn(false);
+
+        // When
+        Connection connection = dataSource.getConnection();
+
+        // Then
+        assertThat(connection.getAutoCommit()).isFalse();
+    }
+}
@@ -0,0 +1,86 @@
+package com.saida.bookstore.config;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.http.Cookie;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ReadYourWritesFilterTest {
+
+    private static final Instant NOW = Instant.parse("2024-01-01T00:00:00Z");
+
+    private final ReadYourWritesFilter filter = new ReadYourWritesFilter(Duration.ofMillis(5500),
+            Set.of("/book/lookup"), Clock.fixed(NOW, ZoneOffset.UTC));
+
+    @Test
+    void doFilter_WhenWrite_ShouldSetCookieAndRequirePrimary() throws Exception {
+        // Given
+        MockHttpServletRequest request = new MockHttpServletRequest("PUT", "/book/123");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        // When
+        boolean primaryRequired = filter(request, response);
+
+        // Then
+        assertThat(primaryRequired).isTrue();
+        assertThat(response.getHeader(HttpHeaders.SET_COOKIE))
+                .startsWith("bookstore-primary-until=" + (NOW.toEpochMilli() + 5500))
+                .contains("Max-Age=6")
+                .contains("HttpOnly");
+        assertThat(ReplicaRoutingContext.isPrimaryRequired()).isFalse();
+    }
+
+    @Test
+    void doFilter_WhenReadWithFreshCookie_ShouldRequirePrimary() throws Exception {
+        // Given
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/book/123");
+        request.setCookies(new Cookie(ReadYourWritesFilter.COOKIE_NAME, Long.toString(NOW.toEpochMilli() + 1)));
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        // When & Then
+        assertThat(filter(request, response)).isTrue();
+        assertThat(response.getHeader(HttpHeaders.SET_COOKIE)).isNull();
+    }
+
+    @Test
+    void doFilter_WhenReadWithExpiredOrMalformedCookie_ShouldAllowReplica() throws Exception {
+        // Given
+        MockHttpServletRequest expired = new MockHttpServletRequest("GET", "/book");
+        expired.setCookies(new Cookie(ReadYourWritesFilter.COOKIE_NAME, Long.toString(NOW.toEpochMilli())));
+        MockHttpServletRequest malformed = new MockHttpServletRequest("GET", "/book");
+        malformed.setCookies(new Cookie(ReadYourWritesFilter.COOKIE_NAME, "soon"));
+
+        // When & Then
+        assertThat(filter(expired, new MockHttpServletResponse())).isFalse();
+        assertThat(filter(malformed, new MockHttpServletResponse())).isFalse();
+    }
+
+    @Test
+    void doFilter_WhenReadOnlyPost_ShouldNotOpenWindow() throws Exception {
+        // Given
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/book/lookup");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        // When & Then
+        assertThat(filter(request, response)).isFalse();
+        assertThat(response.getHeader(HttpHeaders.SET_COOKIE)).isNull();
+    }
+
+    private boolean filter(MockHttpServletRequest request, MockHttpServletResponse response) throws Exception {
+        AtomicBoolean primaryRequired = new AtomicBoolean();
+        FilterChain chain = (req, res) -> primaryRequired.set(ReplicaRoutingContext.isPrimaryRequired());
+        filter.doFilter(request, response, chain);
+        return primaryRequired.get();
+    }
+}
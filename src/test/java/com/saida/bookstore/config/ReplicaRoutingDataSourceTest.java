@@ -0,0 +1,167 @@
+package com.saida.bookstore.config;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class ReplicaRoutingDataSourceTest {
+
+    @Mock
+    private DataSource primary;
+
+    @Mock
+    private DataSource replica0;
+
+    @Mock
+    private DataSource replica1;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private ReplicaSet replicaSet;
+    private ReplicaRoutingDataSource dataSource;
+
+    @BeforeEach
+    void setUp() {
+        Map<String, DataSource> replicas = new LinkedHashMap<>();
+        replicas.put("replica-0", replica0);
+        replicas.put("replica-1", replica1);
+        replicaSet = new ReplicaSet(replicas, Duration.ofSeconds(5), meterRegistry);
+        dataSource = new ReplicaRoutingDataSource(primary, replicaSet, meterRegistry);
+    }
+
+    @AfterEach
+    void tearDown() {
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(false);
+        ReplicaRoutingContext.clear();
+    }
+
+    @Test
+    void determineTarget_WhenNotReadOnly_ShouldUsePrimary() throws SQLException {
+        // Given
+        replicaLag(replica0, 0);
+        replicaLag(replica1, 0);
+        replicaSet.checkLag();
+
+        // When & Then
+        assertThat(dataSource.determineTarget()).isSameAs(primary);
+        assertThat(routed("primary", "read-write")).isEqualTo(1);
+    }
+
+    @Test
+    void determineTarget_WhenReadOnly_ShouldRoundRobinReplicas() throws SQLException {
+        // Given
+        replicaLag(replica0, 0);
+        replicaLag(replica1, 0);
+        replicaSet.checkLag();
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+
+        // When & Then
+        assertThat(dataSource.determineTarget()).isSameAs(replica0);
+        assertThat(dataSource.determineTarget()).isSameAs(replica1);
+        assertThat(routed("replica", "read-only")).isEqualTo(2);
+    }
+
+    @Test
+    void determineTarget_WhenReplicaLagsTooMuch_ShouldSkipIt() throws SQLException {
+        // Given
+        replicaLag(replica0, 10_000);
+        replicaLag(replica1, 100);
+        replicaSet.checkLag();
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+
+        // When & Then
+        assertThat(dataSource.determineTarget()).isSameAs(replica1);
+        assertThat(dataSource.determineTarget()).isSameAs(replica1);
+        assertThat(meterRegistry.get("bookstore.datasource.replica.lag").tag("replica", "replica-0").gauge().value())
+                .isEqualTo(10_000);
+    }
+
+    @Test
+    void determineTarget_WhenNoReplicaAvailable_ShouldFallBackToPrimary() throws SQLException {
+        // Given
+        when(replica0.getConnection()).thenThrow(new SQLException("Connection refused"));
+        replicaLag(replica1, 60_000);
+        replicaSet.checkLag();
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+
+        // When & Then
+        assertThat(dataSource.determineTarget()).isSameAs(primary);
+        assertThat(routed("primary", "no-replica")).isEqualTo(1);
+    }
+
+    @Test
+    void determineTarget_BeforeFirstLagCheck_ShouldUsePrimary() {
+        // Given
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+
+        // When & Then
+        assertThat(dataSource.determineTarget()).isSameAs(primary);
+    }
+
+    @Test
+    void determineTarget_WhenClientWroteRecently_ShouldUsePrimary() throws SQLException {
+        // Given
+        replicaLag(replica0, 0);
+        replicaLag(replica1, 0);
+        replicaSet.checkLag();
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+        ReplicaRoutingContext.begin(true);
+
+        // When & Then
+        assertThat(dataSource.determineTarget()).isSameAs(primary);
+        assertThat(routed("primary", "read-your-writes")).isEqualTo(1);
+        assertThat(ReplicaRoutingContext.isReplicaRead()).isFalse();
+    }
+
+    @Test
+    void determineTarget_WithinRequest_ShouldStayOnSameReplica() throws SQLException {
+        // Given
+        replicaLag(replica0, 0);
+        replicaLag(replica1, 0);
+        replicaSet.checkLag();
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+        ReplicaRoutingContext.begin(false);
+
+        // When & Then
+        assertThat(ReplicaRoutingContext.isReplicaRead()).isFalse();
+        assertThat(dataSource.determineTarget()).isSameAs(replica0);
+        assertThat(dataSource.determineTarget()).isSameAs(replica0);
+        assertThat(ReplicaRoutingContext.isReplicaRead()).isTrue();
+    }
+
+    private void replicaLag(DataSource replica, long lagMillis) throws SQLException {
+        Connection connection = mock(Connection.class);
+        Statement statement = mock(Statement.class);
+        ResultSet resultSet = mock(ResultSet.class);
+        when(replica.getConnection()).thenReturn(connection);
+        when(connection.createStatement()).thenReturn(statement);
+        when(statement.executeQuery(anyString())).thenReturn(resultSet);
+        when(resultSet.next()).thenReturn(true);
+        when(resultSet.getDouble(1)).thenReturn((double) lagMillis);
+    }
+
+    private double routed(String target, String reason) {
+        return meterRegistry.get("bookstore.datasource.routing").tag("target", target).tag("reason", reason)
+                .counter().count();
+    }
+}
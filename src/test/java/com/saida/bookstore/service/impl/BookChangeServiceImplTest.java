@@ -0,0 +1,185 @@
+package com.saida.bookstore.service.impl;
+
+import com.saida.bookstore.dto.BookChange;
+import com.saida.bookstore.dto.BookChangePage;
+import com.saida.bookstore.dto.BookChangeType;
+import com.saida.bookstore.entity.BookChangeEntity;
+import com.saida.bookstore.exception.ChangeOffsetExpiredException;
+import com.saida.bookstore.exception.InvalidBookDataException;
+import com.saida.bookstore.mapper.BookMapper;
+import com.saida.bookstore.repository.BookChangeRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class BookChangeServiceImplTest {
+
+    @Mock
+    private BookChangeRepository bookChangeRepository;
+
+    @Mock
+    private BookMapper bookMapper;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private BookChangeServiceImpl bookChangeService;
+
+    private final UUID PUBLIC_ID = UUID.fromString("123e4567-e89b-12d3-a456-426614174000");
+    private final LocalDateTime CHANGED_AT = LocalDateTime.of(2024, 1, 15, 10, 30);
+
+    @BeforeEach
+    void setUp() {
+        bookChangeService = new BookChangeServiceImpl(bookChangeRepository, bookMapper, meterRegistry,
+                Duration.ofSeconds(30));
+    }
+
+    @Test
+    void awaitChanges_WhenSinceMissing_ShouldReturnCurrentOffset() {
+        // Given
+        when(bookChangeRepository.findLatestOffset()).thenReturn(42L);
+
+        // When
+        BookChangePage page = bookChangeService.awaitChanges(null, null).join();
+
+        // Then
+        assertThat(page.changes()).isEmpty();
+        assertThat(page.nextOffset()).isEqualTo(42);
+        verify(bookChangeRepository, never()).findAfter(anyLong(), anyInt());
+    }
+
+    @Test
+    void awaitChanges_WhenChangesAvailable_ShouldCompleteImmediately() {
+        // Given
+        BookChangeEntity first = changeEntity(11);
+        BookChangeEntity second = changeEntity(12);
+        when(bookChangeRepository.findAfter(10, 100)).thenReturn(List.of(first, second));
+        when(bookMapper.toDto(first)).thenReturn(change(11));
+        when(bookMapper.toDto(second)).thenReturn(change(12));
+
+        // When
+        CompletableFuture<BookChangePage> result = bookChangeService.awaitChanges(10L, null);
+
+        // Then
+        assertThat(result).isCompleted();
+        assertThat(result.join().changes()).extracting(BookChange::offset).containsExactly(11L, 12L);
+        assertThat(result.join().nextOffset()).isEqualTo(12);
+    }
+
+    @Test
+    void awaitChanges_WhenEarlierChangesExpired_ShouldThrowChangeOffsetExpiredException() {
+        // Given
+        when(bookChangeRepository.findAfter(10, 100)).thenReturn(List.of(changeEntity(25)));
+
+        // When & Then
+        assertThatThrownBy(() -> bookChangeService.awaitChanges(10L, null))
+                .isInstanceOf(ChangeOffsetExpiredException.class);
+    }
+
+    @Test
+    void awaitChanges_WhenLimitInvalid_ShouldThrowInvalidBookDataException() {
+        assertThatThrownBy(() -> bookChangeService.awaitChanges(10L, 0))
+                .isInstanceOf(InvalidBookDataException.class);
+        assertThatThrownBy(() -> bookChangeService.awaitChanges(-1L, null))
+                .isInstanceOf(InvalidBookDataException.class);
+    }
+
+    @Test
+    void awaitChanges_WhenNoChanges_ShouldCompleteOnNotify() {
+        // Given
+        BookChangeEntity entity = changeEntity(11);
+        when(bookChangeRepository.findAfter(10, 50)).thenReturn(List.of(), List.of(entity));
+        when(bookChangeRepository.findLatestOffset()).thenReturn(11L);
+        when(bookMapper.toDto(entity)).thenReturn(change(11));
+        CompletableFuture<BookChangePage> result = bookChangeService.awaitChanges(10L, 50);
+        assertThat(result).isNotDone();
+
+        // When
+        bookChangeService.notifyWaiters();
+
+        // Then
+        assertThat(result).isCompleted();
+        assertThat(result.join().nextOffset()).isEqualTo(11);
+        assertThat(meterRegistry.get("bookstore.changes.waiting").gauge().value()).isZero();
+    }
+
+    @Test
+    void notifyWaiters_WhenWaitersShareOffset_ShouldQueryOnce() {
+        // Given
+        BookChangeEntity entity = changeEntity(11);
+        when(bookChangeRepository.findAfter(10, 100)).thenReturn(List.of(), List.of(), List.of(entity));
+        when(bookChangeRepository.findLatestOffset()).thenReturn(11L);
+        when(bookMapper.toDto(entity)).thenReturn(change(11));
+        CompletableFuture<BookChangePage> first = bookChangeService.awaitChanges(10L, null);
+        CompletableFuture<BookChangePage> second = bookChangeService.awaitChanges(10L, null);
+
+        // When
+        bookChangeService.notifyWaiters();
+
+        // Then
+        assertThat(first.join()).isSameAs(second.join());
+        verify(bookChangeRepository, times(3)).findAfter(10, 100);
+    }
+
+    @Test
+    void notifyWaiters_WhenOffsetNotAdvanced_ShouldKeepWaiting() {
+        // Given
+        when(bookChangeRepository.findAfter(10, 100)).thenReturn(List.of());
+        when(bookChangeRepository.findLatestOffset()).thenReturn(10L);
+        CompletableFuture<BookChangePage> result = bookChangeService.awaitChanges(10L, null);
+
+        // When
+        bookChangeService.notifyWaiters();
+
+        // Then
+        assertThat(result).isNotDone();
+        verify(bookChangeRepository, times(1)).findAfter(10, 100);
+    }
+
+    @Test
+    void awaitChanges_WhenTimeoutExpires_ShouldReturnEmptyPage() {
+        // Given
+        bookChangeService = new BookChangeServiceImpl(bookChangeRepository, bookMapper, meterRegistry,
+                Duration.ofMillis(50));
+        when(bookChangeRepository.findAfter(10, 100)).thenReturn(List.of());
+
+        // When
+        BookChangePage page = bookChangeService.awaitChanges(10L, null).orTimeout(5, TimeUnit.SECONDS).join();
+
+        // Then
+        assertThat(page.changes()).isEmpty();
+        assertThat(page.nextOffset()).isEqualTo(10);
+    }
+
+    private BookChangeEntity changeEntity(long offset) {
+        return BookChangeEntity.builder()
+                .offset(offset)
+                .type(BookChangeType.UPDATED)
+                .publicId(PUBLIC_ID)
+                .changedAt(CHANGED_AT)
+                .build();
+    }
+
+    private BookChange change(long offset) {
+        return new BookChange(offset, BookChangeType.UPDATED, PUBLIC_ID, CHANGED_AT, null);
+    }
+}
@@ -0,0 +1,143 @@
+package com.saida.bookstore.service.impl;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.saida.bookstore.dto.BookDto;
+import com.saida.bookstore.dto.BookImportError;
+import com.saida.bookstore.dto.BookImportFormat;
+import com.saida.bookstore.dto.BookImportReport;
+import com.saida.bookstore.dto.BookImportResult;
+import com.saida.bookstore.entity.BookEntity;
+import com.saida.bookstore.exception.InvalidBookDataException;
+import com.saida.bookstore.mapper.BookMapper;
+import com.saida.bookstore.mapper.BookMapperImpl_;
+import com.saida.bookstore.repository.BookImportRepository;
+import com.saida.bookstore.validator.CompositeBookValidator;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class BookImportServiceImplTest {
+
+    @Mock
+    private BookImportRepository bookImportRepository;
+
+    @Mock
+    private CompositeBookValidator compositeBookValidator;
+
+    private final BookMapper bookMapper = new BookMapperImpl_();
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private final List<BookEntity> copiedBooks = new ArrayList<>();
+
+    private BookImportServiceImpl bookImportService;
+
+    @BeforeEach
+    void setUp() {
+        bookImportService = new BookImportServiceImpl(bookImportRepository, bookMapper, compositeBookValidator,
+                new ObjectMapper(), meterRegistry);
+    }
+
+    @Test
+    void importBooks_WhenCsvHasValidAndInvalidRows_ShouldCopyValidRowsAndReportRejects() {
+        // Given
+        String csv = """
+                isbn,title,author,price,publicationYear
+                978-0-306-40615-7,"Hello, World",Ann,10.50,2001
+                9780132350884,Bad Price,Bob,abc,2001
+
+                9781861972712,Invalid,Carl,5,1999
+                """;
+        when(compositeBookValidator.collectErrors(any(BookDto.class), eq(false))).thenAnswer(invocation -> {
+            BookDto book = invocation.getArgument(0);
+            return "Invalid".equals(book.title()) ? List.of("Publication year is invalid") : List.of();
+        });
+        mockCopy(new BookImportResult(1, 1));
+
+        // When
+        BookImportReport report = bookImportService.importBooks(stream(csv), BookImportFormat.CSV, false);
+
+        // Then
+        assertThat(copiedBooks).hasSize(1);
+        BookEntity copied = copiedBooks.get(0);
+        assertThat(copied.getTitle()).isEqualTo("Hello, World");
+        assertThat(copied.getIsbn()).isEqualTo("9780306406157");
+        assertThat(copied.getPrice()).isEqualByComparingTo("10.50");
+
+        assertThat(report.accepted()).isEqualTo(1);
+        assertThat(report.rejected()).isEqualTo(2);
+        assertThat(report.inserted()).isEqualTo(1);
+        assertThat(report.errors()).extracting(BookImportError::line).containsExactly(3L, 5L);
+        assertThat(report.errors().get(1).errors()).containsExactly("Publication year is invalid");
+        assertThat(meterRegistry.get("bookstore.import.rows").tag("result", "rejected").counter().count())
+                .isEqualTo(2);
+    }
+
+    @Test
+    void importBooks_WhenNdjson_ShouldReportDuplicates() {
+        // Given
+        String ndjson = """
+                {"title":"One","author":"Ann","isbn":"9780306406157","price":10,"publicationYear":2001}
+                {"title":"Two","author":"Bob","isbn":"9780306406157","price":12,"publicationYear":2002}
+                """;
+        mockCopy(new BookImportResult(2, 1));
+
+        // When
+        BookImportReport report = bookImportService.importBooks(stream(ndjson), BookImportFormat.NDJSON, false);
+
+        // Then
+        assertThat(copiedBooks).extracting(BookEntity::getPrice)
+                .containsExactly(BigDecimal.valueOf(10), BigDecimal.valueOf(12));
+        assertThat(report.accepted()).isEqualTo(2);
+        assertThat(report.inserted()).isEqualTo(1);
+        assertThat(report.duplicates()).isEqualTo(1);
+        assertThat(report.errors()).isEmpty();
+    }
+
+    @Test
+    void importBooks_WhenCsvHeaderMissesColumn_ShouldThrowException() {
+        // Given
+        String csv = "title,author,isbn,price\n";
+
+        // When & Then
+        assertThatThrownBy(() -> bookImportService.importBooks(stream(csv), BookImportFormat.CSV, true))
+                .isInstanceOf(InvalidBookDataException.class)
+                .hasMessage("CSV header must contain column: publicationYear");
+
+        verify(bookImportRepository, never()).copyBooks(any());
+        verify(compositeBookValidator, never()).collectErrors(any(BookDto.class), anyBoolean());
+    }
+
+    private void mockCopy(BookImportResult result) {
+        when(bookImportRepository.copyBooks(any())).thenAnswer(invocation -> {
+            Stream<BookEntity> books = invocation.getArgument(0);
+            books.forEach(copiedBooks::add);
+            return result;
+        });
+    }
+
+    private static InputStream stream(String content) {
+        return new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8));
+    }
+}
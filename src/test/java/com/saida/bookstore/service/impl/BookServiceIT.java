@@ -1,7 +1,15 @@
 package com.saida.bookstore.service.impl;
 
 import com.saida.bookstore.BaseIntegrationTest;
+import com.saida.bookstore.dto.BookChange;
+import com.saida.bookstore.dto.BookChangePage;
+import com.saida.bookstore.dto.BookChangeType;
 import com.saida.bookstore.dto.BookDto;
+import com.saida.bookstore.dto.BookPageDto;
+import com.saida.bookstore.dto.BookSearchCriteria;
+import com.saida.bookstore.exception.ChangeOffsetExpiredException;
+import com.saida.bookstore.repository.BookChangeRepository;
+import com.saida.bookstore.service.BookChangeService;
 import com.saida.bookstore.service.BookService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
@@ -11,18 +19,33 @@ import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.test.context.ActiveProfiles;
 
 import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 
-@SpringBootTest
+// Изменения публикуются явным вызовом релея, плановый запуск не должен вмешиваться в проверки ленты
+@SpringBootTest(properties = "bookstore.changes.relay-interval=1h")
 @ActiveProfiles("test")
 class BookServiceIT extends BaseIntegrationTest {
 
     @Autowired
     private BookService bookService;
 
+    @Autowired
+    private BookChangeService bookChangeService;
+
+    @Autowired
+    private BookChangeRelay bookChangeRelay;
+
+    @Autowired
+    private BookChangeRepository bookChangeRepository;
+
     private BookDto testBookDto;
 
     @BeforeEach
@@ -31,9 +54,11 @@ class BookServiceIT extends BaseIntegrationTest {
                 null,
                 "Test Book Title",
                 "Test Author",
-                "1234567890",
+                "0-8044-2957-X",
                 new BigDecimal("29.99"),
                 2023,
+                null,
+                null,
                 null
         );
     }
@@ -52,7 +77,8 @@ class BookServiceIT extends BaseIntegrationTest {
         // Проверяем все поля
         assertEquals(testBookDto.title(), savedBook.title());
         assertEquals(testBookDto.author(), savedBook.author());
-        assertEquals(testBookDto.isbn(), savedBook.isbn());
+        // ISBN-10 сохраняется в каноническом виде ISBN-13
+        assertEquals("9780804429573", savedBook.isbn());
         assertEquals(0, testBookDto.price().compareTo(savedBook.price()));
         assertEquals(testBookDto.publicationYear(), savedBook.publicationYear());
 
@@ -65,4 +91,106 @@ class BookServiceIT extends BaseIntegrationTest {
         assertEquals(savedBook.publicId(), retrievedBook.publicId());
         assertEquals(savedBook.title(), retrievedBook.title());
     }
-}
\ No newline at end of file
+
+    @Test
+    @DisplayName("Поиск находит книгу по названию с опечаткой и по диапазону годов")
+    void searchBooks_WhenQueryHasTypo_ShouldFindBook() {
+        // Given
+        bookService.saveBook(new BookDto(null, "Structure and Interpretation of Computer Programs",
+                "Harold Abelson", "9780262510875", new BigDecimal("55.00"), 1996, null, null, null));
+        BookSearchCriteria criteria = new BookSearchCriteria("interpretaton", "Harold Abelsen",
+                1990, 2000, null, null);
+
+        // When
+        BookPageDto page = bookService.searchBooks(criteria, null, 10);
+
+        // Then
+        assertThat(page.items()).extracting(BookDto::isbn).containsExactly("9780262510875");
+    }
+
+    @Test
+    @DisplayName("Обновление книги инвалидирует закэшированное значение")
+    void updateBook_WhenBookCached_ShouldEvictCachedValue() {
+        // Given
+        BookDto savedBook = bookService.saveBook(new BookDto(null, testBookDto.title(), testBookDto.author(),
+                "0306406152", testBookDto.price(), testBookDto.publicationYear(), null, null, null));
+        bookService.getBookById(savedBook.publicId());
+
+        BookDto changes = new BookDto(null, "Updated Title", testBookDto.author(), "0306406152",
+                testBookDto.price(), testBookDto.publicationYear(), null, null, null);
+
+        // When
+        bookService.updateBook(savedBook.publicId(), changes, null);
+
+        // Then
+        assertEquals("Updated Title", bookService.getBookById(savedBook.publicId()).title());
+    }
+
+    @Test
+    @DisplayName("Лента изменений отдаёт создание, обновление и удаление книг после публикации релеем")
+    void awaitChanges_WhenBooksChangedAndRelayed_ShouldReturnChanges() throws Exception {
+        // Given
+        bookChangeRelay.relay();
+        long since = bookChangeService.awaitChanges(null, null).get().nextOffset();
+
+        BookDto kept = bookService.saveBook(new BookDto(null, "Refactoring", "Martin Fowler", "9781111111113",
+                new BigDecimal("49.99"), 2018, null, null, null));
+        bookService.updateBook(kept.publicId(), new BookDto(null, "Refactoring, 2nd Edition", "Martin Fowler",
+                "9781111111113", new BigDecimal("49.99"), 2018, null, null, null), null);
+        BookDto deleted = bookService.saveBook(new BookDto(null, "Deleted Book", "Some Author", "9782222222224",
+                new BigDecimal("39.99"), 1994, null, null, null));
+        bookService.deleteBookById(deleted.publicId());
+
+        // When
+        bookChangeRelay.relay();
+        BookChangePage page = bookChangeService.awaitChanges(since, 1000).get(5, TimeUnit.SECONDS);
+
+        // Then
+        // Смещения идут подряд от запрошенного, последнее становится следующим смещением
+        assertThat(page.changes()).extracting(BookChange::offset)
+                .first().isEqualTo(since + 1);
+        assertThat(page.nextOffset()).isEqualTo(page.changes().get(page.changes().size() - 1).offset());
+
+        // Изменения существующей книги несут её текущее состояние, включая версию
+        List<BookChange> keptChanges = changesOf(page, kept.publicId());
+        assertThat(keptChanges).extracting(BookChange::type)
+                .containsExactly(BookChangeType.CREATED, BookChangeType.UPDATED);
+        assertThat(keptChanges).allSatisfy(change -> {
+            assertThat(change.book().title()).isEqualTo("Refactoring, 2nd Edition");
+            assertThat(change.book().version()).isEqualTo(1L);
+        });
+
+        // У удалённой книги в ленте остаются только тип и publicId
+        List<BookChange> deletedChanges = changesOf(page, deleted.publicId());
+        assertThat(deletedChanges).extracting(BookChange::type)
+                .containsExactly(BookChangeType.CREATED, BookChangeType.DELETED);
+        assertThat(deletedChanges).extracting(BookChange::book).containsOnlyNulls();
+    }
+
+    @Test
+    @DisplayName("Очистка по сроку хранения оставляет последнее изменение, а устаревшее смещение отклоняется")
+    void deleteExpired_WhenAllChangesExpired_ShouldKeepLatestOffset() throws Exception {
+        // Given
+        BookDto book = bookService.saveBook(new BookDto(null, "Domain-Driven Design", "Eric Evans",
+                "9783333333335", new BigDecimal("59.99"), 2003, null, null, null));
+        bookService.deleteBookById(book.publicId());
+        bookChangeRelay.relay();
+        long latestOffset = bookChangeService.awaitChanges(null, null).get().nextOffset();
+
+        // When
+        bookChangeRepository.deleteExpired(LocalDateTime.now().plusMinutes(1));
+
+        // Then
+        assertThat(bookChangeService.awaitChanges(null, null).get().nextOffset()).isEqualTo(latestOffset);
+        assertThat(bookChangeService.awaitChanges(latestOffset - 1, null).get(5, TimeUnit.SECONDS).changes())
+                .extracting(BookChange::offset).containsExactly(latestOffset);
+        assertThatThrownBy(() -> bookChangeService.awaitChanges(latestOffset - 2, null))
+                .isInstanceOf(ChangeOffsetExpiredException.class);
+    }
+
+    private static List<BookChange> changesOf(BookChangePage page, UUID publicId) {
+        return page.changes().stream()
+                .filter(change -> change.publicId().equals(publicId))
+                .toList();
+    }
+}
@@ -1,27 +1,54 @@
 package com.saida.bookstore.service.impl;
 
+import com.saida.bookstore.config.CacheConfig;
+import com.saida.bookstore.dto.BookBatchResult;
+import com.saida.bookstore.dto.BookCursor;
 import com.saida.bookstore.dto.BookDto;
+import com.saida.bookstore.dto.BookLookupResult;
+import com.saida.bookstore.dto.BookPageDto;
+import com.saida.bookstore.dto.BookPageVersion;
+import com.saida.bookstore.dto.BookSearchCriteria;
+import com.saida.bookstore.dto.BookSearchCursor;
+import com.saida.bookstore.dto.BookSearchHit;
+import com.saida.bookstore.dto.BookStats;
+import com.saida.bookstore.dto.BookStatsDimension;
+import com.saida.bookstore.dto.BookStatsGroup;
 import com.saida.bookstore.entity.BookEntity;
 import com.saida.bookstore.exception.BookAlreadyExistsException;
 import com.saida.bookstore.exception.BookNotFoundException;
+import com.saida.bookstore.exception.BookVersionMismatchException;
+import com.saida.bookstore.exception.InvalidBookDataException;
 import com.saida.bookstore.mapper.BookMapper;
 import com.saida.bookstore.repository.BookRepository;
+import com.saida.bookstore.repository.BookRowWriter;
+import com.saida.bookstore.util.CursorUtils;
 import com.saida.bookstore.validator.CompositeBookValidator;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.concurrent.ConcurrentMapCache;
+import org.springframework.dao.DuplicateKeyException;
 
 import java.math.BigDecimal;
+import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
 
 import static java.time.LocalDateTime.now;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -36,11 +63,15 @@ class BookServiceImplTest {
     @Mock
     private CompositeBookValidator compositeBookValidator;
 
+    @Mock
+    private CacheManager cacheManager;
+
     @InjectMocks
     private BookServiceImpl bookService;
 
     private final UUID PUBLIC_ID = UUID.fromString("123e4567-e89b-12d3-a456-426614174000");
     private final String ISBN = "978-3-16-148410-0";
+    private final String CANONICAL_ISBN = "9783161484100";
     private final String TITLE = "Test Book";
     private final String AUTHOR = "Test Author";
     private final BigDecimal PRICE = new BigDecimal("29.99");
@@ -79,44 +110,243 @@ class BookServiceImplTest {
     }
 
     @Test
-    void getAllBooks_WhenBooksExist_ShouldReturnBookDtoList() {
+    void lookupBooks_WhenSomeBooksCached_ShouldQueryOnlyMissingKeysAndKeepRequestOrder() {
+        // Given
+        UUID cachedId = UUID.fromString("550e8400-e29b-41d4-a716-446655440000");
+        UUID unknownId = UUID.fromString("00000000-0000-0000-0000-000000000000");
+        BookDto cachedDto = new BookDto(cachedId, "Cached", AUTHOR, "9780306406157", PRICE, PUBLICATION_YEAR, now(), now(), 1L);
+        Cache cache = new ConcurrentMapCache(CacheConfig.BOOKS_CACHE);
+        cache.put(cachedId, cachedDto);
+
+        BookEntity entity = createBookEntity();
+        entity.setIsbn(CANONICAL_ISBN);
+        BookDto dto = new BookDto(PUBLIC_ID, TITLE, AUTHOR, CANONICAL_ISBN, PRICE, PUBLICATION_YEAR, now(), now(), 1L);
+
+        when(cacheManager.getCache(CacheConfig.BOOKS_CACHE)).thenReturn(cache);
+        when(bookRepository.findAllByKeys(Set.of(PUBLIC_ID, unknownId), Set.of(CANONICAL_ISBN)))
+                .thenReturn(List.of(entity));
+        when(bookMapper.toDto(entity)).thenReturn(dto);
+
+        // When
+        BookLookupResult result = bookService.lookupBooks(
+                List.of(PUBLIC_ID, cachedId, unknownId, PUBLIC_ID),
+                List.of("3-16-148410-X", "not-an-isbn"));
+
+        // Then
+        assertThat(result.publicIds()).containsExactly(
+                new BookLookupResult.Item(PUBLIC_ID.toString(), dto),
+                new BookLookupResult.Item(cachedId.toString(), cachedDto),
+                new BookLookupResult.Item(unknownId.toString(), null),
+                new BookLookupResult.Item(PUBLIC_ID.toString(), dto)
+        );
+        assertThat(result.isbns()).containsExactly(
+                new BookLookupResult.Item("3-16-148410-X", dto),
+                new BookLookupResult.Item("not-an-isbn", null)
+        );
+        assertThat(cache.get(PUBLIC_ID, BookDto.class)).isEqualTo(dto);
+    }
+
+    @Test
+    void lookupBooks_WhenAllBooksCached_ShouldNotQueryRepository() {
+        // Given
+        BookDto dto = createBookDto();
+        Cache cache = new ConcurrentMapCache(CacheConfig.BOOKS_CACHE);
+        cache.put(PUBLIC_ID, dto);
+
+        when(cacheManager.getCache(CacheConfig.BOOKS_CACHE)).thenReturn(cache);
+
+        // When
+        BookLookupResult result = bookService.lookupBooks(List.of(PUBLIC_ID), null);
+
+        // Then
+        assertThat(result.publicIds()).containsExactly(new BookLookupResult.Item(PUBLIC_ID.toString(), dto));
+        assertThat(result.isbns()).isEmpty();
+        verify(bookRepository, never()).findAllByKeys(any(), any());
+    }
+
+    @Test
+    void lookupBooks_WhenTooManyKeys_ShouldThrowException() {
+        // Given
+        List<String> isbns = Collections.nCopies(1001, ISBN);
+
+        // When & Then
+        assertThatThrownBy(() -> bookService.lookupBooks(null, isbns))
+                .isInstanceOf(InvalidBookDataException.class)
+                .hasMessage("Lookup must not exceed 1000 keys");
+
+        verify(bookRepository, never()).findAllByKeys(any(), any());
+    }
+
+    @Test
+    void writeAllBooks_WhenLastPage_ShouldWriteDefaultPageWithoutCursor() {
+        // Given
+        BookRowWriter writer = mock(BookRowWriter.class);
+        when(bookRepository.writePage(null, 20, writer)).thenReturn(null);
+
+        // When
+        String nextCursor = bookService.writeAllBooks(null, null, writer);
+
+        // Then
+        assertThat(nextCursor).isNull();
+        verify(bookRepository).writePage(null, 20, writer);
+        verifyNoInteractions(bookMapper);
+    }
+
+    @Test
+    void writeAllBooks_WhenMoreBooksThanLimit_ShouldReturnNextCursor() {
+        // Given
+        BookRowWriter writer = mock(BookRowWriter.class);
+        BookCursor last = new BookCursor(now(), 7L);
+        when(bookRepository.writePage(null, 1, writer)).thenReturn(last);
+
+        // When
+        String nextCursor = bookService.writeAllBooks(null, 1, writer);
+
+        // Then
+        assertThat(CursorUtils.decode(nextCursor)).isEqualTo(last);
+    }
+
+    @Test
+    void writeAllBooks_WhenCursorGiven_ShouldContinueAfterCursorWithCappedLimit() {
+        // Given
+        BookRowWriter writer = mock(BookRowWriter.class);
+        BookCursor cursor = new BookCursor(now(), 42L);
+
+        // When
+        String nextCursor = bookService.writeAllBooks(CursorUtils.encode(cursor), 1000, writer);
+
+        // Then
+        assertThat(nextCursor).isNull();
+        verify(bookRepository).writePage(cursor, 100, writer);
+    }
+
+    @Test
+    void getAllBooksVersion_WhenCursorGiven_ShouldUseSameRangeAsPage() {
+        // Given
+        BookCursor cursor = new BookCursor(now(), 42L);
+        BookPageVersion version = new BookPageVersion(11, 500L, now());
+        when(bookRepository.findPageVersion(cursor, 11)).thenReturn(version);
+
+        // When
+        BookPageVersion result = bookService.getAllBooksVersion(CursorUtils.encode(cursor), 10);
+
+        // Then
+        assertThat(result).isEqualTo(version);
+        verify(bookRepository, never()).writePage(any(), anyInt(), any());
+    }
+
+    @Test
+    void writeAllBooks_WhenCursorMalformed_ShouldThrowExceptionBeforeWriting() {
+        // Given
+        BookRowWriter writer = mock(BookRowWriter.class);
+
+        // When & Then
+        assertThatThrownBy(() -> bookService.writeAllBooks("not-a-cursor", null, writer))
+                .isInstanceOf(InvalidBookDataException.class);
+
+        verify(bookRepository, never()).writePage(any(), anyInt(), any());
+        verifyNoInteractions(writer);
+    }
+
+    @Test
+    void searchBooks_WhenMoreHitsThanLimit_ShouldReturnRankedPageWithCursor() {
         // Given
+        BookSearchCriteria criteria = new BookSearchCriteria("  clean code ", " ", 2000, 2010, null, null);
+        BookSearchCriteria normalized = new BookSearchCriteria("clean code", null, 2000, 2010, null, null);
         BookEntity bookEntity1 = createBookEntity();
         BookEntity bookEntity2 = createBookEntity();
-        bookEntity2.setPublicId(UUID.randomUUID());
-        bookEntity2.setTitle("Another Book");
-
+        bookEntity2.setId(2L);
         BookDto bookDto1 = createBookDto();
-        BookDto bookDto2 = createBookDto();
-        bookDto2 = new BookDto(bookDto2.publicId(), "Another Book", bookDto2.author(),
-                bookDto2.isbn(), bookDto2.price(), bookDto2.publicationYear(), now());
 
-        when(bookRepository.findAll()).thenReturn(List.of(bookEntity1, bookEntity2));
+        when(bookRepository.search(normalized, null, 2)).thenReturn(List.of(
+                new BookSearchHit(bookEntity1, 0.75f),
+                new BookSearchHit(bookEntity2, 0.5f)
+        ));
         when(bookMapper.toDto(bookEntity1)).thenReturn(bookDto1);
-        when(bookMapper.toDto(bookEntity2)).thenReturn(bookDto2);
 
         // When
-        List<BookDto> result = bookService.getAllBooks();
+        BookPageDto result = bookService.searchBooks(criteria, null, 1);
 
         // Then
-        assertThat(result).hasSize(2);
-        assertThat(result).containsExactly(bookDto1, bookDto2);
-        verify(bookRepository).findAll();
-        verify(bookMapper, times(2)).toDto(any(BookEntity.class));
+        assertThat(result.items()).containsExactly(bookDto1);
+        assertThat(CursorUtils.decodeSearch(result.nextCursor()))
+                .isEqualTo(new BookSearchCursor(0.75f, bookEntity1.getId()));
+        verify(bookMapper, never()).toDto(bookEntity2);
     }
 
     @Test
-    void getAllBooks_WhenNoBooks_ShouldReturnEmptyList() {
+    void searchBooks_WhenCursorGiven_ShouldContinueAfterCursor() {
         // Given
-        when(bookRepository.findAll()).thenReturn(List.of());
+        BookSearchCriteria criteria = new BookSearchCriteria("java", null, null, null, null, null);
+        BookSearchCursor cursor = new BookSearchCursor(0.1f, 7L);
+
+        when(bookRepository.search(criteria, cursor, 21)).thenReturn(List.of());
 
         // When
-        List<BookDto> result = bookService.getAllBooks();
+        BookPageDto result = bookService.searchBooks(criteria, CursorUtils.encode(cursor), null);
 
         // Then
-        assertThat(result).isEmpty();
-        verify(bookRepository).findAll();
-        verify(bookMapper, never()).toDto(any(BookEntity.class));
+        assertThat(result.items()).isEmpty();
+        assertThat(result.nextCursor()).isNull();
+    }
+
+    @Test
+    void searchBooks_WhenRangeInverted_ShouldThrowException() {
+        // Given
+        BookSearchCriteria criteria = new BookSearchCriteria(null, null, null, null,
+                new BigDecimal("50"), new BigDecimal("10"));
+
+        // When & Then
+        assertThatThrownBy(() -> bookService.searchBooks(criteria, null, null))
+                .isInstanceOf(InvalidBookDataException.class)
+                .hasMessage("priceMin must not be greater than priceMax");
+
+        verify(bookRepository, never()).search(any(), any(), anyInt());
+    }
+
+    @Test
+    void getStats_WhenDimensionsGiven_ShouldAggregateInRequestedOrder() {
+        // Given
+        List<BookStatsDimension> dimensions = List.of(BookStatsDimension.PUBLICATION_YEAR, BookStatsDimension.PRICE);
+        List<BookStatsGroup> groups = List.of(new BookStatsGroup(null, 2023, new BigDecimal("20"),
+                new BigDecimal("30"), 2, new BigDecimal("21.00"), new BigDecimal("29.99"), new BigDecimal("25.50")));
+        when(bookRepository.aggregate(dimensions, BigDecimal.TEN)).thenReturn(groups);
+
+        // When
+        BookStats result = bookService.getStats(List.of("publicationYear", " Price"), null);
+
+        // Then
+        assertThat(result).isEqualTo(new BookStats(dimensions, BigDecimal.TEN, groups));
+    }
+
+    @Test
+    void getStats_WhenNoDimensions_ShouldAggregateWholeCatalogWithoutBucket() {
+        // Given
+        when(bookRepository.aggregate(List.of(), null)).thenReturn(List.of());
+
+        // When
+        BookStats result = bookService.getStats(null, new BigDecimal("5"));
+
+        // Then
+        assertThat(result.groupBy()).isEmpty();
+        assertThat(result.priceBucket()).isNull();
+        verify(bookRepository).aggregate(List.of(), null);
+    }
+
+    @Test
+    void getStats_WhenParamsInvalid_ShouldThrowExceptionWithoutQuery() {
+        // When & Then
+        assertThatThrownBy(() -> bookService.getStats(List.of("isbn"), null))
+                .isInstanceOf(InvalidBookDataException.class)
+                .hasMessageContaining("Unknown stats dimension");
+        assertThatThrownBy(() -> bookService.getStats(List.of("author", "AUTHOR"), null))
+                .isInstanceOf(InvalidBookDataException.class)
+                .hasMessageContaining("repeated");
+        assertThatThrownBy(() -> bookService.getStats(List.of("price"), BigDecimal.ZERO))
+                .isInstanceOf(InvalidBookDataException.class)
+                .hasMessageContaining("Price bucket");
+
+        verify(bookRepository, never()).aggregate(any(), any());
     }
 
     @Test
@@ -127,7 +357,6 @@ class BookServiceImplTest {
         BookDto expectedBookDto = createBookDto();
 
         doNothing().when(compositeBookValidator).validate(inputBookDto);
-        when(bookRepository.existsByIsbn(ISBN)).thenReturn(false);
         when(bookMapper.toEntity(inputBookDto)).thenReturn(savedEntity);
         when(bookRepository.save(savedEntity)).thenReturn(savedEntity);
         when(bookMapper.toDto(savedEntity)).thenReturn(expectedBookDto);
@@ -138,7 +367,7 @@ class BookServiceImplTest {
         // Then
         assertThat(result).isEqualTo(expectedBookDto);
         verify(compositeBookValidator).validate(inputBookDto);
-        verify(bookRepository).existsByIsbn(ISBN);
+        verify(bookRepository, never()).existsByIsbn(any());
         verify(bookMapper).toEntity(inputBookDto);
         verify(bookRepository).save(savedEntity);
         verify(bookMapper).toDto(savedEntity);
@@ -148,29 +377,76 @@ class BookServiceImplTest {
     void saveBook_WhenIsbnAlreadyExists_ShouldThrowException() {
         // Given
         BookDto inputBookDto = createBookDtoWithoutId();
+        BookEntity entity = createBookEntity();
 
         doNothing().when(compositeBookValidator).validate(inputBookDto);
-        when(bookRepository.existsByIsbn(ISBN)).thenReturn(true);
+        when(bookMapper.toEntity(inputBookDto)).thenReturn(entity);
+        when(bookRepository.save(entity)).thenThrow(new DuplicateKeyException("duplicate isbn"));
 
         // When & Then
         assertThatThrownBy(() -> bookService.saveBook(inputBookDto))
                 .isInstanceOf(BookAlreadyExistsException.class)
-                .hasMessage("Book with ISBN '" + ISBN + "' already exists");
+                .hasMessage("Book with ISBN '" + CANONICAL_ISBN + "' already exists");
 
         verify(compositeBookValidator).validate(inputBookDto);
-        verify(bookRepository).existsByIsbn(ISBN);
-        verify(bookMapper, never()).toEntity(any());
-        verify(bookRepository, never()).save(any());
+        verify(bookRepository).save(entity);
+        verify(bookMapper, never()).toDto(any(BookEntity.class));
+    }
+
+    @Test
+    void saveBooks_WhenBatchHasInvalidDuplicateAndConflictingBooks_ShouldReportEachItem() {
+        // Given
+        BookDto valid = new BookDto(null, TITLE, AUTHOR, ISBN, PRICE, PUBLICATION_YEAR, null, null, 1L);
+        BookDto invalid = new BookDto(null, "", AUTHOR, "978-1-23-456789-0", PRICE, PUBLICATION_YEAR, null, null, 1L);
+        // ISBN-10 той же книги, что и valid
+        BookDto duplicate = new BookDto(null, "Another Book", AUTHOR, "3-16-148410-X", PRICE, PUBLICATION_YEAR, null, null, 1L);
+        BookDto conflicting = new BookDto(null, TITLE, AUTHOR, "9780132350884", PRICE, PUBLICATION_YEAR, null, null, 1L);
+
+        BookEntity validEntity = createBookEntity();
+        BookEntity conflictingEntity = createBookEntity();
+        conflictingEntity.setIsbn("9780132350884");
+        BookDto savedDto = createBookDto();
+
+        when(compositeBookValidator.collectErrors(valid, false)).thenReturn(List.of());
+        when(compositeBookValidator.collectErrors(duplicate, false)).thenReturn(List.of());
+        when(compositeBookValidator.collectErrors(conflicting, false)).thenReturn(List.of());
+        when(compositeBookValidator.collectErrors(invalid, false)).thenReturn(List.of("Title must not be empty"));
+        when(bookMapper.toEntity(valid)).thenReturn(validEntity);
+        when(bookMapper.toEntity(conflicting)).thenReturn(conflictingEntity);
+        when(bookRepository.saveAll(List.of(validEntity, conflictingEntity))).thenReturn(List.of(validEntity));
+        when(bookMapper.toDto(validEntity)).thenReturn(savedDto);
+
+        // When
+        List<BookBatchResult> results = bookService.saveBooks(List.of(valid, invalid, duplicate, conflicting));
+
+        // Then
+        assertThat(results).containsExactly(
+                BookBatchResult.created(0, savedDto),
+                BookBatchResult.failed(1, List.of("Title must not be empty")),
+                BookBatchResult.failed(2, List.of("ISBN '" + CANONICAL_ISBN + "' is duplicated within the batch")),
+                BookBatchResult.failed(3, List.of("Book with ISBN '9780132350884' already exists"))
+        );
+        verify(bookRepository).saveAll(List.of(validEntity, conflictingEntity));
+    }
+
+    @Test
+    void saveBooks_WhenBatchTooLarge_ShouldThrowException() {
+        // Given
+        List<BookDto> books = Collections.nCopies(10_001, createBookDtoWithoutId());
+
+        // When & Then
+        assertThatThrownBy(() -> bookService.saveBooks(books))
+                .isInstanceOf(InvalidBookDataException.class);
+
+        verify(compositeBookValidator, never()).collectErrors(any(), anyBoolean());
+        verify(bookRepository, never()).saveAll(any());
     }
 
     @Test
     void updateBook_WhenValidUpdate_ShouldUpdateAndReturnBookDto() {
         // Given
         BookDto updateBookDto = new BookDto(null, "Updated Title", "Updated Author",
-                ISBN, new BigDecimal("39.99"), 2024, now());
-        BookEntity existingEntity = createBookEntity();
-        // Устанавливаем другой ISBN у существующей entity, чтобы условие сработало
-        existingEntity.setIsbn("old-isbn-123");
+                ISBN, new BigDecimal("39.99"), 2024, now(), now(), 1L);
 
         BookEntity updatedEntity = createBookEntity();
         updatedEntity.setTitle("Updated Title");
@@ -179,23 +455,22 @@ class BookServiceImplTest {
         updatedEntity.setPublicationYear(2024);
 
         BookDto expectedBookDto = new BookDto(PUBLIC_ID, "Updated Title", "Updated Author",
-                ISBN, new BigDecimal("39.99"), 2024, now());
+                ISBN, new BigDecimal("39.99"), 2024, now(), now(), 1L);
 
         doNothing().when(compositeBookValidator).validate(updateBookDto);
-        when(bookRepository.findById(PUBLIC_ID)).thenReturn(Optional.of(existingEntity));
-        when(bookRepository.existsByIsbn(ISBN)).thenReturn(false);
-        when(bookRepository.save(any(BookEntity.class))).thenReturn(updatedEntity);
+        when(bookRepository.update(any(BookEntity.class), isNull())).thenReturn(Optional.of(updatedEntity));
         when(bookMapper.toDto(updatedEntity)).thenReturn(expectedBookDto);
 
         // When
-        BookDto result = bookService.updateBook(PUBLIC_ID, updateBookDto);
+        BookDto result = bookService.updateBook(PUBLIC_ID, updateBookDto, null);
 
         // Then
         assertThat(result).isEqualTo(expectedBookDto);
         verify(compositeBookValidator).validate(updateBookDto);
-        verify(bookRepository).findById(PUBLIC_ID);
-        verify(bookRepository).existsByIsbn(ISBN); // Теперь этот вызов произойдет
-        verify(bookRepository).save(any(BookEntity.class));
+        verify(bookRepository).update(argThat(entity -> PUBLIC_ID.equals(entity.getPublicId())
+                && "Updated Title".equals(entity.getTitle())), isNull());
+        verify(bookRepository, never()).findById(any());
+        verify(bookRepository, never()).existsByIsbn(any());
         verify(bookMapper).toDto(updatedEntity);
     }
 
@@ -205,68 +480,128 @@ class BookServiceImplTest {
         BookDto updateBookDto = createBookDto();
 
         doNothing().when(compositeBookValidator).validate(updateBookDto);
-        when(bookRepository.findById(PUBLIC_ID)).thenReturn(Optional.empty());
+        when(bookRepository.update(any(BookEntity.class), isNull())).thenReturn(Optional.empty());
 
         // When & Then
-        assertThatThrownBy(() -> bookService.updateBook(PUBLIC_ID, updateBookDto))
+        assertThatThrownBy(() -> bookService.updateBook(PUBLIC_ID, updateBookDto, null))
                 .isInstanceOf(BookNotFoundException.class)
                 .hasMessage("Book not found with publicId: " + PUBLIC_ID);
 
         verify(compositeBookValidator).validate(updateBookDto);
-        verify(bookRepository).findById(PUBLIC_ID);
-        verify(bookRepository, never()).existsByIsbn(any());
-        verify(bookRepository, never()).save(any());
+        verify(bookRepository, never()).findById(any());
+        verify(bookMapper, never()).toDto(any(BookEntity.class));
     }
 
     @Test
     void updateBook_WhenIsbnChangedAndAlreadyExists_ShouldThrowException() {
         // Given
-        String newIsbn = "978-1-23-456789-0";
-        BookDto updateBookDto = new BookDto(null, TITLE, AUTHOR, newIsbn, PRICE, PUBLICATION_YEAR, now());
-        BookEntity existingEntity = createBookEntity();
+        String newIsbn = "978-0-306-40615-7";
+        BookDto updateBookDto = new BookDto(null, TITLE, AUTHOR, newIsbn, PRICE, PUBLICATION_YEAR, now(), now(), 1L);
 
         doNothing().when(compositeBookValidator).validate(updateBookDto);
-        when(bookRepository.findById(PUBLIC_ID)).thenReturn(Optional.of(existingEntity));
-        when(bookRepository.existsByIsbn(newIsbn)).thenReturn(true);
+        when(bookRepository.update(any(BookEntity.class), isNull())).thenThrow(new DuplicateKeyException("duplicate isbn"));
 
         // When & Then
-        assertThatThrownBy(() -> bookService.updateBook(PUBLIC_ID, updateBookDto))
+        assertThatThrownBy(() -> bookService.updateBook(PUBLIC_ID, updateBookDto, null))
                 .isInstanceOf(BookAlreadyExistsException.class)
-                .hasMessage("ISBN '" + newIsbn + "' is already used by another book");
+                .hasMessage("ISBN '9780306406157' is already used by another book");
 
         verify(compositeBookValidator).validate(updateBookDto);
-        verify(bookRepository).findById(PUBLIC_ID);
-        verify(bookRepository).existsByIsbn(newIsbn);
-        verify(bookRepository, never()).save(any());
+        verify(bookRepository, never()).existsByIsbn(any());
+        verify(bookMapper, never()).toDto(any(BookEntity.class));
+    }
+
+    @Test
+    void updateBook_WhenVersionMatches_ShouldUpdateConditionally() {
+        // Given
+        BookDto updateBookDto = createBookDto();
+        BookEntity updatedEntity = createBookEntity();
+        updatedEntity.setVersion(4L);
+        BookDto expectedBookDto = new BookDto(PUBLIC_ID, TITLE, AUTHOR, ISBN, PRICE, PUBLICATION_YEAR, now(), now(), 4L);
+
+        when(bookRepository.update(any(BookEntity.class), eq(List.of(3L)))).thenReturn(Optional.of(updatedEntity));
+        when(bookMapper.toDto(updatedEntity)).thenReturn(expectedBookDto);
+
+        // When
+        BookDto result = bookService.updateBook(PUBLIC_ID, updateBookDto, List.of(3L));
+
+        // Then
+        assertThat(result.version()).isEqualTo(4L);
+        verify(bookRepository, never()).findById(any());
+    }
+
+    @Test
+    void updateBook_WhenVersionChanged_ShouldThrowVersionMismatchAndEvictCachedBook() {
+        // Given
+        BookDto updateBookDto = createBookDto();
+        Cache cache = new ConcurrentMapCache(CacheConfig.BOOKS_CACHE);
+        cache.put(PUBLIC_ID, updateBookDto);
+
+        when(bookRepository.update(any(BookEntity.class), eq(List.of(3L)))).thenReturn(Optional.empty());
+        when(bookRepository.findById(PUBLIC_ID)).thenReturn(Optional.of(createBookEntity()));
+        when(cacheManager.getCache(CacheConfig.BOOKS_CACHE)).thenReturn(cache);
+
+        // When & Then
+        assertThatThrownBy(() -> bookService.updateBook(PUBLIC_ID, updateBookDto, List.of(3L)))
+                .isInstanceOf(BookVersionMismatchException.class)
+                .hasMessage("Book with publicId " + PUBLIC_ID + " has been modified, expected version: [3]");
+
+        assertThat(cache.get(PUBLIC_ID)).isNull();
+        verify(bookMapper, never()).toDto(any(BookEntity.class));
+    }
+
+    @Test
+    void updateBook_WhenVersionExpectedAndBookMissing_ShouldThrowNotFound() {
+        // Given
+        BookDto updateBookDto = createBookDto();
+
+        when(bookRepository.update(any(BookEntity.class), eq(List.of(3L)))).thenReturn(Optional.empty());
+        when(bookRepository.findById(PUBLIC_ID)).thenReturn(Optional.empty());
+
+        // When & Then
+        assertThatThrownBy(() -> bookService.updateBook(PUBLIC_ID, updateBookDto, List.of(3L)))
+                .isInstanceOf(BookNotFoundException.class);
+    }
+
+    @Test
+    void updateBook_WhenNoExpectedVersionCanMatch_ShouldThrowVersionMismatchWithoutUpdate() {
+        // Given
+        BookDto updateBookDto = createBookDto();
+
+        when(bookRepository.findById(PUBLIC_ID)).thenReturn(Optional.of(createBookEntity()));
+
+        // When & Then
+        assertThatThrownBy(() -> bookService.updateBook(PUBLIC_ID, updateBookDto, List.of()))
+                .isInstanceOf(BookVersionMismatchException.class);
+
+        verify(bookRepository, never()).update(any(), any());
     }
 
     @Test
     void deleteBookById_WhenBookExists_ShouldDeleteBook() {
         // Given
-        BookEntity existingEntity = createBookEntity();
-        when(bookRepository.findById(PUBLIC_ID)).thenReturn(Optional.of(existingEntity));
-        doNothing().when(bookRepository).deleteById(PUBLIC_ID);
+        when(bookRepository.deleteById(PUBLIC_ID)).thenReturn(true);
 
         // When
         bookService.deleteBookById(PUBLIC_ID);
 
         // Then
-        verify(bookRepository).findById(PUBLIC_ID);
         verify(bookRepository).deleteById(PUBLIC_ID);
+        verify(bookRepository, never()).findById(any());
     }
 
     @Test
     void deleteBookById_WhenBookNotExists_ShouldThrowException() {
         // Given
-        when(bookRepository.findById(PUBLIC_ID)).thenReturn(Optional.empty());
+        when(bookRepository.deleteById(PUBLIC_ID)).thenReturn(false);
 
         // When & Then
         assertThatThrownBy(() -> bookService.deleteBookById(PUBLIC_ID))
                 .isInstanceOf(BookNotFoundException.class)
                 .hasMessage("Book not found with publicId: " + PUBLIC_ID);
 
-        verify(bookRepository).findById(PUBLIC_ID);
-        verify(bookRepository, never()).deleteById(any());
+        verify(bookRepository).deleteById(PUBLIC_ID);
+        verify(bookRepository, never()).findById(any());
     }
 
     private BookEntity createBookEntity() {
@@ -283,10 +618,10 @@ class BookServiceImplTest {
     }
 
     private BookDto createBookDto() {
-        return new BookDto(PUBLIC_ID, TITLE, AUTHOR, ISBN, PRICE, PUBLICATION_YEAR, now());
+        return new BookDto(PUBLIC_ID, TITLE, AUTHOR, ISBN, PRICE, PUBLICATION_YEAR, now(), now(), 1L);
     }
 
     private BookDto createBookDtoWithoutId() {
-        return new BookDto(null, TITLE, AUTHOR, ISBN, PRICE, PUBLICATION_YEAR, now());
+        return new BookDto(null, TITLE, AUTHOR, ISBN, PRICE, PUBLICATION_YEAR, now(), now(), 1L);
     }
 }
\ No newline at end of file
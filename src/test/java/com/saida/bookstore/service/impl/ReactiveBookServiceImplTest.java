@@ -0,0 +1,204 @@
+package com.saida.bookstore.service.impl;
+
+import com.saida.bookstore.dto.BookCursor;
+import com.saida.bookstore.dto.BookDto;
+import com.saida.bookstore.entity.BookEntity;
+import com.saida.bookstore.exception.BookAlreadyExistsException;
+import com.saida.bookstore.exception.BookNotFoundException;
+import com.saida.bookstore.exception.InvalidBookDataException;
+import com.saida.bookstore.exception.ValidationException;
+import com.saida.bookstore.mapper.BookMapper;
+import com.saida.bookstore.repository.ReactiveBookRepository;
+import com.saida.bookstore.util.CursorUtils;
+import com.saida.bookstore.validator.CompositeBookValidator;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DuplicateKeyException;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.UUID;
+
+import static java.time.LocalDateTime.now;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class ReactiveBookServiceImplTest {
+
+    @Mock
+    private ReactiveBookRepository bookRepository;
+
+    @Mock
+    private BookMapper bookMapper;
+
+    @Mock
+    private CompositeBookValidator compositeBookValidator;
+
+    @InjectMocks
+    private ReactiveBookServiceImpl bookService;
+
+    private final UUID PUBLIC_ID = UUID.fromString("123e4567-e89b-12d3-a456-426614174000");
+    private final String ISBN = "978-3-16-148410-0";
+    private final String CANONICAL_ISBN = "9783161484100";
+    private final String TITLE = "Test Book";
+    private final String AUTHOR = "Test Author";
+    private final BigDecimal PRICE = new BigDecimal("29.99");
+    private final int PUBLICATION_YEAR = 2023;
+
+    @Test
+    void getBookById_WhenBookNotExists_ShouldSignalNotFound() {
+        // Given
+        when(bookRepository.findById(PUBLIC_ID)).thenReturn(Mono.empty());
+
+        // When & Then
+        StepVerifier.create(bookService.getBookById(PUBLIC_ID))
+                .expectErrorSatisfies(error -> assertThat(error)
+                        .isInstanceOf(BookNotFoundException.class)
+                        .hasMessage("Book not found with publicId: " + PUBLIC_ID))
+                .verify();
+    }
+
+    @Test
+    void getAllBooks_WhenMoreBooksThanLimit_ShouldReturnNextCursor() {
+        // Given
+        BookEntity bookEntity1 = createBookEntity();
+        BookEntity bookEntity2 = createBookEntity();
+        bookEntity2.setId(2L);
+        BookDto bookDto1 = createBookDto();
+
+        when(bookRepository.findPage(null, 2)).thenReturn(Flux.just(bookEntity1, bookEntity2));
+        when(bookMapper.toDto(bookEntity1)).thenReturn(bookDto1);
+
+        // When & Then
+        StepVerifier.create(bookService.getAllBooks(null, 1))
+                .assertNext(page -> {
+                    assertThat(page.items()).containsExactly(bookDto1);
+                    assertThat(CursorUtils.decode(page.nextCursor()))
+                            .isEqualTo(new BookCursor(bookEntity1.getCreatedAt(), bookEntity1.getId()));
+                })
+                .verifyComplete();
+    }
+
+    @Test
+    void getAllBooks_WhenLimitInvalid_ShouldSignalErrorWithoutQuery() {
+        // When & Then
+        StepVerifier.create(bookService.getAllBooks(null, 0))
+                .expectError(InvalidBookDataException.class)
+                .verify();
+        verify(bookRepository, never()).findPage(any(), anyInt());
+    }
+
+    @Test
+    void saveBook_WhenIsbnTaken_ShouldSignalAlreadyExists() {
+        // Given
+        BookDto bookDto = createBookDto();
+        BookEntity entity = createBookEntity();
+
+        when(bookMapper.toEntity(bookDto)).thenReturn(entity);
+        when(bookRepository.save(entity)).thenReturn(Mono.error(new DuplicateKeyException("duplicate isbn")));
+
+        // When & Then
+        StepVerifier.create(bookService.saveBook(bookDto))
+                .expectErrorSatisfies(error -> assertThat(error)
+                        .isInstanceOf(BookAlreadyExistsException.class)
+                        .hasMessage("Book with ISBN '" + CANONICAL_ISBN + "' already exists"))
+                .verify();
+        verify(compositeBookValidator).validate(bookDto);
+    }
+
+    @Test
+    void saveBook_WhenInvalid_ShouldSignalValidationErrorOnSubscribe() {
+        // Given
+        BookDto bookDto = createBookDto();
+        doThrow(new ValidationException("Book data validation failed", List.of("Title must not be empty")))
+                .when(compositeBookValidator).validate(bookDto);
+
+        // When
+        Mono<BookDto> result = bookService.saveBook(bookDto);
+
+        // Then
+        StepVerifier.create(result)
+                .expectError(ValidationException.class)
+                .verify();
+        verify(bookRepository, never()).save(any());
+    }
+
+    @Test
+    void updateBook_WhenBookExists_ShouldStoreCanonicalIsbn() {
+        // Given
+        BookDto bookDto = createBookDto();
+        BookEntity updatedEntity = createBookEntity();
+
+        when(bookRepository.update(argThat(entity -> CANONICAL_ISBN.equals(entity.getIsbn())
+                && PUBLIC_ID.equals(entity.getPublicId())))).thenReturn(Mono.just(updatedEntity));
+        when(bookMapper.toDto(updatedEntity)).thenReturn(bookDto);
+
+        // When & Then
+        StepVerifier.create(bookService.updateBook(PUBLIC_ID, bookDto))
+                .expectNext(bookDto)
+                .verifyComplete();
+    }
+
+    @Test
+    void updateBook_WhenBookNotExists_ShouldSignalNotFound() {
+        // Given
+        when(bookRepository.update(any(BookEntity.class))).thenReturn(Mono.empty());
+
+        // When & Then
+        StepVerifier.create(bookService.updateBook(PUBLIC_ID, createBookDto()))
+                .expectError(BookNotFoundException.class)
+                .verify();
+    }
+
+    @Test
+    void deleteBookById_WhenBookNotExists_ShouldSignalNotFound() {
+        // Given
+        when(bookRepository.deleteById(PUBLIC_ID)).thenReturn(Mono.just(false));
+
+        // When & Then
+        StepVerifier.create(bookService.deleteBookById(PUBLIC_ID))
+                .expectError(BookNotFoundException.class)
+                .verify();
+    }
+
+    @Test
+    void deleteBookById_WhenBookExists_ShouldComplete() {
+        // Given
+        when(bookRepository.deleteById(PUBLIC_ID)).thenReturn(Mono.just(true));
+
+        // When & Then
+        StepVerifier.create(bookService.deleteBookById(PUBLIC_ID))
+                .verifyComplete();
+    }
+
+    private BookEntity createBookEntity() {
+        return BookEntity.builder()
+                .id(1L)
+                .publicId(PUBLIC_ID)
+                .title(TITLE)
+                .author(AUTHOR)
+                .isbn(ISBN)
+                .price(PRICE)
+                .publicationYear(PUBLICATION_YEAR)
+                .createdAt(now())
+                .updatedAt(now())
+                .build();
+    }
+
+    private BookDto createBookDto() {
+        return new BookDto(PUBLIC_ID, TITLE, AUTHOR, ISBN, PRICE, PUBLICATION_YEAR, now(), now(), 1L);
+    }
+}
@@ -0,0 +1,32 @@
+package com.saida.bookstore.util;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.NullAndEmptySource;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ETagUtilsTest {
+
+    @Test
+    void parseVersions_WhenRepresentationETagsGiven_ShouldReturnVersions() {
+        assertThat(ETagUtils.parseVersions("\"5\", \"7-cbor-gzip\",\"12-gzip\""))
+                .isEqualTo(List.of(5L, 7L, 12L));
+    }
+
+    @ParameterizedTest
+    @NullAndEmptySource
+    @ValueSource(strings = {"*", "\"3\", *"})
+    void parseVersions_WhenNoConditionGiven_ShouldReturnNull(String ifMatch) {
+        assertThat(ETagUtils.parseVersions(ifMatch)).isNull();
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"W/\"5\"", "5", "\"\"", "\"abc\"", "\"5abc\"", "\"-5\"", "\"99999999999999999999\""})
+    void parseVersions_WhenETagIsNotVersion_ShouldSkipIt(String ifMatch) {
+        assertThat(ETagUtils.parseVersions(ifMatch)).isEmpty();
+    }
+}
@@ -0,0 +1,92 @@
+package com.saida.bookstore.util;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class IsbnUtilsTest {
+
+    @ParameterizedTest
+    @ValueSource(strings = {"0306406152", "0-306-40615-2", "080442957X", "080442957x", "9780306406157",
+            "978-0-306-40615-7", "978 0 306 40615 7", "979-10-343-0056-3"})
+    void check_WhenIsbnValid_ShouldReturnValid(String isbn) {
+        assertThat(IsbnUtils.check(isbn)).isEqualTo(IsbnUtils.Check.VALID);
+        assertThat(IsbnUtils.isValid(isbn)).isTrue();
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"0306406153", "9780306406158", "1234567890"})
+    void check_WhenChecksumWrong_ShouldReturnInvalidChecksum(String isbn) {
+        assertThat(IsbnUtils.check(isbn)).isEqualTo(IsbnUtils.Check.INVALID_CHECKSUM);
+        assertThat(IsbnUtils.isValidFormat(isbn)).isTrue();
+        assertThat(IsbnUtils.isValid(isbn)).isFalse();
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"", "---", "12345", "03064061522", "X306406152", "030640615X2", "978030640615X",
+            "97803064061570", "isbn0306406152"})
+    void check_WhenFormatWrong_ShouldReturnInvalidFormat(String isbn) {
+        assertThat(IsbnUtils.check(isbn)).isEqualTo(IsbnUtils.Check.INVALID_FORMAT);
+        assertThat(IsbnUtils.isValidFormat(isbn)).isFalse();
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"1234567890128", "123-4567890128", "9770306406158"})
+    void check_WhenIsbn13PrefixNot978Or979_ShouldReturnInvalidFormat(String isbn) {
+        // Контрольная сумма верна, но ISBN-13 начинается только с 978 или 979
+        assertThat(IsbnUtils.check(isbn)).isEqualTo(IsbnUtils.Check.INVALID_FORMAT);
+        assertThat(IsbnUtils.canonicalize(isbn)).isNull();
+    }
+
+    @Test
+    void check_WhenNull_ShouldReturnInvalidFormat() {
+        assertThat(IsbnUtils.check(null)).isEqualTo(IsbnUtils.Check.INVALID_FORMAT);
+    }
+
+    @ParameterizedTest
+    @CsvSource({
+            "0306406152, 9780306406157",
+            "0-306-40615-2, 9780306406157",
+            "080442957X, 9780804429573",
+            "978-0-306-40615-7, 9780306406157",
+            "9780134685991, 9780134685991",
+            "979-10-343-0056-3, 9791034300563"
+    })
+    void canonicalize_WhenIsbnValid_ShouldReturnIsbn13(String isbn, String expected) {
+        assertThat(IsbnUtils.canonicalize(isbn)).isEqualTo(expected);
+    }
+
+    @Test
+    void canonicalize_WhenIsbnInvalid_ShouldReturnNull() {
+        assertThat(IsbnUtils.canonicalize("0306406153")).isNull();
+        assertThat(IsbnUtils.canonicalize("abc")).isNull();
+        assertThat(IsbnUtils.canonicalize(null)).isNull();
+    }
+
+    @Test
+    void canonicalize_WhenAlreadyCanonical_ShouldReturnSameInstance() {
+        // Given
+        String isbn = "9780306406157";
+
+        // When & Then
+        assertThat(IsbnUtils.canonicalize(isbn)).isSameAs(isbn);
+    }
+
+    @Test
+    void normalize_ShouldStripSeparatorsAndUpperCaseCheckDigit() {
+        assertThat(IsbnUtils.normalize("0-8044 2957-x")).isEqualTo("080442957X");
+        assertThat(IsbnUtils.normalize(null)).isNull();
+    }
+
+    @Test
+    void normalize_WhenAlreadyNormalized_ShouldReturnSameInstance() {
+        // Given
+        String isbn = "080442957X";
+
+        // When & Then
+        assertThat(IsbnUtils.normalize(isbn)).isSameAs(isbn);
+    }
+}
@@ -0,0 +1,108 @@
+package com.saida.bookstore.validator;
+
+import com.saida.bookstore.dto.BookDto;
+import com.saida.bookstore.exception.ValidationException;
+import com.saida.bookstore.validator.impl.BookAuthorValidator;
+import com.saida.bookstore.validator.impl.BookIsbnValidator;
+import com.saida.bookstore.validator.impl.BookPriceValidator;
+import com.saida.bookstore.validator.impl.BookPublicationYearValidator;
+import com.saida.bookstore.validator.impl.BookTitleValidator;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.Year;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class CompositeBookValidatorTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private final CompositeBookValidator compositeBookValidator = new CompositeBookValidator(List.of(
+            new BookTitleValidator(),
+            new BookAuthorValidator(),
+            new BookIsbnValidator(),
+            new BookPriceValidator(),
+            new BookPublicationYearValidator()
+    ), meterRegistry);
+
+    private final BookDto validBook = new BookDto(null, "Effective Java", "Joshua Bloch",
+            "978-0-13-468599-1", new BigDecimal("45.99"), 2018, null, null, 1L);
+
+    private final BookDto invalidBook = new BookDto(null, " ", null, "12-34",
+            new BigDecimal("1.999"), Year.now().getValue() + 1, null, null, 1L);
+
+    @Test
+    void collectErrors_WhenBookValid_ShouldReturnSharedEmptyList() {
+        // When
+        List<String> errors = compositeBookValidator.collectErrors(validBook, false);
+
+        // Then
+        assertThat(errors).isSameAs(BookValidator.NO_ERRORS);
+        assertThat(meterRegistry.get("bookstore.validation").timer().count()).isEqualTo(1);
+    }
+
+    @Test
+    void collectErrors_WhenBookInvalid_ShouldCollectErrorsOfAllValidators() {
+        // When
+        List<String> errors = compositeBookValidator.collectErrors(invalidBook, false);
+
+        // Then
+        assertThat(errors).containsExactly(
+                "Title must not be empty",
+                "Author must not be empty",
+                "Invalid ISBN format. Examples: '0306406152' or '9780306406157'",
+                "Price must have at most 2 decimal places",
+                "Publication year must not exceed current year " + Year.now().getValue()
+        );
+    }
+
+    @Test
+    void collectErrors_WhenValuesOutsideDatabaseConstraints_ShouldReturnErrors() {
+        // Given
+        BookDto book = new BookDto(null, "Effective Java", "Joshua Bloch", "9780134685991",
+                new BigDecimal("100000000.00"), 1500, null, null, null);
+
+        // When
+        List<String> errors = compositeBookValidator.collectErrors(book, false);
+
+        // Then
+        assertThat(errors).containsExactly(
+                "Price must not exceed 99999999.99",
+                "Publication year must be at least 1501"
+        );
+    }
+
+    @Test
+    void collectErrors_WhenValuesAtDatabaseLimits_ShouldAcceptThem() {
+        // Given
+        BookDto book = new BookDto(null, "Effective Java", "Joshua Bloch", "9780134685991",
+                new BigDecimal("99999999.99"), 1501, null, null, null);
+
+        // When & Then
+        assertThat(compositeBookValidator.collectErrors(book, false)).isEmpty();
+    }
+
+    @Test
+    void collectErrors_WhenFailFast_ShouldStopAtFirstError() {
+        // When
+        List<String> errors = compositeBookValidator.collectErrors(invalidBook, true);
+
+        // Then
+        assertThat(errors).containsExactly("Title must not be empty");
+    }
+
+    @Test
+    void validate_WhenBookInvalid_ShouldThrowValidationException() {
+        // When & Then
+        assertThatThrownBy(() -> compositeBookValidator.validate(invalidBook))
+                .isInstanceOf(ValidationException.class)
+                .hasMessage("Book data validation failed")
+                .extracting(e -> ((ValidationException) e).getErrors())
+                .asList()
+                .hasSize(5);
+    }
+}